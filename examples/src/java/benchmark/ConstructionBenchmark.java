@@ -0,0 +1,174 @@
+package benchmark;
+
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.topDown.TopDownParser;
+import edu.rit.gec8773.laps.resources.Resources;
+import edu.rit.gec8773.laps.scanner.CustomScanner;
+import edu.rit.gec8773.laps.util.RuleConstructor;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Compares creating grammar rules and running their hooks through reflection
+ * with doing so through the factories generated for them (the "-i" option)
+ * by parsing the same input many times with each. For example, from the
+ * examples directory:
+ * <pre>
+ * java -cp ... benchmark.ConstructionBenchmark intCalculator.Calculator intCalculator/test1.int
+ * java -cp ... benchmark.ConstructionBenchmark myLanguage.Program MyLanguage/function_test.lang
+ * </pre>
+ * Anything the language prints while parsing is discarded, and exceptions
+ * thrown by the language's own code while running the parsed input are
+ * ignored. Since creating the rules is a small part of a parse, the rules
+ * below, whose constructors do nothing, are also created on their own
+ * through a single call site, as the parsers do.
+ */
+public class ConstructionBenchmark {
+
+    private static final int DEFAULT_ITERATIONS = 20_000;
+    private static final int ROUNDS = 5;
+
+    /**
+     * The number of rules created for each parse when creating them on
+     * their own
+     */
+    private static final int RULES_PER_PARSE = 1_000;
+
+    /**
+     * Rules whose constructors do nothing, two of each arity
+     */
+    public static class Leaf {
+        public Leaf(Object token) {}
+    }
+
+    public static class Name {
+        public Name(Object token) {}
+    }
+
+    public static class Unary {
+        public Unary(Object operator, Object operand) {}
+    }
+
+    public static class Call {
+        public Call(Object function, Object argument) {}
+    }
+
+    public static class Binary {
+        public Binary(Object left, Object operator, Object right) {}
+    }
+
+    public static class Assign {
+        public Assign(Object name, Object equals, Object value) {}
+    }
+
+    public static class Group {
+        public Group(Object open, Object list, Object value, Object close) {}
+    }
+
+    public static class Block {
+        public Block(Object open, Object list, Object value, Object close) {}
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("usage: ConstructionBenchmark <grammar-class> " +
+                    "<input-file> [iterations]");
+            System.exit(-5);
+        }
+        Class<?> grammar = Class.forName(args[0]);
+        String input = Files.readString(Path.of(args[1]));
+        int iterations = args.length > 2 ?
+                Integer.parseInt(args[2]) :
+                DEFAULT_ITERATIONS;
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        Parser parser = TopDownParser.grammarRule(grammar);
+        Class<?>[] kinds = { Leaf.class, Name.class, Unary.class, Call.class,
+                Binary.class, Assign.class, Group.class, Block.class };
+        RuleConstructor[] rules = new RuleConstructor[kinds.length];
+        for (int i = 0; i < kinds.length; ++i)
+            rules[i] = new RuleConstructor(kinds[i].getConstructors()[0]);
+
+        // warm up both paths before measuring
+        for (int i = 0; i < 2; ++i) {
+            run(parser, input, iterations, i == 1);
+            create(rules, iterations, i == 1);
+        }
+
+        long[] parses = { Long.MAX_VALUE, Long.MAX_VALUE };
+        long[] creations = { Long.MAX_VALUE, Long.MAX_VALUE };
+        for (int round = 0; round < ROUNDS; ++round) {
+            for (int i = 0; i < 2; ++i) {
+                parses[i] = Math.min(parses[i],
+                        run(parser, input, iterations, i == 1));
+                creations[i] = Math.min(creations[i],
+                        create(rules, iterations, i == 1));
+            }
+        }
+        System.setOut(out);
+        System.out.println(grammar.getName() + ", " + iterations +
+                " parses, best of " + ROUNDS + " rounds");
+        System.out.printf("  reflection:     %8.3f ms%n", parses[0] / 1e6);
+        System.out.printf("  factories:      %8.3f ms%n", parses[1] / 1e6);
+        System.out.println(iterations * RULES_PER_PARSE +
+                " rules created on their own");
+        System.out.printf("  reflection:     %8.3f ms%n", creations[0] / 1e6);
+        System.out.printf("  factories:      %8.3f ms%n", creations[1] / 1e6);
+    }
+
+    private static void useFactories(boolean useFactories) {
+        if (useFactories)
+            Resources.instance.enableMethodHandles();
+        else
+            Resources.instance.disableMethodHandles();
+    }
+
+    /**
+     * Parses the input a number of times
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    private static long run(Parser parser, String input, int iterations,
+                            boolean useFactories) throws Exception {
+        useFactories(useFactories);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; ++i) {
+            try {
+                if (parser.parse(new CustomScanner(input)) == null)
+                    throw new IllegalStateException("the input failed to " +
+                            "parse");
+            } catch (InvocationTargetException ignored) {}
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Creates {@link ConstructionBenchmark#RULES_PER_PARSE} rules for each
+     * iteration, taking turns between each kind so the call site sees them
+     * all
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    private static long create(RuleConstructor[] rules, int iterations,
+                               boolean useFactories) throws Exception {
+        useFactories(useFactories);
+        Object value = "x";
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; ++i) {
+            for (int j = 0; j < RULES_PER_PARSE; ++j) {
+                Object[] values = new Object[(j & 7) / 2 + 1];
+                Arrays.fill(values, value);
+                value = rules[j & 7].newInstance(values);
+            }
+        }
+        if (value == null)
+            throw new IllegalStateException("a rule wasn't created");
+        return System.nanoTime() - start;
+    }
+}
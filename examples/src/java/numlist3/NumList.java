@@ -0,0 +1,57 @@
+package numlist3;
+
+import edu.rit.gec8773.laps.annotation.*;
+
+import java.util.List;
+
+@GrammarRule
+public class NumList {
+
+    //  Skips
+
+    @Token(skip = true)
+    public static String WHITESPACE = "\\s+";
+
+    //  Tokens
+
+    @Token public static String LPAREN = "\\(";
+    @Token public static String RPAREN = "\\)";
+
+    @Token public static String NUMBER = "\\d+";
+    @Token public static String COMMA = ",";
+
+    @Token public static String DONE = "done";
+
+    /**
+     * Prints out how to use the NumList language
+     */
+    @RunBeforeFirstInit // optional run before constructor
+    public static void setupOnce() {
+        System.out.print("Insert numbers in the form: ");
+        System.out.println("( num1, num2, ..., numN )");
+        System.out.println("Note: you can add any whitespace you want");
+        System.out.println("When you're done, enter \"done\"");
+    }
+
+    private final List<Numbers> lists;
+
+    /**
+     * Saves every list of numbers entered before the DONE token. Unlike
+     * numlist2, the lists are collected by a {@link List} parameter rather
+     * than a recursive grammar rule.
+     *
+     * @param lists the lists of numbers
+     * @param done (ignored) the DONE token
+     */
+    public NumList(List<Numbers> lists, String done) {
+        this.lists = lists;
+    }
+
+    /**
+     * Prints out the amount of lists entered
+     */
+    @RunAfterEachInit
+    public void run() {
+        System.out.println(lists.size() + " list(s) entered");
+    }
+}
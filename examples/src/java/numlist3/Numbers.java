@@ -0,0 +1,38 @@
+package numlist3;
+
+import edu.rit.gec8773.laps.annotation.GrammarRule;
+import edu.rit.gec8773.laps.annotation.RunAfterEachInit;
+import edu.rit.gec8773.laps.annotation.Separator;
+
+import java.util.List;
+
+@GrammarRule
+public class Numbers {
+
+    private final List<String> numbers;
+
+    /**
+     * Saves the numbers between the parentheses, which are separated by
+     * COMMA tokens
+     *
+     * @param lparen (ignored) the LPAREN token
+     * @param number the NUMBER tokens
+     * @param rparen (ignored) the RPAREN token
+     */
+    public Numbers(String lparen, @Separator("COMMA") List<String> number,
+                   String rparen) {
+        numbers = number;
+    }
+
+    /**
+     * Prints out the list then its sum to {@link System#out}
+     */
+    @RunAfterEachInit
+    public void run() {
+        System.out.println("(" + String.join(", ", numbers) + ")");
+        int sum = 0;
+        for (String number : numbers)
+            sum += Integer.parseInt(number);
+        System.out.println(sum);
+    }
+}
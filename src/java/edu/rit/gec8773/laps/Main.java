@@ -1,14 +1,22 @@
 package edu.rit.gec8773.laps;
 
 import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.bottomUp.LALRParser;
+import edu.rit.gec8773.laps.parser.earley.EarleyParser;
+import edu.rit.gec8773.laps.parser.ll.LLParser;
+import edu.rit.gec8773.laps.parser.topDown.ConcreteSyntaxParser;
+import edu.rit.gec8773.laps.parser.topDown.ExplicitStackParser;
 import edu.rit.gec8773.laps.parser.topDown.TopDownParser;
 import edu.rit.gec8773.laps.resources.Resources;
 import edu.rit.gec8773.laps.scanner.CustomScanner;
+import edu.rit.gec8773.laps.scanner.TokenArrayScanner;
 import edu.rit.gec8773.laps.util.BNFWriter;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.regex.Pattern;
 
 /**
@@ -21,6 +29,28 @@ public class Main {
 	private static Parser p;
 	private static BNFWriter bnfWriter = null;
 
+	/**
+	 * The name of the engine to parse with
+	 */
+	private static String engine = "recursive";
+
+	/**
+	 * Set when the input is parsed into a concrete syntax tree and printed
+	 */
+	private static boolean raw = false;
+
+	/**
+	 * The name of the class set by the "-c" option, whose grammar is only
+	 * built once every option is parsed
+	 */
+	private static String headName = null;
+
+	/**
+	 * The names of the engines which can be set by the "-p" option
+	 */
+	private static final List<String> ENGINES =
+			List.of("recursive", "iterative", "ll", "lalr", "earley");
+
 	/**
 	 * Prints out the usage message
 	 */
@@ -46,6 +76,41 @@ public class Main {
 
 				"-d: Enables debugging output\n" +
 
+				"-m: Enables packrat parsing, which remembers the result of " +
+				"each grammar rule at each input position so it is parsed " +
+				"at most once (note: constructors and methods marked with " +
+				"@RunAfterEachInit may then run fewer times)\n" +
+
+				"-x: Matches tokens with a single DFA compiled from every " +
+				"token pattern instead of one regular expression at a time\n" +
+
+				"-i: Creates grammar rules and runs their hooks through " +
+				"factories generated once for each instead of reflection\n" +
+
+				"-t: Reads all the input into tokens before parsing so " +
+				"backtracking never matches the same input twice\n" +
+
+				"-e: Records the grammar rules accepted while parsing and " +
+				"only creates them and runs their @RunAfterEachInit " +
+				"methods once the whole input is accepted, so alternatives " +
+				"which are backtracked out of create nothing (note: only " +
+				"the \"recursive\" and \"iterative\" engines backtrack)\n" +
+
+				"-r: Prints the concrete syntax tree of the input instead of " +
+				"creating grammar rules, so no constructor or hook runs " +
+				"(note: always parses with the \"iterative\" engine)\n" +
+
+				"-p <engine>: Sets the engine which parses the input, either " +
+				"\"recursive\" (the default), \"iterative\", which keeps " +
+				"the grammar rules being parsed on the heap instead of the " +
+				"thread's stack, \"ll\", which parses an LL(1) grammar " +
+				"from a table without backtracking, \"lalr\", which " +
+				"parses an LALR(1) grammar bottom up, including left " +
+				"recursive and infix rules, or \"earley\", which parses " +
+				"any grammar, allowing constructors of a grammar rule to " +
+				"start with the same type and picking between the ways " +
+				"of parsing the input by @Priority\n" +
+
 				"-f <filename>: executes source code from the file with the " +
 				"given filename in the described language\n" +
 
@@ -53,7 +118,7 @@ public class Main {
 
 				"\nNote: If you ever encounter a StackOverflowError during " +
 				"parsing of a large input, adding \"-Xss4m\" to the JVM " +
-				"arguments may fix your issue.");
+				"arguments or using \"-p iterative\" may fix your issue.");
 	}
 
 	/**
@@ -72,9 +137,7 @@ public class Main {
 			if (i + 1 == args.length || args[i + 1].startsWith("-")) {
 				return COMMAND_LINE_ARGS_FAIL;
 			}
-			ClassLoader loader = Thread.currentThread().getContextClassLoader();
-			r.setParserHead(TopDownParser.grammarRule(
-				loader.loadClass(args[++i])));
+			headName = args[++i];
 			return i;
 		});
 		argParseMap.put("s", (args, i) -> {
@@ -95,12 +158,47 @@ public class Main {
 			r.enableDebugOutput();
 			return i;
 		});
+		argParseMap.put("m", (args, i) -> {
+			r.enableMemoization();
+			return i;
+		});
+		argParseMap.put("x", (args, i) -> {
+			r.enableDFALexer();
+			return i;
+		});
+		argParseMap.put("i", (args, i) -> {
+			r.enableMethodHandles();
+			return i;
+		});
+		argParseMap.put("t", (args, i) -> {
+			r.enableTokenArray();
+			return i;
+		});
+		argParseMap.put("e", (args, i) -> {
+			r.enableDeferredConstruction();
+			return i;
+		});
+		argParseMap.put("r", (args, i) -> {
+			raw = true;
+			return i;
+		});
+		argParseMap.put("p", (args, i) -> {
+			if (i + 1 == args.length || args[i + 1].startsWith("-"))
+				return COMMAND_LINE_ARGS_FAIL;
+			engine = args[++i].toLowerCase();
+			if (!ENGINES.contains(engine))
+				throw new IllegalArgumentException("unknown parsing engine: " +
+						engine);
+			if (engine.equals("earley"))
+				r.enableAmbiguousRules();
+			return i;
+		});
 		argParseMap.put("f", (args, i) -> {
 			if (i + 1 == args.length || args[i + 1].startsWith("-"))
 				throw new IllegalArgumentException("the -f option requires a " +
 						"file argument");
 			else
-				sc = new CustomScanner(args[++i]);
+				sc = new CustomScanner(new File(args[++i]));
 			return i;
 		});
 		argParseMap.put("h", (args, i) -> {
@@ -110,6 +208,33 @@ public class Main {
 		});
 	}
 
+	/**
+	 * Creates the {@link Parser} of the engine set by the "-p" option
+	 *
+	 * @param head the top grammar rule
+	 * @return the {@link Parser}
+	 * @throws InvocationTargetException when the grammar doesn't suit the
+	 * engine
+	 */
+	private static Parser createEngine(Parser head)
+			throws InvocationTargetException {
+		switch (engine) {
+			case "recursive":
+				return head;
+			case "iterative":
+				return new ExplicitStackParser(head);
+			case "ll":
+				return new LLParser(head);
+			case "lalr":
+				return new LALRParser(head);
+			case "earley":
+				return new EarleyParser(head);
+			default:
+				throw new IllegalArgumentException("unknown parsing engine: " +
+						engine);
+		}
+	}
+
 	/**
 	 * Necessary to throw exceptions from lambda functions
 	 * @see java.util.function.BiFunction
@@ -125,7 +250,8 @@ public class Main {
 			MyBiFunction<String[], Integer, Integer>> argParseMap;
 
 	/**
-	 * Parses the commandline arguments
+	 * Parses the commandline arguments, then builds the grammar of the class
+	 * set by the "-c" option so every option affecting it applies
 	 *
 	 * @param args the arguments to parse
 	 * @throws Exception when an argument fails to parse
@@ -143,6 +269,11 @@ public class Main {
 					       .toLowerCase();
 			i = argParseMap.get(option).apply(args, i);
 		}
+		if (headName != null) {
+			ClassLoader loader = Thread.currentThread().getContextClassLoader();
+			r.setParserHead(TopDownParser.grammarRule(
+				loader.loadClass(headName)));
+		}
 	}
 
 	/**
@@ -210,16 +341,29 @@ public class Main {
 			}
 			if (sc == null)
 				sc = new CustomScanner(System.in);
-			Object AST = p.parse(sc);
+			Object AST;
+			Parser parser = raw ?
+					new ConcreteSyntaxParser(p) :
+					createEngine(p);
+			if (r.tokenArrayEnabled()) {
+				TokenArrayScanner tokens = new TokenArrayScanner(sc);
+				AST = parser.parse(tokens);
+				sc.reset(tokens.getInputPosition());
+			} else
+				AST = parser.parse(sc);
 			sc.skip();
+			if (raw && AST != null)
+				System.out.print(AST);
 			if (AST == null) {
 				System.out.print("\nCould not parse input: \"");
 				System.out.print(sc.getBufferString());
-				System.out.println("\" on line " + sc.getLineNumber());
+				System.out.println("\" on line " + sc.getLineNumber() +
+						", column " + sc.getColumnNumber());
 			} else {
 				System.out.print("\nUnparsed input: \"");
 				System.out.print(sc.getBufferString());
-				System.out.println("\" got to line " + sc.getLineNumber());
+				System.out.println("\" got to line " + sc.getLineNumber() +
+						", column " + sc.getColumnNumber());
 			}
 		} catch (InvocationTargetException e) { // for user exceptions
 			result = -3;
@@ -238,6 +382,10 @@ public class Main {
 			System.err.println();
 			e.printStackTrace();
 			result = -1;
+		} catch (StackOverflowError e) {
+			System.err.println("\nThe input is nested too deeply for the " +
+					"thread's stack; try \"-p iterative\" or \"-Xss4m\"");
+			result = -1;
 		} finally {
 			if (sc != null)
 				sc.close();
@@ -247,9 +395,13 @@ public class Main {
 
 	private static void printStackTrace(Throwable throwable) {
 		StackTraceElement[] elements = throwable.getStackTrace();
+		// User code is called through reflection or, with "-i", through the
+		// factories generated for it
 		Pattern nativeConstructorPattern = Pattern.compile("java\\.base/jdk" +
 				"\\.internal\\.reflect\\.Native(Constructor|Method)AccessorImpl\\." +
-				"(newInstance|invoke)0\\(Native Method\\)");
+				"(newInstance|invoke)0\\(Native Method\\)|" +
+				"edu\\.rit\\.gec8773\\.laps\\.util\\.(Factories\\.create|" +
+				"AnnotationUtils\\.lambda\\$).*");
 		System.err.println();
 		System.err.println(throwable.toString());
 		for (StackTraceElement element : elements)
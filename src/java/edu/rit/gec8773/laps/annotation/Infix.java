@@ -0,0 +1,16 @@
+package edu.rit.gec8773.laps.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Indicates that the annotated constructor combines two operands of its
+ * class with a binary {@link Operator} between them. The constructor takes
+ * the left operand, the operator as a {@link String}, and the right operand,
+ * which are parsed by precedence climbing over the class's other
+ * constructors, so no grammar rule is recursive on the left and the tree
+ * doesn't need to be rearranged afterwards.
+ */
+@Target(ElementType.CONSTRUCTOR)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Infix {
+}
@@ -0,0 +1,25 @@
+package edu.rit.gec8773.laps.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Indicates that the annotated token is a binary operator accepted by the
+ * {@link Infix} constructor of the grammar rule class declaring the token.
+ * Operators with a larger precedence bind more tightly, and operators with
+ * the same precedence group by their associativity, so {@code a - b - c} is
+ * {@code (a - b) - c} when the {@code -} operator is left associative.
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Operator {
+	int precedence();
+	Associativity associativity() default Associativity.LEFT;
+
+	/**
+	 * How a sequence of operators with the same precedence is grouped
+	 */
+	enum Associativity {
+		LEFT,
+		RIGHT
+	}
+}
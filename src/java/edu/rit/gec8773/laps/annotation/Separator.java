@@ -0,0 +1,14 @@
+package edu.rit.gec8773.laps.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Indicates the token which comes between the elements of a grammar rule
+ * constructor parameter typed as a {@link java.util.List} or an array. The
+ * value is the name of the token, such as {@code @Separator("COMMA")}.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Separator {
+	String value();
+}
@@ -0,0 +1,182 @@
+package edu.rit.gec8773.laps.parser;
+
+import edu.rit.gec8773.laps.scanner.Scanner;
+import edu.rit.gec8773.laps.util.IntMap;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * {@link ParseContext} holds everything which changes while parsing a single
+ * input, so the {@link Parser}s of a grammar never change once built and can
+ * parse many inputs at once, each with its own {@link ParseContext}. A
+ * {@link ParseContext} is only used by one thread at a time.
+ *
+ * @see Parser#parse(ParseContext)
+ */
+public class ParseContext {
+
+    private final Scanner scanner;
+
+    /**
+     * The remembered results of each {@link Parser} keyed by input position
+     */
+    private final IdentityHashMap<Parser, IntMap<?>> memoTables =
+            new IdentityHashMap<>();
+
+    /**
+     * Reusable argument buffers of each size, used like a stack
+     */
+    private Object[][][] buffers = new Object[8][][];
+    private int[] depths = new int[8];
+
+    /**
+     * The left recursive {@link Parser}s whose results are being grown, most
+     * recently started last, and the positions they're grown at
+     */
+    private Parser[] growing = new Parser[8];
+    private int[] growingAt = new int[8];
+    private int growingCount = 0;
+
+    /**
+     * True while the abstract syntax tree is recorded instead of created
+     */
+    private boolean deferring = false;
+
+    /**
+     * Class constructor for parsing the input of a {@link Scanner}
+     *
+     * @param scanner the {@link Scanner} to read from
+     */
+    public ParseContext(Scanner scanner) {
+        this.scanner = scanner;
+    }
+
+    /**
+     * Gets the {@link Scanner} being parsed
+     *
+     * @return the {@link Scanner}
+     */
+    public Scanner getScanner() {
+        return scanner;
+    }
+
+    /**
+     * Gets the table a {@link Parser} remembers its results in for this
+     * input, keyed by the position each result starts at
+     *
+     * @param parser the {@link Parser}
+     * @param <V> the type of the remembered results
+     * @return the table
+     */
+    @SuppressWarnings("unchecked")
+    public <V> IntMap<V> getMemoTable(Parser parser) {
+        return (IntMap<V>)memoTables.computeIfAbsent(parser,
+                key -> new IntMap<>());
+    }
+
+    /**
+     * Gets an empty argument buffer which isn't in use. Buffers must be
+     * released in the reverse order they were acquired in.
+     *
+     * @param size the length of the buffer
+     * @return the buffer
+     * @see ParseContext#releaseBuffer(int)
+     */
+    public Object[] acquireBuffer(int size) {
+        if (size >= buffers.length) {
+            buffers = Arrays.copyOf(buffers, size * 2);
+            depths = Arrays.copyOf(depths, size * 2);
+        }
+        Object[][] stack = buffers[size];
+        int depth = depths[size]++;
+        if (stack == null)
+            stack = buffers[size] = new Object[4][];
+        else if (depth == stack.length)
+            stack = buffers[size] = Arrays.copyOf(stack, depth * 2);
+        if (stack[depth] == null)
+            stack[depth] = new Object[size];
+        return stack[depth];
+    }
+
+    /**
+     * Empties the most recently acquired argument buffer of a size so it can
+     * be acquired again
+     *
+     * @param size the length of the buffer
+     */
+    public void releaseBuffer(int size) {
+        Arrays.fill(buffers[size][--depths[size]], null);
+    }
+
+    /**
+     * Records that a left recursive {@link Parser} started growing its
+     * result at a position. Growth stops in the reverse order it starts in.
+     *
+     * @param parser the {@link Parser}
+     * @param position the position its result starts at
+     * @see ParseContext#stopGrowing()
+     */
+    public void startGrowing(Parser parser, int position) {
+        if (growingCount == growing.length) {
+            growing = Arrays.copyOf(growing, growingCount * 2);
+            growingAt = Arrays.copyOf(growingAt, growingCount * 2);
+        }
+        growing[growingCount] = parser;
+        growingAt[growingCount++] = position;
+    }
+
+    /**
+     * Records that the most recently started growth stopped
+     */
+    public void stopGrowing() {
+        growing[--growingCount] = null;
+    }
+
+    /**
+     * Records that the outermost {@link Parser} started recording the
+     * abstract syntax tree to create once the whole input is accepted
+     *
+     * @return false if a {@link Parser} already started recording
+     * @see ParseContext#stopDeferring()
+     */
+    public boolean startDeferring() {
+        if (deferring)
+            return false;
+        deferring = true;
+        return true;
+    }
+
+    /**
+     * Records that the outermost {@link Parser} stopped recording the
+     * abstract syntax tree
+     */
+    public void stopDeferring() {
+        deferring = false;
+    }
+
+    /**
+     * Checks if the abstract syntax tree is being recorded, in which case
+     * grammar rules aren't created and their hooks don't run while parsing
+     *
+     * @return true if the abstract syntax tree is being recorded
+     * @see ParseContext#startDeferring()
+     */
+    public boolean isDeferring() {
+        return deferring;
+    }
+
+    /**
+     * Gets the {@link Parser} most recently started growing its result at a
+     * position which hasn't stopped
+     *
+     * @param position the position
+     * @return the {@link Parser} or null if none is growing there
+     */
+    public Parser getGrowing(int position) {
+        for (int i = growingCount - 1; i >= 0; --i)
+            if (growingAt[i] == position)
+                return growing[i];
+        return null;
+    }
+}
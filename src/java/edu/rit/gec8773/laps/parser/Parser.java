@@ -13,10 +13,14 @@ import java.lang.reflect.Type;
 public interface Parser extends Serializable {
 
     /**
-     * Parses input tokens from a {@link Scanner} and runs user code on the
-     * created abstract syntax tree.
+     * Parses input tokens from the {@link Scanner} of a {@link ParseContext}
+     * and runs user code on the created abstract syntax tree. If the input is
+     * not accepted, the {@link Scanner} is left at the position it was in
+     * before the call. All the state of the parse is kept in the
+     * {@link ParseContext}, so a {@link Parser} can be used by many threads
+     * at once with different {@link ParseContext}s.
      * @see Scanner
-     * @param sc the {@link Scanner} to read from
+     * @param context the {@link ParseContext} of the input being parsed
      * @return the created abstract syntax tree
      * @throws IOException when the {@link Scanner} has an I/O error
      * @throws InvocationTargetException when there is an uncaught exception in
@@ -25,15 +29,26 @@ public interface Parser extends Serializable {
      * @throws InstantiationException when there is an uncaught exception in a
      * constructor of a grammar rule
      */
-    Object parse(Scanner sc) throws IOException,
+    Object parse(ParseContext context) throws IOException,
             InvocationTargetException, InstantiationException;
 
     /**
-     * Returns the tokens which have been consumed by the parser back to the
-     * {@link Scanner} with intent to parse other grammar rules
-     * @param sc the {@link Scanner} to return to
+     * Parses input tokens from a {@link Scanner} with a new
+     * {@link ParseContext}
+     * @see Parser#parse(ParseContext)
+     * @param sc the {@link Scanner} to read from
+     * @return the created abstract syntax tree
+     * @throws IOException when the {@link Scanner} has an I/O error
+     * @throws InvocationTargetException when there is an uncaught exception in
+     * a method marked with {@link RunAfterEachInit},
+     * {@link RunBeforeEachInit}, and {@link RunBeforeFirstInit}
+     * @throws InstantiationException when there is an uncaught exception in a
+     * constructor of a grammar rule
      */
-    void returnTokens(Scanner sc);
+    default Object parse(Scanner sc) throws IOException,
+            InvocationTargetException, InstantiationException {
+        return parse(new ParseContext(sc));
+    }
 
     Type getStartingToken();
 }
@@ -0,0 +1,419 @@
+package edu.rit.gec8773.laps.parser.bottomUp;
+
+import edu.rit.gec8773.laps.parser.ParseContext;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.grammar.Grammar;
+import edu.rit.gec8773.laps.parser.grammar.Production;
+import edu.rit.gec8773.laps.parser.topDown.TopDownParser;
+import edu.rit.gec8773.laps.resources.Resources;
+import edu.rit.gec8773.laps.scanner.Scanner;
+import edu.rit.gec8773.laps.scanner.Token;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+/**
+ * {@link LALRParser} parses the grammar of a parser built by
+ * {@link TopDownParser#grammarRule(Class)} bottom up with LALR(1) tables
+ * found when it's created. Tokens are shifted onto a stack in the heap and
+ * a grammar rule constructor runs each time its production is reduced, so
+ * left recursive and {@link edu.rit.gec8773.laps.annotation.Infix} rules
+ * are parsed in a single pass over the input without backtracking. The
+ * hooks which run before a grammar rule is tried run each time the parser
+ * reaches a state where the rule can start. When several tokens a state
+ * has an action on match the same longest text, such as a keyword and an
+ * identifier, the ones after which the token following them can also be
+ * accepted are kept, and of those the one the top down parser reaches
+ * first in order of priority is read. When a token isn't accepted, the input is parsed
+ * up to the last position where it could have ended, as the top down
+ * parser gives the longest input its rules accept.
+ *
+ * @see LALRTable
+ */
+public class LALRParser implements Parser {
+
+    private final Parser head;
+    private final Grammar grammar;
+    private final LALRTable table;
+
+    /**
+     * Class constructor which finds the LALR(1) tables of a grammar
+     *
+     * @param head the {@link Parser} of the top grammar rule
+     * @throws InvocationTargetException when the grammar has a conflict
+     * which can't be resolved
+     */
+    public LALRParser(Parser head) throws InvocationTargetException {
+        this.head = head;
+        grammar = TopDownParser.toGrammar(head);
+        table = new LALRTable(grammar);
+    }
+
+    /**
+     * @return the context free grammar this parser parses
+     */
+    public Grammar getGrammar() {
+        return grammar;
+    }
+
+    @Override
+    public Object parse(ParseContext context) throws IOException,
+            InvocationTargetException, InstantiationException {
+        Scanner sc = context.getScanner();
+        int mark = sc.mark();
+        Lookahead lookahead = new Lookahead(sc, grammar.getTerminalCount());
+        int[] states = new int[16];
+        Object[] values = new Object[16];
+        int top = 0;
+        int end = grammar.getTerminalCount();
+        Checkpoint checkpoint = new Checkpoint();
+        boolean ending = false;
+        enter(0);
+        while (true) {
+            int state = states[top];
+            int id = end;
+            if (!ending) {
+                id = lookahead.find(table.terminals[state]);
+                if (lookahead.tiedCount > 1)
+                    id = choose(states, top, lookahead);
+                if (id != end && table.actions[state][end] !=
+                        LALRTable.ERROR && checkpoint.mark != sc.mark())
+                    checkpoint.take(top, sc.mark());
+            }
+            int action = table.actions[state][id];
+            if (action == LALRTable.ERROR) {
+                if (Resources.instance.debugEnabled())
+                    System.out.println("Failed to accept " +
+                            grammar.symbolName(id) + " token");
+                if (!ending && checkpoint.mark != -1) {
+                    top = checkpoint.restore(states, values, top);
+                    sc.reset(checkpoint.mark);
+                    ending = true;
+                    continue;
+                }
+                sc.reset(mark);
+                return null;
+            }
+            if (action == LALRTable.ACCEPT)
+                return values[top];
+            if (++top == states.length) {
+                states = Arrays.copyOf(states, top * 2);
+                values = Arrays.copyOf(values, top * 2);
+            }
+            if (action > 0) {
+                Token token = lookahead.shift(id);
+                if (Resources.instance.debugEnabled())
+                    System.out.println(grammar.symbolName(id) +
+                            " token = \"" + token.getValue() + '"');
+                values[top] = token;
+                states[top] = action - 1;
+            } else {
+                Production production =
+                        grammar.getProductions().get(-1 - action);
+                Object[] arguments = new Object[production.size()];
+                top -= arguments.length + 1;
+                checkpoint.save(states, values, top + 1);
+                System.arraycopy(values, top + 1, arguments, 0,
+                        arguments.length);
+                Arrays.fill(values, top + 1, top + 1 + arguments.length,
+                        null);
+                Object AST = production.reduce(arguments);
+                int below = states[top];
+                states[++top] = table.gotos[below][production.getLhs()];
+                values[top] = AST;
+            }
+            enter(states[top]);
+        }
+    }
+
+    /**
+     * Chooses between tokens which match the same longest text by trying
+     * the actions of each one, and of the token after it, on a copy of the
+     * state stack. When several of them can be followed by the token after
+     * them, the one the top down parser would read is chosen.
+     *
+     * @return the token chosen from the ones after which the next token is
+     * accepted, or the first token if there's none
+     */
+    private int choose(int[] states, int top, Lookahead lookahead)
+            throws IOException {
+        StateStack stack = new StateStack(top + 2);
+        int[] following = new int[grammar.getTerminalCount()];
+        Arrays.fill(following, -1);
+        int first = -1;
+        int accepted = 0;
+        for (int i = 0; i < lookahead.tiedCount; ++i) {
+            int id = lookahead.tied[i];
+            System.arraycopy(states, 0, stack.states, 0, top + 1);
+            stack.top = top;
+            if (!simulate(stack, id))
+                continue;
+            int next = lookahead.peek(lookahead.ends[id],
+                    table.terminals[stack.states[stack.top]]);
+            if (!simulate(stack, next))
+                continue;
+            following[id] = next;
+            if (first == -1)
+                first = id;
+            ++accepted;
+        }
+        if (accepted > 1) {
+            int preferred = table.prefer(states[top], following);
+            if (preferred != -1)
+                return preferred;
+        }
+        return first == -1 ? lookahead.tied[0] : first;
+    }
+
+    /**
+     * Runs the actions of the tables on a terminal without creating
+     * anything, until it's shifted or accepted
+     *
+     * @param stack the states, which are changed
+     * @param id the id of the terminal
+     * @return whether the terminal is accepted
+     */
+    private boolean simulate(StateStack stack, int id) {
+        while (true) {
+            int action = table.actions[stack.states[stack.top]][id];
+            if (action == LALRTable.ERROR)
+                return false;
+            if (action == LALRTable.ACCEPT)
+                return true;
+            if (action > 0) {
+                stack.push(action - 1);
+                return true;
+            }
+            Production production =
+                    grammar.getProductions().get(-1 - action);
+            stack.top -= production.size();
+            stack.push(table.gotos[stack.states[stack.top]]
+                    [production.getLhs()]);
+        }
+    }
+
+    /**
+     * Runs the hooks of each grammar rule which can start in a state
+     */
+    private void enter(int state) throws InvocationTargetException {
+        for (int nonterminal : table.predicted[state])
+            grammar.getNonterminal(nonterminal).enter();
+    }
+
+    @Override
+    public Type getStartingToken() {
+        return head.getStartingToken();
+    }
+
+    /**
+     * The states {@link LALRParser#simulate(StateStack, int)} runs the
+     * actions of the tables on, which grows since each reduction of an
+     * empty production adds a state
+     */
+    private static final class StateStack {
+        private int[] states;
+        private int top;
+
+        private StateStack(int capacity) {
+            states = new int[capacity];
+        }
+
+        private void push(int state) {
+            if (++top == states.length)
+                states = Arrays.copyOf(states, top * 2);
+            states[top] = state;
+        }
+    }
+
+    /**
+     * The last position where the input read so far could have ended,
+     * which the parse goes back to when a token after it isn't accepted.
+     * The stack isn't copied when the position is remembered; instead the
+     * entries a reduction overwrites are saved the first time it does.
+     */
+    private static final class Checkpoint {
+
+        /**
+         * The index of the top state and the position of the scanner, or -1
+         */
+        private int top = -1;
+        private int mark = -1;
+
+        /**
+         * The lowest index overwritten since the position was remembered.
+         * The entries from it to {@link Checkpoint#top} are saved in
+         * reverse order, so the one at an index is at {@code top - index}.
+         */
+        private int low;
+        private int[] states = new int[16];
+        private Object[] values = new Object[16];
+
+        private void take(int top, int mark) {
+            if (this.top != -1)
+                Arrays.fill(values, 0, this.top - low + 1, null);
+            this.top = top;
+            this.mark = mark;
+            low = top + 1;
+        }
+
+        /**
+         * Saves the entries a reduction is about to overwrite
+         *
+         * @param from the lowest index the reduction overwrites
+         */
+        private void save(int[] states, Object[] values, int from) {
+            if (top == -1)
+                return;
+            for (int i = Math.min(low, top + 1) - 1; i >= from; --i) {
+                int saved = top - i;
+                if (saved == this.states.length) {
+                    this.states = Arrays.copyOf(this.states, saved * 2);
+                    this.values = Arrays.copyOf(this.values, saved * 2);
+                }
+                this.states[saved] = states[i];
+                this.values[saved] = values[i];
+            }
+            low = Math.min(low, from);
+        }
+
+        /**
+         * Puts the stack back the way it was at the position
+         *
+         * @param current the index of the top state now
+         * @return the index of the top state at the position
+         */
+        private int restore(int[] states, Object[] values, int current) {
+            for (int i = low; i <= top; ++i) {
+                states[i] = this.states[top - i];
+                values[i] = this.values[top - i];
+            }
+            if (current > top)
+                Arrays.fill(values, top + 1, current + 1, null);
+            return top;
+        }
+    }
+
+    /**
+     * Finds which of the tokens a state has an action on is next in the
+     * input, remembering what was found at the current position since
+     * several reductions in a row look at the same tokens
+     */
+    private static final class Lookahead {
+        private final Scanner sc;
+        private final int end;
+
+        /**
+         * The position after the token of each id, -1 when the token isn't
+         * next, at the position they were found at
+         */
+        private final int[] ends;
+        private final int[] foundAt;
+        private int position = -1;
+        private int start;
+
+        /**
+         * The ids of the tokens which matched the longest text in the last
+         * call to {@link Lookahead#find(int[])}, in the order they were
+         * looked for in
+         */
+        private final int[] tied;
+        private int tiedCount = 0;
+
+        private Lookahead(Scanner sc, int end) {
+            this.sc = sc;
+            this.end = end;
+            ends = new int[end];
+            tied = new int[end];
+            foundAt = new int[end];
+            Arrays.fill(foundAt, -1);
+        }
+
+        /**
+         * Finds the longest of the tokens which is next in the input,
+         * preferring the smallest id when several have the same length,
+         * and remembers which ones have that length, without moving the
+         * scanner
+         *
+         * @param ids the token ids to look for in order
+         * @return the id of the token, or the end of the input when none of
+         * them is next
+         */
+        private int find(int[] ids) throws IOException {
+            int mark = sc.mark();
+            if (mark != position) {
+                position = mark;
+                sc.skip();
+                start = sc.mark();
+                sc.reset(mark);
+            }
+            int best = end;
+            int bestEnd = -1;
+            tiedCount = 0;
+            for (int id : ids) {
+                if (foundAt[id] != position) {
+                    foundAt[id] = position;
+                    sc.reset(start);
+                    ends[id] = -1;
+                    if (sc.hasNextToken(id)) {
+                        sc.nextToken(id);
+                        ends[id] = sc.mark();
+                    }
+                    sc.reset(mark);
+                }
+                if (ends[id] > bestEnd) {
+                    best = id;
+                    bestEnd = ends[id];
+                    tiedCount = 0;
+                }
+                if (ends[id] == bestEnd && bestEnd != -1)
+                    tied[tiedCount++] = id;
+            }
+            return best;
+        }
+
+        /**
+         * Finds the longest of the tokens which is next in the input at a
+         * position, preferring the smallest id when several have the same
+         * length, without moving the scanner or changing what
+         * {@link Lookahead#find(int[])} found
+         *
+         * @param from the position to look from
+         * @param ids the token ids to look for in order
+         * @return the id of the token, or the end of the input when none of
+         * them is next
+         */
+        private int peek(int from, int[] ids) throws IOException {
+            int mark = sc.mark();
+            sc.reset(from);
+            sc.skip();
+            int at = sc.mark();
+            int best = end;
+            int bestEnd = -1;
+            for (int id : ids) {
+                sc.reset(at);
+                if (sc.hasNextToken(id)) {
+                    sc.nextToken(id);
+                    if (sc.mark() > bestEnd) {
+                        best = id;
+                        bestEnd = sc.mark();
+                    }
+                }
+            }
+            sc.reset(mark);
+            return best;
+        }
+
+        /**
+         * Reads the token found by {@link Lookahead#find(int[])}
+         *
+         * @param id the id of the token
+         * @return the {@link Token}
+         */
+        private Token shift(int id) throws IOException {
+            sc.reset(start);
+            return sc.nextToken(id);
+        }
+    }
+}
@@ -0,0 +1,514 @@
+package edu.rit.gec8773.laps.parser.bottomUp;
+
+import edu.rit.gec8773.laps.parser.grammar.Grammar;
+import edu.rit.gec8773.laps.parser.grammar.Production;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the LALR(1) tables of a {@link Grammar}. The states are the sets of
+ * items of the LR(0) automaton, and the tokens which can follow each item
+ * are found by propagating them from state to state. When a state can
+ * either shift a token or reduce a production, the precedence of
+ * {@link edu.rit.gec8773.laps.annotation.Operator}s decides first, then the
+ * {@link edu.rit.gec8773.laps.annotation.Priority} of productions of the
+ * same grammar rule, and otherwise the token is shifted, which is as greedy
+ * as the top down parser. A state which can reduce two productions of
+ * different grammar rules is reported as a conflict.
+ *
+ * @see LALRParser
+ */
+final class LALRTable {
+
+    /**
+     * The action of a state on a token it can't accept
+     */
+    static final int ERROR = 0;
+
+    /**
+     * The action which accepts the whole input
+     */
+    static final int ACCEPT = Integer.MIN_VALUE;
+
+    /**
+     * The action of each state on each token id, where the end of the input
+     * is {@link Grammar#getTerminalCount()}. Shifting to a state is stored
+     * as the state plus one and reducing a production as minus one minus
+     * its index.
+     */
+    final int[][] actions;
+
+    /**
+     * The state of each state after reducing each nonterminal, or -1
+     */
+    final int[][] gotos;
+
+    /**
+     * The ids of the tokens each state has an action on, in order
+     */
+    final int[][] terminals;
+
+    /**
+     * The nonterminals which start in each state, outermost first
+     */
+    final int[][] predicted;
+
+    private final Grammar grammar;
+    private final List<Production> productions;
+    private final int end;
+
+    /**
+     * The production added to accept the start nonterminal, whose index is
+     * after every production of the grammar
+     */
+    private final int augmented;
+    private final int[][] rhs;
+
+    /**
+     * An item is a production with a position in its symbols. Items are
+     * numbered so the items of a production are next to each other.
+     */
+    private final int[] itemBase;
+    private final int[] itemProduction;
+    private final int[] itemDot;
+
+    private final ArrayList<int[]> kernels = new ArrayList<>();
+    private final ArrayList<Map<Integer, Integer>> transitions =
+            new ArrayList<>();
+
+    private final StringBuilder conflicts = new StringBuilder();
+
+    /**
+     * Builds the tables of a grammar
+     *
+     * @param grammar the {@link Grammar}
+     * @throws InvocationTargetException when the grammar has a conflict
+     * which can't be resolved
+     */
+    LALRTable(Grammar grammar) throws InvocationTargetException {
+        this.grammar = grammar;
+        productions = grammar.getProductions();
+        end = grammar.getTerminalCount();
+        augmented = productions.size();
+        rhs = new int[augmented + 1][];
+        for (Production production : productions)
+            rhs[production.getIndex()] = production.getRhs();
+        rhs[augmented] = new int[] { Grammar.symbol(grammar.getStart()) };
+        itemBase = new int[augmented + 1];
+        int items = 0;
+        for (int p = 0; p <= augmented; ++p) {
+            itemBase[p] = items;
+            items += rhs[p].length + 1;
+        }
+        itemProduction = new int[items];
+        itemDot = new int[items];
+        for (int p = 0; p <= augmented; ++p)
+            for (int dot = 0; dot <= rhs[p].length; ++dot) {
+                itemProduction[itemBase[p] + dot] = p;
+                itemDot[itemBase[p] + dot] = dot;
+            }
+        predicted = buildStates();
+        int states = kernels.size();
+        actions = new int[states][end + 1];
+        gotos = new int[states][grammar.getNonterminals().size()];
+        terminals = new int[states][];
+        BitSet[][] lookaheads = findLookaheads();
+        for (int state = 0; state < states; ++state)
+            fillState(state, lookaheads[state]);
+        if (conflicts.length() > 0)
+            throw new InvocationTargetException(new Exception(
+                    grammar.getNonterminal(grammar.getStart()).getName() +
+                    " is not an LALR(1) grammar\n" + conflicts));
+    }
+
+    /**
+     * Finds every state of the LR(0) automaton, each stored as the items
+     * it's reached with, its kernel
+     *
+     * @return the nonterminals which start in each state
+     */
+    private int[][] buildStates() {
+        Map<List<Integer>, Integer> states = new HashMap<>();
+        kernels.add(new int[] { itemBase[augmented] });
+        states.put(List.of(itemBase[augmented]), 0);
+        ArrayList<int[]> predicted = new ArrayList<>();
+        for (int state = 0; state < kernels.size(); ++state) {
+            int[] kernel = kernels.get(state);
+            BitSet[] none = new BitSet[kernel.length];
+            Arrays.fill(none, new BitSet());
+            Map<Integer, ArrayList<Integer>> successors = new LinkedHashMap<>();
+            LinkedHashSet<Integer> started = new LinkedHashSet<>();
+            for (int item : closure(kernel, none).keySet()) {
+                int p = itemProduction[item];
+                int dot = itemDot[item];
+                if (dot == 0 && p != augmented)
+                    started.add(productions.get(p).getLhs());
+                if (dot < rhs[p].length)
+                    successors.computeIfAbsent(rhs[p][dot],
+                            symbol -> new ArrayList<>()).add(item + 1);
+            }
+            Map<Integer, Integer> moves = new HashMap<>();
+            for (Map.Entry<Integer, ArrayList<Integer>> successor :
+                    successors.entrySet()) {
+                int[] next = successor.getValue()
+                                      .stream()
+                                      .mapToInt(Integer::intValue)
+                                      .sorted()
+                                      .toArray();
+                List<Integer> key = successor.getValue()
+                                             .stream()
+                                             .sorted()
+                                             .collect(Collectors.toList());
+                Integer target = states.get(key);
+                if (target == null) {
+                    target = kernels.size();
+                    kernels.add(next);
+                    states.put(key, target);
+                }
+                moves.put(successor.getKey(), target);
+            }
+            transitions.add(moves);
+            predicted.add(started.stream()
+                                 .mapToInt(Integer::intValue)
+                                 .toArray());
+        }
+        return predicted.toArray(new int[0][]);
+    }
+
+    /**
+     * Finds the tokens which can follow each kernel item by closing each
+     * kernel item alone with a placeholder token. The tokens found in the
+     * closure are passed to the next state directly, and the placeholder
+     * shows where the tokens following the kernel item are passed along,
+     * which is repeated until nothing changes.
+     *
+     * @return the tokens which can follow each kernel item of each state
+     */
+    private BitSet[][] findLookaheads() {
+        int states = kernels.size();
+        BitSet[][] lookaheads = new BitSet[states][];
+        for (int state = 0; state < states; ++state) {
+            lookaheads[state] = new BitSet[kernels.get(state).length];
+            for (int i = 0; i < lookaheads[state].length; ++i)
+                lookaheads[state][i] = new BitSet();
+        }
+        lookaheads[0][0].set(end);
+        int placeholder = end + 1;
+        BitSet[] passed = { new BitSet() };
+        passed[0].set(placeholder);
+        ArrayList<int[]> propagation = new ArrayList<>();
+        for (int state = 0; state < states; ++state) {
+            int[] kernel = kernels.get(state);
+            for (int i = 0; i < kernel.length; ++i)
+                for (Map.Entry<Integer, BitSet> entry :
+                        closure(new int[] { kernel[i] }, passed).entrySet()) {
+                    int item = entry.getKey();
+                    int p = itemProduction[item];
+                    int dot = itemDot[item];
+                    if (dot == rhs[p].length)
+                        continue;
+                    int target = transitions.get(state).get(rhs[p][dot]);
+                    int index = Arrays.binarySearch(kernels.get(target),
+                            item + 1);
+                    BitSet found = (BitSet)entry.getValue().clone();
+                    found.clear(placeholder);
+                    lookaheads[target][index].or(found);
+                    if (entry.getValue().get(placeholder))
+                        propagation.add(new int[] { state, i, target, index });
+                }
+        }
+        boolean changed;
+        do {
+            changed = false;
+            for (int[] edge : propagation) {
+                BitSet to = lookaheads[edge[2]][edge[3]];
+                int before = to.cardinality();
+                to.or(lookaheads[edge[0]][edge[1]]);
+                changed |= to.cardinality() != before;
+            }
+        } while (changed);
+        return lookaheads;
+    }
+
+    /**
+     * Adds the items which start each nonterminal after the position of an
+     * item, with the tokens which can follow them, until nothing changes
+     *
+     * @param kernel the items to close
+     * @param lookaheads the tokens which can follow each item of the kernel
+     * @return the tokens which can follow each item of the closure, with
+     * the kernel first and outer items before the items they start
+     */
+    private Map<Integer, BitSet> closure(int[] kernel, BitSet[] lookaheads) {
+        LinkedHashMap<Integer, BitSet> items = new LinkedHashMap<>();
+        ArrayDeque<Integer> work = new ArrayDeque<>();
+        for (int i = 0; i < kernel.length; ++i) {
+            items.put(kernel[i], (BitSet)lookaheads[i].clone());
+            work.add(kernel[i]);
+        }
+        while (!work.isEmpty()) {
+            int item = work.poll();
+            int p = itemProduction[item];
+            int dot = itemDot[item];
+            if (dot == rhs[p].length || Grammar.isTerminal(rhs[p][dot]))
+                continue;
+            BitSet follow = grammar.first(rhs[p], dot + 1);
+            if (grammar.isNullable(rhs[p], dot + 1))
+                follow.or(items.get(item));
+            for (Production production : grammar.getNonterminal(
+                    Grammar.nonterminal(rhs[p][dot])).getProductions()) {
+                int next = itemBase[production.getIndex()];
+                BitSet known = items.get(next);
+                if (known == null) {
+                    items.put(next, (BitSet)follow.clone());
+                    work.add(next);
+                } else {
+                    BitSet added = (BitSet)follow.clone();
+                    added.andNot(known);
+                    if (!added.isEmpty()) {
+                        known.or(added);
+                        work.add(next);
+                    }
+                }
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Finds which of several tokens matching the same text the top down
+     * parser would read in a state. The productions which start at each
+     * item of the state are followed in order of priority, the way the top
+     * down parser tries them, until one of the tokens is reached where the
+     * token after it can follow.
+     *
+     * @param state the state
+     * @param following the id of the token after each of the tokens by
+     *                  their ids, or -1 for the ids which aren't one of them
+     * @return the id of the token which is reached first, or -1 if none of
+     * them is
+     */
+    int prefer(int state, int[] following) {
+        BitSet candidates = new BitSet();
+        for (int id = 0; id < following.length; ++id)
+            if (following[id] != -1)
+                candidates.set(id);
+        BitSet started = new BitSet();
+        for (int item : kernels.get(state)) {
+            int found = reach(rhs[itemProduction[item]], itemDot[item], null,
+                    candidates, following, started);
+            if (found != -1)
+                return found;
+        }
+        return -1;
+    }
+
+    /**
+     * Follows the productions which can start the symbols from an index,
+     * and then the symbols after them, until one of the tokens looked for
+     * is reached
+     *
+     * @param symbols the symbols of a production
+     * @param from the index of the first symbol
+     * @param after the symbols which come after them, or null when they're
+     *              the rest of an item of the state
+     * @param candidates the ids of the tokens looked for
+     * @param following the id of the token after each token looked for
+     * @param started the nonterminals being followed, which aren't started
+     *                again before a token is reached
+     * @return the id of the token reached, or -1 if none is
+     */
+    private int reach(int[] symbols, int from, Continuation after,
+                      BitSet candidates, int[] following, BitSet started) {
+        if (from == symbols.length)
+            return after == null ? -1 : reach(after.symbols, after.from,
+                    after.after, candidates, following, started);
+        int symbol = symbols[from];
+        if (Grammar.isTerminal(symbol))
+            return candidates.get(symbol) &&
+                    follows(symbols, from + 1, after, following[symbol]) ?
+                    symbol : -1;
+        int nonterminal = Grammar.nonterminal(symbol);
+        if (started.get(nonterminal) ||
+                !grammar.getFirst(nonterminal).intersects(candidates))
+            return grammar.isNullable(nonterminal) ?
+                    reach(symbols, from + 1, after, candidates, following,
+                            started) :
+                    -1;
+        started.set(nonterminal);
+        Continuation rest = new Continuation(symbols, from + 1, after);
+        int found = -1;
+        for (Production production :
+                grammar.getNonterminal(nonterminal).getProductions()) {
+            found = reach(rhs[production.getIndex()], 0, rest, candidates,
+                    following, started);
+            if (found != -1)
+                break;
+        }
+        started.clear(nonterminal);
+        return found;
+    }
+
+    /**
+     * Checks if a token can be next after the symbols from an index are
+     * read up to it, which is assumed when it depends on what comes after
+     * the item the symbols started from
+     */
+    private boolean follows(int[] symbols, int from, Continuation after,
+                            int id) {
+        while (!grammar.first(symbols, from).get(id)) {
+            if (!grammar.isNullable(symbols, from))
+                return false;
+            if (after == null)
+                return true;
+            symbols = after.symbols;
+            from = after.from;
+            after = after.after;
+        }
+        return true;
+    }
+
+    /**
+     * Fills the actions and gotos of a state, resolving conflicts
+     */
+    private void fillState(int state, BitSet[] lookaheads) {
+        Map<Integer, Integer> moves = transitions.get(state);
+        Arrays.fill(gotos[state], -1);
+        Map<Integer, BitSet> items = closure(kernels.get(state), lookaheads);
+        for (Map.Entry<Integer, Integer> move : moves.entrySet())
+            if (Grammar.isTerminal(move.getKey()))
+                actions[state][move.getKey()] = move.getValue() + 1;
+            else
+                gotos[state][Grammar.nonterminal(move.getKey())] =
+                        move.getValue();
+        for (Map.Entry<Integer, BitSet> entry : items.entrySet()) {
+            int item = entry.getKey();
+            int p = itemProduction[item];
+            if (itemDot[item] != rhs[p].length)
+                continue;
+            if (p == augmented) {
+                if (entry.getValue().get(end))
+                    reduce(state, end, ACCEPT, items);
+                continue;
+            }
+            BitSet follow = entry.getValue();
+            for (int id = follow.nextSetBit(0); id >= 0;
+                 id = follow.nextSetBit(id + 1))
+                reduce(state, id, -1 - p, items);
+        }
+        terminals[state] = new int[end];
+        int count = 0;
+        for (int id = 0; id < end; ++id)
+            if (actions[state][id] != ERROR)
+                terminals[state][count++] = id;
+        terminals[state] = Arrays.copyOf(terminals[state], count);
+    }
+
+    /**
+     * Adds a reduce action to a state, or resolves the conflict with the
+     * action already there
+     *
+     * @param state the state
+     * @param id the token id the action is taken on
+     * @param reduce the reduce action
+     * @param items the items of the state
+     */
+    private void reduce(int state, int id, int reduce,
+                        Map<Integer, BitSet> items) {
+        int action = actions[state][id];
+        if (action == ERROR) {
+            actions[state][id] = reduce;
+            return;
+        }
+        if (action > 0) {
+            if (prefersReduce(-1 - reduce, id, items))
+                actions[state][id] = reduce;
+            return;
+        }
+        Production first = production(action);
+        Production second = production(reduce);
+        if (first != null && second != null &&
+                first.getLhs() == second.getLhs()) {
+            if (second.getPriority() < first.getPriority())
+                actions[state][id] = reduce;
+            return;
+        }
+        conflicts.append("    ")
+                 .append(describe(action))
+                 .append(" and ")
+                 .append(describe(reduce))
+                 .append(" can both be reduced before ")
+                 .append(grammar.symbolName(id))
+                 .append('\n');
+    }
+
+    /**
+     * Resolves a conflict between shifting a token and reducing a production
+     *
+     * @return true if the production is reduced
+     */
+    private boolean prefersReduce(int p, int id, Map<Integer, BitSet> items) {
+        Production reduced = productions.get(p);
+        int priority = Integer.MAX_VALUE;
+        for (int item : items.keySet()) {
+            int q = itemProduction[item];
+            int dot = itemDot[item];
+            if (q == augmented || dot == rhs[q].length || rhs[q][dot] != id)
+                continue;
+            Production shifted = productions.get(q);
+            if (dot == 1 &&
+                    shifted.getPrecedence() != Production.NO_PRECEDENCE &&
+                    reduced.getPrecedence() != Production.NO_PRECEDENCE) {
+                if (reduced.getPrecedence() != shifted.getPrecedence())
+                    return reduced.getPrecedence() > shifted.getPrecedence();
+                return reduced.isLeftAssociative();
+            }
+            if (shifted.getLhs() == reduced.getLhs())
+                priority = Math.min(priority, shifted.getPriority());
+        }
+        return priority != Integer.MAX_VALUE &&
+                reduced.getPriority() < priority;
+    }
+
+    /**
+     * @return the production an action reduces or null when it accepts
+     */
+    private Production production(int action) {
+        return action == ACCEPT ? null : productions.get(-1 - action);
+    }
+
+    private String describe(int action) {
+        Production production = production(action);
+        return production == null ?
+                "accepting " + grammar.symbolName(
+                        Grammar.symbol(grammar.getStart())) :
+                grammar.toString(production);
+    }
+
+    /**
+     * The symbols left of a production whose nonterminal
+     * {@link LALRTable#reach(int[], int, Continuation, BitSet, int[], BitSet)}
+     * is following
+     */
+    private static final class Continuation {
+        private final int[] symbols;
+        private final int from;
+        private final Continuation after;
+
+        private Continuation(int[] symbols, int from, Continuation after) {
+            this.symbols = symbols;
+            this.from = from;
+            this.after = after;
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package edu.rit.gec8773.laps.parser.cst;
+
+import edu.rit.gec8773.laps.parser.grammar.Grammar;
+import edu.rit.gec8773.laps.resources.Resources;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link ConcreteSyntaxTree} is the shape of a parse without any grammar
+ * rule being created: which rule and alternative accepted each part of the
+ * input, down to the tokens. Nodes are numbered from 0, the root, in the
+ * order they start in, and each one is stored across parallel arrays of
+ * ints, so a node costs the same few bytes whatever the grammar rule it
+ * stands for. The values of list, array and {@link java.util.Optional}
+ * parameters are children of the rule they're parameters of.
+ *
+ * @see Cursor
+ * @see Visitor
+ */
+public final class ConcreteSyntaxTree {
+
+    /**
+     * The value of {@link ConcreteSyntaxTree#getFirstChild(int)} and
+     * {@link ConcreteSyntaxTree#getNextSibling(int)} when there is no such
+     * node
+     */
+    public static final int NONE = -1;
+
+    /**
+     * The alternative of a node accepted by an
+     * {@link edu.rit.gec8773.laps.annotation.Infix} constructor and of a
+     * node accepted by a constructor without parameters
+     */
+    public static final int INFIX = -1;
+    public static final int EMPTY = -2;
+
+    private final List<String> ruleNames;
+    private final int size;
+
+    /**
+     * The token id of a token, or the symbol of a grammar rule as in
+     * {@link Grammar#symbol(int)}
+     */
+    private final int[] symbols;
+    private final int[] alternatives;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] firstChildren;
+    private final int[] nextSiblings;
+
+    private ConcreteSyntaxTree(Builder builder) {
+        ruleNames = builder.ruleNames;
+        size = builder.size;
+        symbols = Arrays.copyOf(builder.symbols, size);
+        alternatives = Arrays.copyOf(builder.alternatives, size);
+        starts = Arrays.copyOf(builder.starts, size);
+        ends = Arrays.copyOf(builder.ends, size);
+        firstChildren = Arrays.copyOf(builder.firstChildren, size);
+        nextSiblings = Arrays.copyOf(builder.nextSiblings, size);
+    }
+
+    /**
+     * {@link Builder} adds the nodes of a {@link ConcreteSyntaxTree} in the
+     * order they start in, finding the span of each grammar rule from the
+     * tokens inside it
+     */
+    public static class Builder {
+        private final List<String> ruleNames;
+        private int size = 0;
+        private int[] symbols = new int[64];
+        private int[] alternatives = new int[64];
+        private int[] starts = new int[64];
+        private int[] ends = new int[64];
+        private int[] firstChildren = new int[64];
+        private int[] nextSiblings = new int[64];
+
+        /**
+         * The grammar rules which haven't ended, outermost first, and the
+         * last child added to each
+         */
+        private int[] open = new int[16];
+        private int[] lastChildren = new int[16];
+        private int depth = 0;
+
+        /**
+         * The first open grammar rule which doesn't contain a token yet,
+         * and the end of the last token
+         */
+        private int unstarted = 0;
+        private int position = 0;
+
+        /**
+         * Class constructor
+         *
+         * @param ruleNames the name of each grammar rule by id
+         */
+        public Builder(List<String> ruleNames) {
+            this.ruleNames = ruleNames;
+        }
+
+        /**
+         * Starts a grammar rule inside the grammar rule which most recently
+         * started and hasn't ended
+         *
+         * @param rule the id of the grammar rule
+         * @param alternative the index of its alternative in order of
+         *                    priority, {@link ConcreteSyntaxTree#INFIX} or
+         *                    {@link ConcreteSyntaxTree#EMPTY}
+         */
+        public void startRule(int rule, int alternative) {
+            int node = add(Grammar.symbol(rule), alternative);
+            if (depth == open.length) {
+                open = Arrays.copyOf(open, depth * 2);
+                lastChildren = Arrays.copyOf(lastChildren, depth * 2);
+            }
+            open[depth] = node;
+            lastChildren[depth++] = NONE;
+        }
+
+        /**
+         * Adds a token inside the grammar rule which most recently started
+         * and hasn't ended
+         *
+         * @param id the token id
+         * @param start the position of the token in the input
+         * @param end the position after the token
+         */
+        public void token(int id, int start, int end) {
+            int node = add(id, 0);
+            starts[node] = start;
+            ends[node] = end;
+            for (; unstarted < depth; ++unstarted)
+                starts[open[unstarted]] = start;
+            position = end;
+        }
+
+        /**
+         * Ends the grammar rule which most recently started, which spans
+         * from its first token to its last, or is empty at the end of the
+         * token before it
+         */
+        public void endRule() {
+            int node = open[--depth];
+            if (unstarted > depth) {
+                ends[node] = position;
+                unstarted = depth;
+            } else {
+                starts[node] = position;
+                ends[node] = position;
+            }
+        }
+
+        private int add(int symbol, int alternative) {
+            if (size == symbols.length) {
+                int capacity = size * 2;
+                symbols = Arrays.copyOf(symbols, capacity);
+                alternatives = Arrays.copyOf(alternatives, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                firstChildren = Arrays.copyOf(firstChildren, capacity);
+                nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+            }
+            int node = size++;
+            symbols[node] = symbol;
+            alternatives[node] = alternative;
+            firstChildren[node] = NONE;
+            nextSiblings[node] = NONE;
+            if (depth > 0) {
+                int previous = lastChildren[depth - 1];
+                if (previous == NONE)
+                    firstChildren[open[depth - 1]] = node;
+                else
+                    nextSiblings[previous] = node;
+                lastChildren[depth - 1] = node;
+            }
+            return node;
+        }
+
+        /**
+         * @return the built {@link ConcreteSyntaxTree}
+         * @throws IllegalStateException when a grammar rule hasn't ended or
+         * nothing was added
+         */
+        public ConcreteSyntaxTree build() {
+            if (depth != 0 || size == 0)
+                throw new IllegalStateException("the tree must have a root " +
+                        "and every grammar rule must end");
+            return new ConcreteSyntaxTree(this);
+        }
+    }
+
+    /**
+     * @return the amount of nodes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the node of the grammar rule the input was parsed as
+     */
+    public int getRoot() {
+        return 0;
+    }
+
+    /**
+     * @param node a node
+     * @return true if the node is a token rather than a grammar rule
+     */
+    public boolean isToken(int node) {
+        return Grammar.isTerminal(symbols[node]);
+    }
+
+    /**
+     * @param node a node which is a grammar rule
+     * @return the id of the grammar rule
+     */
+    public int getRule(int node) {
+        return Grammar.nonterminal(symbols[node]);
+    }
+
+    /**
+     * @param rule the id of a grammar rule
+     * @return the name of the grammar rule
+     */
+    public String getRuleName(int rule) {
+        return ruleNames.get(rule);
+    }
+
+    /**
+     * @return the name of each grammar rule by id
+     */
+    public List<String> getRuleNames() {
+        return ruleNames;
+    }
+
+    /**
+     * @param node a node which is a grammar rule
+     * @return the index of the alternative which accepted it in order of
+     * priority, {@link ConcreteSyntaxTree#INFIX} or
+     * {@link ConcreteSyntaxTree#EMPTY}
+     */
+    public int getAlternative(int node) {
+        return alternatives[node];
+    }
+
+    /**
+     * @param node a node which is a token
+     * @return the token id
+     */
+    public int getTokenId(int node) {
+        return symbols[node];
+    }
+
+    /**
+     * @param node a node
+     * @return the position in the input where the node starts
+     */
+    public int getStart(int node) {
+        return starts[node];
+    }
+
+    /**
+     * @param node a node
+     * @return the position in the input after the node
+     */
+    public int getEnd(int node) {
+        return ends[node];
+    }
+
+    /**
+     * @param node a node
+     * @return the first node inside it or {@link ConcreteSyntaxTree#NONE}
+     */
+    public int getFirstChild(int node) {
+        return firstChildren[node];
+    }
+
+    /**
+     * @param node a node
+     * @return the next node inside the same grammar rule or
+     * {@link ConcreteSyntaxTree#NONE}
+     */
+    public int getNextSibling(int node) {
+        return nextSiblings[node];
+    }
+
+    /**
+     * @param node a node
+     * @return how the grammar rule or token is written in a grammar rule
+     */
+    public String getName(int node) {
+        if (isToken(node))
+            return "<" + Resources.instance.getToken(symbols[node]).getName()
+                                          .toUpperCase() + ">";
+        return getRuleName(getRule(node));
+    }
+
+    /**
+     * @return a {@link Cursor} at the root
+     */
+    public Cursor cursor() {
+        return new Cursor(this);
+    }
+
+    /**
+     * Visits every node in the order they start in, with a stack in the
+     * heap. Each grammar rule which is entered is also exited, even when
+     * its children are skipped.
+     *
+     * @param visitor the {@link Visitor}
+     */
+    public void accept(Visitor visitor) {
+        Cursor cursor = cursor();
+        while (true) {
+            int node = cursor.getNode();
+            boolean children;
+            if (isToken(node)) {
+                visitor.visitToken(this, node);
+                children = false;
+            } else
+                children = visitor.enterRule(this, node);
+            if (children && cursor.gotoFirstChild())
+                continue;
+            if (!isToken(node))
+                visitor.exitRule(this, node);
+            while (!cursor.gotoNextSibling()) {
+                if (!cursor.gotoParent())
+                    return;
+                visitor.exitRule(this, cursor.getNode());
+            }
+        }
+    }
+
+    /**
+     * @return each node on its own line, indented by its depth, with the
+     * alternative of each grammar rule and the span of each node
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        accept(new Visitor() {
+            private int depth = 0;
+
+            @Override
+            public boolean enterRule(ConcreteSyntaxTree tree, int node) {
+                line(node).append(" #").append(alternativeName(node));
+                span(node);
+                ++depth;
+                return true;
+            }
+
+            @Override
+            public void exitRule(ConcreteSyntaxTree tree, int node) {
+                --depth;
+            }
+
+            @Override
+            public void visitToken(ConcreteSyntaxTree tree, int node) {
+                line(node);
+                span(node);
+            }
+
+            private StringBuilder line(int node) {
+                for (int i = 0; i < depth; ++i)
+                    sb.append("  ");
+                return sb.append(getName(node));
+            }
+
+            private void span(int node) {
+                sb.append(' ').append(starts[node]).append("..")
+                  .append(ends[node]).append('\n');
+            }
+        });
+        return sb.toString();
+    }
+
+    private String alternativeName(int node) {
+        switch (alternatives[node]) {
+            case INFIX:
+                return "infix";
+            case EMPTY:
+                return "empty";
+            default:
+                return String.valueOf(alternatives[node]);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package edu.rit.gec8773.laps.parser.cst;
+
+import java.util.Arrays;
+
+/**
+ * {@link Cursor} walks a {@link ConcreteSyntaxTree} one node at a time,
+ * remembering the grammar rules it's inside so it can go back out of them
+ */
+public final class Cursor {
+
+    private final ConcreteSyntaxTree tree;
+
+    /**
+     * The grammar rules the cursor is inside, outermost first
+     */
+    private int[] parents = new int[16];
+    private int depth = 0;
+    private int node;
+
+    /**
+     * Class constructor for a cursor at the root of a tree
+     *
+     * @param tree the {@link ConcreteSyntaxTree}
+     */
+    Cursor(ConcreteSyntaxTree tree) {
+        this.tree = tree;
+        node = tree.getRoot();
+    }
+
+    /**
+     * @return the {@link ConcreteSyntaxTree} being walked
+     */
+    public ConcreteSyntaxTree getTree() {
+        return tree;
+    }
+
+    /**
+     * @return the node the cursor is at
+     */
+    public int getNode() {
+        return node;
+    }
+
+    /**
+     * @return the amount of grammar rules the node is inside
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Moves to the first node inside the node
+     *
+     * @return false if the node has no children, in which case the cursor
+     * doesn't move
+     */
+    public boolean gotoFirstChild() {
+        int child = tree.getFirstChild(node);
+        if (child == ConcreteSyntaxTree.NONE)
+            return false;
+        if (depth == parents.length)
+            parents = Arrays.copyOf(parents, depth * 2);
+        parents[depth++] = node;
+        node = child;
+        return true;
+    }
+
+    /**
+     * Moves to the next node inside the same grammar rule
+     *
+     * @return false if the node is the last one, in which case the cursor
+     * doesn't move
+     */
+    public boolean gotoNextSibling() {
+        if (depth == 0)
+            return false;
+        int sibling = tree.getNextSibling(node);
+        if (sibling == ConcreteSyntaxTree.NONE)
+            return false;
+        node = sibling;
+        return true;
+    }
+
+    /**
+     * Moves to the grammar rule the node is inside
+     *
+     * @return false if the node is the root, in which case the cursor
+     * doesn't move
+     */
+    public boolean gotoParent() {
+        if (depth == 0)
+            return false;
+        node = parents[--depth];
+        return true;
+    }
+
+    /**
+     * @return true if the node is a token rather than a grammar rule
+     * @see ConcreteSyntaxTree#isToken(int)
+     */
+    public boolean isToken() {
+        return tree.isToken(node);
+    }
+
+    /**
+     * @return the id of the grammar rule of the node
+     * @see ConcreteSyntaxTree#getRule(int)
+     */
+    public int getRule() {
+        return tree.getRule(node);
+    }
+
+    /**
+     * @return the alternative of the grammar rule of the node
+     * @see ConcreteSyntaxTree#getAlternative(int)
+     */
+    public int getAlternative() {
+        return tree.getAlternative(node);
+    }
+
+    /**
+     * @return the token id of the node
+     * @see ConcreteSyntaxTree#getTokenId(int)
+     */
+    public int getTokenId() {
+        return tree.getTokenId(node);
+    }
+
+    /**
+     * @return the position in the input where the node starts
+     */
+    public int getStart() {
+        return tree.getStart(node);
+    }
+
+    /**
+     * @return the position in the input after the node
+     */
+    public int getEnd() {
+        return tree.getEnd(node);
+    }
+
+    /**
+     * @return how the grammar rule or token of the node is written in a
+     * grammar rule
+     */
+    public String getName() {
+        return tree.getName(node);
+    }
+}
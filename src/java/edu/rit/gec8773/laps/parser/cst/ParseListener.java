@@ -0,0 +1,39 @@
+package edu.rit.gec8773.laps.parser.cst;
+
+import edu.rit.gec8773.laps.scanner.Token;
+
+/**
+ * {@link ParseListener} is told the shape of a parse as it's committed to,
+ * in the same order as {@link ConcreteSyntaxTree#accept(Visitor)} visits
+ * the nodes of a {@link ConcreteSyntaxTree}, without a tree being kept
+ *
+ * @see edu.rit.gec8773.laps.parser.topDown.StreamingParser
+ */
+public interface ParseListener {
+
+    /**
+     * Called when a grammar rule starts, before its children
+     *
+     * @param name how the grammar rule is written in a grammar rule
+     * @param alternative the index of the alternative which accepted it in
+     *                    order of priority, {@link ConcreteSyntaxTree#INFIX}
+     *                    or {@link ConcreteSyntaxTree#EMPTY}
+     */
+    default void enterRule(String name, int alternative) {}
+
+    /**
+     * Called for each token. The input may be released once the event is
+     * given, so {@link Token#getValue()} must be called during the event
+     * for the value to be kept.
+     *
+     * @param token the {@link Token}, with its position in the input
+     */
+    default void token(Token token) {}
+
+    /**
+     * Called when a grammar rule ends, after its children
+     *
+     * @param name how the grammar rule is written in a grammar rule
+     */
+    default void exitRule(String name) {}
+}
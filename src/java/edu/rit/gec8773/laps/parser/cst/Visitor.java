@@ -0,0 +1,35 @@
+package edu.rit.gec8773.laps.parser.cst;
+
+/**
+ * {@link Visitor} is called for each node of a {@link ConcreteSyntaxTree}
+ * by {@link ConcreteSyntaxTree#accept(Visitor)}
+ */
+public interface Visitor {
+
+    /**
+     * Called when a grammar rule starts, before its children
+     *
+     * @param tree the {@link ConcreteSyntaxTree}
+     * @param node the node of the grammar rule
+     * @return false to skip the children of the grammar rule
+     */
+    default boolean enterRule(ConcreteSyntaxTree tree, int node) {
+        return true;
+    }
+
+    /**
+     * Called when a grammar rule ends, after its children
+     *
+     * @param tree the {@link ConcreteSyntaxTree}
+     * @param node the node of the grammar rule
+     */
+    default void exitRule(ConcreteSyntaxTree tree, int node) {}
+
+    /**
+     * Called for each token
+     *
+     * @param tree the {@link ConcreteSyntaxTree}
+     * @param node the node of the token
+     */
+    default void visitToken(ConcreteSyntaxTree tree, int node) {}
+}
@@ -0,0 +1,516 @@
+package edu.rit.gec8773.laps.parser.earley;
+
+import edu.rit.gec8773.laps.parser.ParseContext;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.grammar.Grammar;
+import edu.rit.gec8773.laps.parser.grammar.Nonterminal;
+import edu.rit.gec8773.laps.parser.grammar.Production;
+import edu.rit.gec8773.laps.parser.topDown.TopDownParser;
+import edu.rit.gec8773.laps.resources.Resources;
+import edu.rit.gec8773.laps.scanner.Scanner;
+import edu.rit.gec8773.laps.scanner.Token;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * {@link EarleyParser} parses any context free grammar, including ambiguous
+ * ones with several grammar rule constructors starting with the same type,
+ * in time cubic in the length of the input at worst and linear for
+ * deterministic grammars without right recursion. Every way of parsing the
+ * input is kept in a shared packed parse forest, where each grammar rule
+ * over a span of the input is stored once, with each production which
+ * accepts it packed inside. One tree is then picked from the forest and its grammar
+ * rule constructors run:
+ * <ul>
+ *  <li>an {@link edu.rit.gec8773.laps.annotation.Infix} production is
+ *  picked over any other, and the operator with the lowest precedence,
+ *  grouped by its associativity, becomes the root</li>
+ *  <li>otherwise the production with the highest
+ *  {@link edu.rit.gec8773.laps.annotation.Priority} is picked</li>
+ *  <li>where a production can split the input between its symbols in
+ *  several ways, earlier symbols take as much input as they can</li>
+ * </ul>
+ * Tokens are matched where the grammar expects them, so two tokens which
+ * match the same text don't make the grammar ambiguous unless both are
+ * expected there. The longest input which can be parsed is accepted.
+ */
+public class EarleyParser implements Parser {
+
+    private final Parser head;
+    private final Grammar grammar;
+
+    /**
+     * The number of each production's first item when the items of every
+     * production are numbered one after another
+     */
+    private final int[] itemBase;
+
+    /**
+     * Class constructor for the grammar of a parser. Two grammar rule
+     * constructors may start with the same type when
+     * {@link Resources#ambiguousRulesEnabled()} is set before the grammar
+     * is built.
+     *
+     * @param head the {@link Parser} of the top grammar rule
+     * @throws InvocationTargetException when a grammar rule can be
+     * rewritten as itself, which makes the forest infinite
+     */
+    public EarleyParser(Parser head) throws InvocationTargetException {
+        this.head = head;
+        grammar = TopDownParser.toGrammar(head);
+        checkCycles();
+        List<Production> productions = grammar.getProductions();
+        itemBase = new int[productions.size()];
+        int count = 0;
+        for (Production production : productions) {
+            itemBase[production.getIndex()] = count;
+            count += production.size() + 1;
+        }
+    }
+
+    /**
+     * Rejects a grammar where a nonterminal can be rewritten as itself
+     * without accepting any input
+     */
+    private void checkCycles() throws InvocationTargetException {
+        int count = grammar.getNonterminals().size();
+        boolean[][] reaches = new boolean[count][count];
+        for (Production production : grammar.getProductions()) {
+            int[] rhs = production.getRhs();
+            for (int i = 0; i < rhs.length; ++i)
+                if (!Grammar.isTerminal(rhs[i]) &&
+                        grammar.isNullable(rhs, i + 1) &&
+                        nullablePrefix(rhs, i))
+                    reaches[production.getLhs()][Grammar.nonterminal(rhs[i])] =
+                            true;
+        }
+        for (int k = 0; k < count; ++k)
+            for (int i = 0; i < count; ++i)
+                if (reaches[i][k])
+                    for (int j = 0; j < count; ++j)
+                        reaches[i][j] |= reaches[k][j];
+        for (int n = 0; n < count; ++n)
+            if (reaches[n][n])
+                throw new InvocationTargetException(new Exception(
+                        grammar.getNonterminal(n).getName() + " can be " +
+                        "rewritten as itself, so it has infinitely many " +
+                        "parse trees"));
+    }
+
+    /**
+     * @return true if the symbols before an index can all be empty
+     */
+    private boolean nullablePrefix(int[] rhs, int end) {
+        for (int i = 0; i < end; ++i)
+            if (Grammar.isTerminal(rhs[i]) ||
+                    !grammar.isNullable(Grammar.nonterminal(rhs[i])))
+                return false;
+        return true;
+    }
+
+    /**
+     * @return the context free grammar this parser parses
+     */
+    public Grammar getGrammar() {
+        return grammar;
+    }
+
+    @Override
+    public Object parse(ParseContext context) throws IOException,
+            InvocationTargetException, InstantiationException {
+        Scanner sc = context.getScanner();
+        int mark = sc.mark();
+        Node root = new Run(sc, mark).recognize();
+        if (root == null) {
+            if (Resources.instance.debugEnabled())
+                System.out.println("Failed to accept " +
+                        grammar.getNonterminal(grammar.getStart()).getName() +
+                        " rule");
+            sc.reset(mark);
+            return null;
+        }
+        Object AST = build(root);
+        sc.reset(root.end);
+        return AST;
+    }
+
+    @Override
+    public Type getStartingToken() {
+        return head.getStartingToken();
+    }
+
+    /**
+     * A production with a position in its symbols, which started at one
+     * position in the input and got to another. Each way the symbols before
+     * the position were accepted is packed as a {@link Link}.
+     */
+    private static final class Item {
+        private final Production production;
+        private final int dot;
+        private final int origin;
+        private final int end;
+        private final ArrayList<Link> links = new ArrayList<>(1);
+
+        private Item(Production production, int dot, int origin, int end) {
+            this.production = production;
+            this.dot = dot;
+            this.origin = origin;
+            this.end = end;
+        }
+
+        private boolean isComplete() {
+            return dot == production.size();
+        }
+    }
+
+    /**
+     * One way an {@link Item} was reached: the item before its last symbol
+     * and the value of that symbol, a {@link Token} or a {@link Node}
+     */
+    private static final class Link {
+        private final Item previous;
+        private final Object child;
+
+        private Link(Item previous, Object child) {
+            this.previous = previous;
+            this.child = child;
+        }
+    }
+
+    /**
+     * A nonterminal accepted over a span of the input, shared by every item
+     * which uses it, with each complete {@link Item} which accepts it
+     */
+    private static final class Node {
+        private final int nonterminal;
+        private final int start;
+        private final int end;
+        private final ArrayList<Item> items = new ArrayList<>(1);
+
+        private Node(int nonterminal, int start, int end) {
+            this.nonterminal = nonterminal;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * A token matched at a position, or null when it isn't next
+     */
+    private static final class Scan {
+        private final Token token;
+        private final int end;
+
+        private Scan(Token token, int end) {
+            this.token = token;
+            this.end = end;
+        }
+    }
+
+    /**
+     * The items which got to one position in the input
+     */
+    private static final class Column {
+        private final int position;
+        private final HashMap<Long, Item> items = new HashMap<>();
+        private final ArrayList<Item> work = new ArrayList<>();
+        private int done = 0;
+
+        /**
+         * The items waiting for each nonterminal to be accepted from this
+         * position
+         */
+        private final HashMap<Integer, ArrayList<Item>> waiting =
+                new HashMap<>();
+
+        /**
+         * The nonterminals accepted up to this position, keyed by the
+         * nonterminal and the position they start at
+         */
+        private final HashMap<Long, Node> nodes = new HashMap<>();
+
+        /**
+         * The items waiting for each token and the token found here
+         */
+        private final HashMap<Integer, ArrayList<Item>> expecting =
+                new HashMap<>();
+        private final HashMap<Integer, Scan> scans = new HashMap<>();
+
+        private Column(int position) {
+            this.position = position;
+        }
+    }
+
+    /**
+     * The chart of a single call to
+     * {@link EarleyParser#parse(ParseContext)}
+     */
+    private final class Run {
+        private final Scanner sc;
+        private final int start;
+        private final TreeMap<Integer, Column> columns = new TreeMap<>();
+
+        private Run(Scanner sc, int start) {
+            this.sc = sc;
+            this.start = start;
+        }
+
+        /**
+         * Finds every item of each position in order, predicting the
+         * productions of each expected nonterminal, completing the items
+         * waiting for each accepted nonterminal, and matching each expected
+         * token
+         *
+         * @return the start nonterminal accepted over the longest input or
+         * null
+         */
+        private Node recognize() throws IOException {
+            Column first = column(start);
+            for (Production production : grammar.getNonterminal(
+                    grammar.getStart()).getProductions())
+                add(first, production, 0, start, null, null);
+            Node accepted = null;
+            for (Integer position = start; position != null;
+                 position = columns.higherKey(position)) {
+                Column column = columns.get(position);
+                do {
+                    while (column.done < column.work.size())
+                        process(column, column.work.get(column.done++));
+                    scan(column);
+                } while (column.done < column.work.size());
+                Node node = column.nodes.get(key(grammar.getStart(), start));
+                if (node != null)
+                    accepted = node;
+            }
+            return accepted;
+        }
+
+        private void process(Column column, Item item) throws IOException {
+            if (item.isComplete()) {
+                complete(column, item);
+                return;
+            }
+            int symbol = item.production.getRhs()[item.dot];
+            if (Grammar.isTerminal(symbol)) {
+                Scan scan = column.scans.get(symbol);
+                if (scan == null)
+                    column.expecting.computeIfAbsent(symbol,
+                            id -> new ArrayList<>()).add(item);
+                else if (scan.token != null)
+                    advance(column(scan.end), item, scan.token);
+                return;
+            }
+            int nonterminal = Grammar.nonterminal(symbol);
+            ArrayList<Item> waiting = column.waiting.get(nonterminal);
+            if (waiting == null) {
+                column.waiting.put(nonterminal, waiting = new ArrayList<>());
+                for (Production production :
+                        grammar.getNonterminal(nonterminal).getProductions())
+                    add(column, production, 0, column.position, null, null);
+            }
+            waiting.add(item);
+            Node empty = column.nodes.get(key(nonterminal, column.position));
+            if (empty != null)
+                advance(column, item, empty);
+        }
+
+        /**
+         * Adds a complete item to the node of its nonterminal, and the
+         * first time the node is found, advances the items waiting for it
+         */
+        private void complete(Column column, Item item) {
+            int nonterminal = item.production.getLhs();
+            long key = key(nonterminal, item.origin);
+            Node node = column.nodes.get(key);
+            if (node != null) {
+                node.items.add(item);
+                return;
+            }
+            node = new Node(nonterminal, item.origin, column.position);
+            node.items.add(item);
+            column.nodes.put(key, node);
+            ArrayList<Item> waiting =
+                    columns.get(item.origin).waiting.get(nonterminal);
+            if (waiting != null)
+                for (int i = 0; i < waiting.size(); ++i)
+                    advance(column, waiting.get(i), node);
+        }
+
+        /**
+         * Matches each token expected at a position which hasn't been
+         * matched there yet, advancing the items waiting for it
+         */
+        private void scan(Column column) throws IOException {
+            if (column.expecting.isEmpty())
+                return;
+            ArrayList<Integer> ids = new ArrayList<>(column.expecting.keySet());
+            for (int id : ids) {
+                sc.reset(column.position);
+                sc.skip();
+                Scan scan = sc.hasNextToken(id) ?
+                        new Scan(sc.nextToken(id), sc.mark()) :
+                        new Scan(null, -1);
+                column.scans.put(id, scan);
+                if (scan.token == null)
+                    continue;
+                if (Resources.instance.debugEnabled())
+                    System.out.println(grammar.symbolName(id) + " token = \"" +
+                            scan.token.getValue() + '"');
+                Column target = column(scan.end);
+                for (Item item : column.expecting.get(id))
+                    advance(target, item, scan.token);
+            }
+            column.expecting.keySet().removeAll(ids);
+        }
+
+        /**
+         * Adds the item after the next symbol of an item
+         */
+        private void advance(Column column, Item item, Object child) {
+            add(column, item.production, item.dot + 1, item.origin, item,
+                    child);
+        }
+
+        /**
+         * Adds an item to a position, or another way of reaching it when
+         * it's already there
+         */
+        private void add(Column column, Production production, int dot,
+                         int origin, Item previous, Object child) {
+            long key = key(itemNumber(production, dot), origin);
+            Item item = column.items.get(key);
+            if (item == null) {
+                item = new Item(production, dot, origin, column.position);
+                column.items.put(key, item);
+                column.work.add(item);
+            }
+            if (previous != null)
+                item.links.add(new Link(previous, child));
+        }
+
+        private Column column(int position) {
+            return columns.computeIfAbsent(position, Column::new);
+        }
+    }
+
+    private int itemNumber(Production production, int dot) {
+        return itemBase[production.getIndex()] + dot;
+    }
+
+    private static long key(int high, int low) {
+        return ((long)high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    // Picking a tree from the forest and creating its abstract syntax tree
+
+    /**
+     * A nonterminal of the picked tree whose children are being created
+     */
+    private static final class Frame {
+        private final Production production;
+        private final Object[] children;
+        private final Object[] values;
+        private int next = 0;
+
+        private Frame(Item item) {
+            production = item.production;
+            children = new Object[item.dot];
+            values = new Object[item.dot];
+            for (Item at = item; at.dot > 0; ) {
+                Link link = pickLink(at);
+                children[at.dot - 1] = link.child;
+                at = link.previous;
+            }
+        }
+    }
+
+    /**
+     * Creates the abstract syntax tree of the picked tree of a node, running
+     * the hooks of each grammar rule before its children are created, with a
+     * stack in the heap
+     */
+    private Object build(Node root) throws InvocationTargetException,
+            InstantiationException {
+        ArrayList<Frame> stack = new ArrayList<>();
+        stack.add(enter(root));
+        Object value = null;
+        while (!stack.isEmpty()) {
+            Frame frame = stack.get(stack.size() - 1);
+            if (frame.next < frame.children.length) {
+                Object child = frame.children[frame.next];
+                if (child instanceof Node)
+                    stack.add(enter((Node)child));
+                else
+                    frame.values[frame.next++] = child;
+                continue;
+            }
+            stack.remove(stack.size() - 1);
+            value = frame.production.reduce(frame.values);
+            if (!stack.isEmpty()) {
+                Frame parent = stack.get(stack.size() - 1);
+                parent.values[parent.next++] = value;
+            }
+        }
+        return value;
+    }
+
+    private Frame enter(Node node) throws InvocationTargetException {
+        Nonterminal nonterminal = grammar.getNonterminal(node.nonterminal);
+        nonterminal.enter();
+        Item picked = node.items.get(0);
+        for (int i = 1; i < node.items.size(); ++i)
+            if (isBetter(node.items.get(i), picked))
+                picked = node.items.get(i);
+        return new Frame(picked);
+    }
+
+    /**
+     * Checks if one complete item of a node is picked over another
+     */
+    private static boolean isBetter(Item item, Item other) {
+        Production production = item.production;
+        Production otherProduction = other.production;
+        boolean operator =
+                production.getPrecedence() != Production.NO_PRECEDENCE;
+        boolean otherOperator =
+                otherProduction.getPrecedence() != Production.NO_PRECEDENCE;
+        if (operator != otherOperator)
+            return operator;
+        if (!operator)
+            return production.getPriority() < otherProduction.getPriority();
+        if (production.getPrecedence() != otherProduction.getPrecedence())
+            return production.getPrecedence() <
+                    otherProduction.getPrecedence();
+        int split = pickLink(item).previous.end;
+        int otherSplit = pickLink(other).previous.end;
+        return production.isLeftAssociative() ?
+                split > otherSplit :
+                split < otherSplit;
+    }
+
+    /**
+     * Picks how an item was reached: where the symbols before the last one
+     * take the most input, except that the right operand of a right
+     * associative operator takes the most input
+     */
+    private static Link pickLink(Item item) {
+        boolean right = item.isComplete() &&
+                item.production.getPrecedence() != Production.NO_PRECEDENCE &&
+                !item.production.isLeftAssociative();
+        Link picked = item.links.get(0);
+        for (int i = 1; i < item.links.size(); ++i) {
+            Link link = item.links.get(i);
+            if (right ?
+                    link.previous.end < picked.previous.end :
+                    link.previous.end > picked.previous.end)
+                picked = link;
+        }
+        return picked;
+    }
+}
@@ -0,0 +1,329 @@
+package edu.rit.gec8773.laps.parser.grammar;
+
+import edu.rit.gec8773.laps.resources.Resources;
+import edu.rit.gec8773.laps.util.MyConsumer;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link Grammar} is a context free grammar read from the grammar rule
+ * classes of a parser, for parsing engines which work from tables instead of
+ * trying each constructor in turn. Terminals are token ids and nonterminals
+ * are stored as negative numbers in the symbols of a {@link Production}.
+ * The FIRST and FOLLOW sets of each nonterminal are found once the grammar
+ * is built.
+ *
+ * @see edu.rit.gec8773.laps.parser.topDown.TopDownParser#toGrammar(
+ * edu.rit.gec8773.laps.parser.Parser)
+ */
+public class Grammar {
+
+    private final int terminalCount;
+    private final List<Nonterminal> nonterminals;
+    private final List<Production> productions;
+    private final int start;
+
+    private final boolean[] nullable;
+    private final BitSet[] first;
+    private final BitSet[] follow;
+
+    private Grammar(Builder builder, int start) {
+        terminalCount = Resources.instance.getTokenCount();
+        nonterminals = Collections.unmodifiableList(builder.nonterminals);
+        productions = Collections.unmodifiableList(builder.productions);
+        this.start = start;
+        int count = nonterminals.size();
+        nullable = new boolean[count];
+        first = new BitSet[count];
+        follow = new BitSet[count];
+        for (int n = 0; n < count; ++n) {
+            first[n] = new BitSet();
+            follow[n] = new BitSet();
+        }
+        findFirst();
+        findFollow();
+    }
+
+    /**
+     * {@link Builder} adds the symbols and productions of a {@link Grammar}
+     * one at a time
+     */
+    public static class Builder {
+        private final ArrayList<Nonterminal> nonterminals = new ArrayList<>();
+        private final ArrayList<Production> productions = new ArrayList<>();
+
+        /**
+         * Adds a nonterminal without productions
+         *
+         * @param name the name of the nonterminal
+         * @param enter the hooks to run each time the nonterminal is
+         *              started or null
+         * @return the index of the nonterminal
+         */
+        public int addNonterminal(String name, MyConsumer<Void> enter) {
+            nonterminals.add(new Nonterminal(nonterminals.size(), name,
+                    enter));
+            return nonterminals.size() - 1;
+        }
+
+        /**
+         * Adds a production after the other productions of its nonterminal
+         *
+         * @param lhs the index of the nonterminal
+         * @param rhs the symbols of the production
+         * @param action creates the value of the production
+         */
+        public void addProduction(int lhs, int[] rhs,
+                                  Production.Action action) {
+            addOperator(lhs, rhs, action, Production.NO_PRECEDENCE, true);
+        }
+
+        /**
+         * Adds a production of a binary operator after the other
+         * productions of its nonterminal
+         *
+         * @param lhs the index of the nonterminal
+         * @param rhs the symbols of the production
+         * @param action creates the value of the production
+         * @param precedence the precedence of the operator
+         * @param leftAssociative true if the operator groups to the left
+         */
+        public void addOperator(int lhs, int[] rhs, Production.Action action,
+                                int precedence, boolean leftAssociative) {
+            Nonterminal nonterminal = nonterminals.get(lhs);
+            Production production = new Production(productions.size(), lhs,
+                    rhs, action, nonterminal.productions.size(), precedence,
+                    leftAssociative);
+            productions.add(production);
+            nonterminal.productions.add(production);
+        }
+
+        /**
+         * @param start the index of the nonterminal the input is parsed as
+         * @return the built {@link Grammar}
+         */
+        public Grammar build(int start) {
+            return new Grammar(this, start);
+        }
+    }
+
+    /**
+     * @param symbol a symbol of a {@link Production}
+     * @return true if the symbol is a terminal, and so a token id
+     */
+    public static boolean isTerminal(int symbol) {
+        return symbol >= 0;
+    }
+
+    /**
+     * @param nonterminal the index of a nonterminal
+     * @return the symbol standing for the nonterminal in a {@link Production}
+     */
+    public static int symbol(int nonterminal) {
+        return -1 - nonterminal;
+    }
+
+    /**
+     * @param symbol a symbol which isn't a terminal
+     * @return the index of the nonterminal
+     */
+    public static int nonterminal(int symbol) {
+        return -1 - symbol;
+    }
+
+    /**
+     * @return the amount of terminals, which is also the number standing for
+     * the end of the input in the FOLLOW sets
+     */
+    public int getTerminalCount() {
+        return terminalCount;
+    }
+
+    /**
+     * @return the nonterminals by index
+     */
+    public List<Nonterminal> getNonterminals() {
+        return nonterminals;
+    }
+
+    /**
+     * @param index the index of a nonterminal
+     * @return the nonterminal
+     */
+    public Nonterminal getNonterminal(int index) {
+        return nonterminals.get(index);
+    }
+
+    /**
+     * @return every {@link Production} by index
+     */
+    public List<Production> getProductions() {
+        return productions;
+    }
+
+    /**
+     * @return the index of the nonterminal the input is parsed as
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * @param nonterminal the index of a nonterminal
+     * @return true if the nonterminal can accept the empty input
+     */
+    public boolean isNullable(int nonterminal) {
+        return nullable[nonterminal];
+    }
+
+    /**
+     * @param nonterminal the index of a nonterminal
+     * @return the ids of the tokens the nonterminal can start with, which
+     * must not be changed
+     */
+    public BitSet getFirst(int nonterminal) {
+        return first[nonterminal];
+    }
+
+    /**
+     * @param nonterminal the index of a nonterminal
+     * @return the ids of the tokens which can follow the nonterminal, and
+     * {@link Grammar#getTerminalCount()} if the input can end after it,
+     * which must not be changed
+     */
+    public BitSet getFollow(int nonterminal) {
+        return follow[nonterminal];
+    }
+
+    /**
+     * Checks if the symbols from an index to the end can all be empty
+     *
+     * @param symbols the symbols of a {@link Production}
+     * @param from the index of the first symbol
+     * @return true if they can all be empty
+     */
+    public boolean isNullable(int[] symbols, int from) {
+        for (int i = from; i < symbols.length; ++i)
+            if (isTerminal(symbols[i]) || !nullable[nonterminal(symbols[i])])
+                return false;
+        return true;
+    }
+
+    /**
+     * Finds the tokens the symbols from an index to the end can start with
+     *
+     * @param symbols the symbols of a {@link Production}
+     * @param from the index of the first symbol
+     * @return the ids of the tokens
+     */
+    public BitSet first(int[] symbols, int from) {
+        BitSet ids = new BitSet();
+        addFirst(ids, symbols, from);
+        return ids;
+    }
+
+    /**
+     * Adds the tokens the symbols from an index to the end can start with
+     *
+     * @return true if every symbol can be empty
+     */
+    private boolean addFirst(BitSet ids, int[] symbols, int from) {
+        for (int i = from; i < symbols.length; ++i) {
+            if (isTerminal(symbols[i])) {
+                ids.set(symbols[i]);
+                return false;
+            }
+            int n = nonterminal(symbols[i]);
+            ids.or(first[n]);
+            if (!nullable[n])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Finds which nonterminals can be empty and what they can start with by
+     * repeating the calculation over every production until nothing changes
+     */
+    private void findFirst() {
+        boolean changed;
+        do {
+            changed = false;
+            for (Production production : productions) {
+                int lhs = production.getLhs();
+                int before = first[lhs].cardinality();
+                boolean empty = addFirst(first[lhs], production.getRhs(), 0);
+                if (empty && !nullable[lhs]) {
+                    nullable[lhs] = true;
+                    changed = true;
+                }
+                changed |= first[lhs].cardinality() != before;
+            }
+        } while (changed);
+    }
+
+    /**
+     * Finds what can follow each nonterminal by repeating the calculation
+     * over every production until nothing changes
+     */
+    private void findFollow() {
+        follow[start].set(terminalCount);
+        boolean changed;
+        do {
+            changed = false;
+            for (Production production : productions) {
+                int[] rhs = production.getRhs();
+                for (int i = 0; i < rhs.length; ++i) {
+                    if (isTerminal(rhs[i]))
+                        continue;
+                    BitSet set = follow[nonterminal(rhs[i])];
+                    int before = set.cardinality();
+                    if (addFirst(set, rhs, i + 1))
+                        set.or(follow[production.getLhs()]);
+                    changed |= set.cardinality() != before;
+                }
+            }
+        } while (changed);
+    }
+
+    /**
+     * @param symbol a symbol of a {@link Production}, or
+     *               {@link Grammar#getTerminalCount()} for the end of the
+     *               input
+     * @return how the symbol is written in a grammar rule
+     */
+    public String symbolName(int symbol) {
+        if (symbol == terminalCount)
+            return "<EOF>";
+        if (isTerminal(symbol))
+            return "<" + Resources.instance.getToken(symbol).getName()
+                                          .toUpperCase() + ">";
+        return nonterminals.get(nonterminal(symbol)).getName();
+    }
+
+    /**
+     * @param production a {@link Production} of this grammar
+     * @return how the production is written in a grammar rule
+     */
+    public String toString(Production production) {
+        StringBuilder sb = new StringBuilder(
+                nonterminals.get(production.getLhs()).getName())
+                .append(" ::=");
+        if (production.size() == 0)
+            sb.append(" e");
+        for (int symbol : production.getRhs())
+            sb.append(' ').append(symbolName(symbol));
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Production production : productions)
+            sb.append(toString(production)).append('\n');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package edu.rit.gec8773.laps.parser.grammar;
+
+import edu.rit.gec8773.laps.util.MyConsumer;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link Nonterminal} is a symbol of a {@link Grammar} written by one or
+ * more {@link Production}s, either a grammar rule class or a helper symbol
+ * for a {@link java.util.List}, array or {@link java.util.Optional}
+ * parameter
+ */
+public class Nonterminal {
+
+    private final int index;
+    private final String name;
+    private final MyConsumer<Void> enter;
+    final ArrayList<Production> productions = new ArrayList<>();
+
+    Nonterminal(int index, String name, MyConsumer<Void> enter) {
+        this.index = index;
+        this.name = name;
+        this.enter = enter;
+    }
+
+    /**
+     * @return the index of this nonterminal in the {@link Grammar}
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the name of this nonterminal as it's written in a grammar rule
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the {@link Production}s of this nonterminal in order of
+     * priority
+     */
+    public List<Production> getProductions() {
+        return Collections.unmodifiableList(productions);
+    }
+
+    /**
+     * Runs the hooks of a grammar rule class which come before trying any
+     * of its constructors, once each time the nonterminal is started
+     *
+     * @throws InvocationTargetException when a hook throws an exception
+     */
+    public void enter() throws InvocationTargetException {
+        if (enter != null)
+            enter.accept(null);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
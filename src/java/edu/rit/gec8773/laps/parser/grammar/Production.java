@@ -0,0 +1,127 @@
+package edu.rit.gec8773.laps.parser.grammar;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * {@link Production} is one way a {@link Nonterminal} can be written as a
+ * sequence of symbols, together with the code which creates its abstract
+ * syntax tree once the symbols are accepted
+ *
+ * @see Grammar
+ */
+public class Production {
+
+    /**
+     * Creates the value of a {@link Production} from the values of its
+     * symbols
+     */
+    public interface Action {
+        /**
+         * @param values the value of each symbol, where a terminal's value is
+         *               its {@link edu.rit.gec8773.laps.scanner.Token}
+         * @return the created value
+         * @throws InvocationTargetException when the user causes an exception
+         * @throws InstantiationException when a grammar rule constructor
+         * throws an exception
+         */
+        Object apply(Object[] values) throws InvocationTargetException,
+                InstantiationException;
+    }
+
+    /**
+     * The precedence of a {@link Production} which isn't an operator
+     */
+    public static final int NO_PRECEDENCE = Integer.MIN_VALUE;
+
+    private final int index;
+    private final int lhs;
+    private final int[] rhs;
+    private final Action action;
+    private final int priority;
+    private final int precedence;
+    private final boolean leftAssociative;
+
+    Production(int index, int lhs, int[] rhs, Action action, int priority,
+               int precedence, boolean leftAssociative) {
+        this.index = index;
+        this.lhs = lhs;
+        this.rhs = rhs;
+        this.action = action;
+        this.priority = priority;
+        this.precedence = precedence;
+        this.leftAssociative = leftAssociative;
+    }
+
+    /**
+     * @return the index of this production in {@link Grammar#getProductions()}
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the index of the {@link Nonterminal} this production writes
+     */
+    public int getLhs() {
+        return lhs;
+    }
+
+    /**
+     * @return the symbols of this production, which must not be changed
+     * @see Grammar#isTerminal(int)
+     */
+    public int[] getRhs() {
+        return rhs;
+    }
+
+    /**
+     * @return the amount of symbols in this production
+     */
+    public int size() {
+        return rhs.length;
+    }
+
+    /**
+     * Gets the position of this production among the productions of its
+     * {@link Nonterminal}, which are in order of
+     * {@link edu.rit.gec8773.laps.annotation.Priority}
+     *
+     * @return the position, which is smaller for productions tried first
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Gets the precedence of the operator of a production written by an
+     * {@link edu.rit.gec8773.laps.annotation.Infix} constructor
+     *
+     * @return the precedence, which is larger for operators binding more
+     * tightly, or {@link Production#NO_PRECEDENCE}
+     */
+    public int getPrecedence() {
+        return precedence;
+    }
+
+    /**
+     * @return true if the operator of this production groups to the left
+     */
+    public boolean isLeftAssociative() {
+        return leftAssociative;
+    }
+
+    /**
+     * Creates the value of this production
+     *
+     * @param values the value of each symbol, which the caller doesn't use
+     *               afterwards
+     * @return the created value
+     * @throws InvocationTargetException when the user causes an exception
+     * @throws InstantiationException when a grammar rule constructor throws
+     * an exception
+     */
+    public Object reduce(Object[] values) throws InvocationTargetException,
+            InstantiationException {
+        return action.apply(values);
+    }
+}
@@ -0,0 +1,217 @@
+package edu.rit.gec8773.laps.parser.ll;
+
+import edu.rit.gec8773.laps.parser.ParseContext;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.grammar.Grammar;
+import edu.rit.gec8773.laps.parser.grammar.Nonterminal;
+import edu.rit.gec8773.laps.parser.grammar.Production;
+import edu.rit.gec8773.laps.parser.topDown.TopDownParser;
+import edu.rit.gec8773.laps.resources.Resources;
+import edu.rit.gec8773.laps.scanner.Scanner;
+import edu.rit.gec8773.laps.scanner.Token;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * {@link LLParser} parses the grammar of a parser built by
+ * {@link TopDownParser#grammarRule(Class)} with an LL(1) table found when
+ * it's created. Each nonterminal picks its production from the next token
+ * alone, so nothing is ever tried twice, and the symbols still to be parsed
+ * are kept on a stack in the heap instead of calling
+ * {@link Parser#parse(ParseContext)} recursively. The same constructors and
+ * hooks run as with the top down parser. A grammar where the next token
+ * doesn't always decide the production, such as one with a left recursive
+ * or {@link edu.rit.gec8773.laps.annotation.Infix} rule, is rejected when
+ * the {@link LLParser} is created.
+ */
+public class LLParser implements Parser {
+
+    private final Parser head;
+    private final Grammar grammar;
+
+    /**
+     * The ids of the tokens each production can start with, by the index of
+     * the production
+     */
+    private final int[][] firstIds;
+
+    /**
+     * The production of each nonterminal which can be empty, used when no
+     * other production starts with the next token, or null
+     */
+    private final Production[] empty;
+
+    /**
+     * Symbols on the stack below this are the productions to reduce once
+     * their symbols are parsed
+     */
+    private final int reduceBase;
+
+    /**
+     * Class constructor which finds the LL(1) table of a grammar
+     *
+     * @param head the {@link Parser} of the top grammar rule
+     * @throws InvocationTargetException when the grammar isn't LL(1)
+     */
+    public LLParser(Parser head) throws InvocationTargetException {
+        this.head = head;
+        grammar = TopDownParser.toGrammar(head);
+        List<Production> productions = grammar.getProductions();
+        firstIds = new int[productions.size()][];
+        empty = new Production[grammar.getNonterminals().size()];
+        reduceBase = -1 - empty.length;
+        StringBuilder conflicts = new StringBuilder();
+        for (Nonterminal nonterminal : grammar.getNonterminals()) {
+            List<Production> choices = nonterminal.getProductions();
+            BitSet[] lookahead = new BitSet[choices.size()];
+            for (int i = 0; i < lookahead.length; ++i) {
+                Production production = choices.get(i);
+                BitSet first = grammar.first(production.getRhs(), 0);
+                firstIds[production.getIndex()] = first.stream().toArray();
+                lookahead[i] = first;
+                if (grammar.isNullable(production.getRhs(), 0)) {
+                    empty[nonterminal.getIndex()] = production;
+                    lookahead[i].or(grammar.getFollow(
+                            nonterminal.getIndex()));
+                }
+                for (int j = 0; j < i; ++j)
+                    if (lookahead[j].intersects(lookahead[i]))
+                        conflicts.append(conflict(choices.get(j), production,
+                                lookahead[j], lookahead[i]));
+            }
+        }
+        if (conflicts.length() > 0)
+            throw new InvocationTargetException(new Exception(
+                    head.getStartingToken() + " is not an LL(1) grammar\n" +
+                    conflicts));
+    }
+
+    /**
+     * Describes two productions which can start with the same token
+     */
+    private String conflict(Production first, Production second,
+                            BitSet firstLookahead, BitSet secondLookahead) {
+        BitSet shared = (BitSet)firstLookahead.clone();
+        shared.and(secondLookahead);
+        StringBuilder sb = new StringBuilder("    ")
+                .append(grammar.toString(first))
+                .append(" and ")
+                .append(grammar.toString(second))
+                .append(" both start with");
+        shared.stream().forEach(symbol ->
+                sb.append(' ').append(grammar.symbolName(symbol)));
+        return sb.append('\n').toString();
+    }
+
+    /**
+     * @return the context free grammar this parser parses
+     */
+    public Grammar getGrammar() {
+        return grammar;
+    }
+
+    @Override
+    public Object parse(ParseContext context) throws IOException,
+            InvocationTargetException, InstantiationException {
+        Scanner sc = context.getScanner();
+        int mark = sc.mark();
+        int[] symbols = new int[16];
+        int top = 0;
+        Object[] values = new Object[16];
+        int size = 0;
+        symbols[top++] = Grammar.symbol(grammar.getStart());
+        while (top > 0) {
+            int symbol = symbols[--top];
+            if (Grammar.isTerminal(symbol)) {
+                Token token = match(sc, symbol);
+                if (token == null) {
+                    sc.reset(mark);
+                    return null;
+                }
+                if (size == values.length)
+                    values = Arrays.copyOf(values, size * 2);
+                values[size++] = token;
+            } else if (symbol > reduceBase) {
+                Nonterminal nonterminal =
+                        grammar.getNonterminal(Grammar.nonterminal(symbol));
+                nonterminal.enter();
+                Production production = choose(sc, nonterminal);
+                if (production == null) {
+                    if (Resources.instance.debugEnabled())
+                        System.out.println("Failed to accept " +
+                                nonterminal.getName() + " rule");
+                    sc.reset(mark);
+                    return null;
+                }
+                int[] rhs = production.getRhs();
+                if (top + rhs.length + 1 > symbols.length)
+                    symbols = Arrays.copyOf(symbols,
+                            (top + rhs.length + 1) * 2);
+                symbols[top++] = reduceBase - production.getIndex();
+                for (int i = rhs.length - 1; i >= 0; --i)
+                    symbols[top++] = rhs[i];
+            } else {
+                Production production =
+                        grammar.getProductions().get(reduceBase - symbol);
+                Object[] arguments = new Object[production.size()];
+                size -= arguments.length;
+                System.arraycopy(values, size, arguments, 0,
+                        arguments.length);
+                Arrays.fill(values, size, size + arguments.length, null);
+                if (size == values.length)
+                    values = Arrays.copyOf(values, size * 2);
+                values[size++] = production.reduce(arguments);
+            }
+        }
+        return values[0];
+    }
+
+    /**
+     * Picks the production of a nonterminal from the next token, preferring
+     * productions of higher priority when the next text matches tokens of
+     * several productions
+     *
+     * @return the production or null if none can accept the input
+     */
+    private Production choose(Scanner sc, Nonterminal nonterminal)
+            throws IOException {
+        int mark = sc.mark();
+        sc.skip();
+        try {
+            for (Production production : nonterminal.getProductions())
+                for (int id : firstIds[production.getIndex()])
+                    if (sc.hasNextToken(id))
+                        return production;
+        } finally {
+            sc.reset(mark);
+        }
+        return empty[nonterminal.getIndex()];
+    }
+
+    /**
+     * Reads the next token when it has the expected id
+     *
+     * @return the {@link Token} or null if the next token is different
+     */
+    private Token match(Scanner sc, int id) throws IOException {
+        sc.skip();
+        if (Resources.instance.debugEnabled())
+            System.out.print(grammar.symbolName(id) + " token = ");
+        Token token = sc.hasNextToken(id) ? sc.nextToken(id) : null;
+        if (Resources.instance.debugEnabled())
+            System.out.println(token == null ?
+                    "null" :
+                    '"' + token.getValue() + '"');
+        return token;
+    }
+
+    @Override
+    public Type getStartingToken() {
+        return head.getStartingToken();
+    }
+}
@@ -0,0 +1,195 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.parser.ParseContext;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.cst.ConcreteSyntaxTree;
+import edu.rit.gec8773.laps.resources.Resources;
+import edu.rit.gec8773.laps.scanner.Token;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link ConcreteSyntaxParser} parses with the same grammar as a
+ * {@link SkeletalClassParser}, with the heap stack of an
+ * {@link ExplicitStackParser}, but returns a {@link ConcreteSyntaxTree}
+ * instead of an abstract syntax tree. No grammar rule constructor or hook
+ * runs, so it can parse with grammars whose hooks have side effects, such
+ * as running the parsed program, for tools which only need the shape of
+ * the input.
+ */
+public class ConcreteSyntaxParser implements Parser {
+
+    private final Parser root;
+    private final ExplicitStackParser parser;
+
+    /**
+     * The id of each grammar rule reached from the root, in the order they
+     * were found in, and their names by id
+     */
+    private final Map<SkeletalClassParser, Integer> ids =
+            new IdentityHashMap<>();
+    private final List<String> names;
+
+    /**
+     * Class constructor which gives each grammar rule reached from the root
+     * an id
+     *
+     * @param root the {@link Parser} of the top grammar rule
+     * @throws InvocationTargetException when the root isn't a grammar rule
+     */
+    public ConcreteSyntaxParser(Parser root) throws InvocationTargetException {
+        SkeletalClassParser head = SkeletalClassParser.asRule(root);
+        if (head == null)
+            throw new InvocationTargetException(new Exception(root +
+                    " is not a grammar rule"));
+        this.root = root;
+        parser = new ExplicitStackParser(root);
+        ArrayList<String> names = new ArrayList<>();
+        ArrayDeque<SkeletalClassParser> pending = new ArrayDeque<>();
+        pending.add(head);
+        ids.put(head, 0);
+        while (!pending.isEmpty()) {
+            SkeletalClassParser rule = pending.poll();
+            names.add(rule.getName());
+            for (int i = 0; i < rule.alternativeCount(); ++i) {
+                SequentialParser alternative = rule.getAlternative(i);
+                for (int j = 0; j < alternative.size(); ++j) {
+                    Parser element = alternative.get(j);
+                    if (element instanceof RepetitionParser)
+                        element = ((RepetitionParser)element).getElement();
+                    else if (element instanceof OptionalParser)
+                        element = ((OptionalParser)element).getElement();
+                    SkeletalClassParser found =
+                            SkeletalClassParser.asRule(element);
+                    if (found != null && !ids.containsKey(found)) {
+                        ids.put(found, ids.size());
+                        pending.add(found);
+                    }
+                }
+            }
+        }
+        this.names = Collections.unmodifiableList(names);
+    }
+
+    /**
+     * @return the name of each grammar rule by id
+     */
+    public List<String> getRuleNames() {
+        return names;
+    }
+
+    /**
+     * Parses the input into a {@link ConcreteSyntaxTree}
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @return the {@link ConcreteSyntaxTree} or null if the input isn't
+     * accepted
+     * @throws IllegalStateException when the {@link ParseContext} is
+     * already in use by a parse which creates an abstract syntax tree
+     */
+    @Override
+    public Object parse(ParseContext context) throws IOException,
+            InvocationTargetException, InstantiationException {
+        if (!context.startDeferring())
+            throw new IllegalStateException("the parse context is already " +
+                    "deferring an abstract syntax tree");
+        Object log;
+        try {
+            log = parser.parse(context);
+        } finally {
+            context.stopDeferring();
+        }
+        return log == null ? null : tree((Reduction)log);
+    }
+
+    /**
+     * Writes the log of a parse as a {@link ConcreteSyntaxTree} without
+     * replaying it, with a stack in the heap. Unless packrat parsing is
+     * enabled, when the remembered results keep the log until the parse
+     * returns anyway, each value is forgotten once it's written, so the log
+     * is freed while the tree is written rather than after.
+     */
+    private ConcreteSyntaxTree tree(Reduction log) {
+        boolean free = !Resources.instance.memoizationEnabled();
+        ConcreteSyntaxTree.Builder builder =
+                new ConcreteSyntaxTree.Builder(names);
+        Reduction[] stack = new Reduction[64];
+        int[] next = new int[64];
+        int depth = start(builder, log, stack, next, 0);
+        while (depth > 0) {
+            int top = depth - 1;
+            Reduction reduction = stack[top];
+            int index = next[top];
+            if (index == reduction.size()) {
+                stack[top] = null;
+                --depth;
+                if (reduction.getRule() != null)
+                    builder.endRule();
+                continue;
+            }
+            next[top] = index + 1;
+            Object value = free ?
+                    reduction.take(index) :
+                    reduction.getValues()[index];
+            if (value instanceof Token) {
+                Token token = (Token)value;
+                builder.token(token.getId(), token.getPosition(),
+                        token.getPosition() + token.getLength());
+            } else if (value instanceof Reduction) {
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                    next = Arrays.copyOf(next, depth * 2);
+                }
+                depth = start(builder, (Reduction)value, stack, next, depth);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Starts the node of a {@link Reduction}, unless it's the value of a
+     * {@link RepetitionParser} or an {@link OptionalParser}, whose
+     * elements belong to the grammar rule they're a parameter of
+     *
+     * @return the depth of the stack after pushing the {@link Reduction}
+     */
+    private int start(ConcreteSyntaxTree.Builder builder,
+                      Reduction reduction, Reduction[] stack, int[] next,
+                      int depth) {
+        SkeletalClassParser rule = reduction.getRule();
+        if (rule != null)
+            builder.startRule(ids.get(rule), alternative(reduction));
+        stack[depth] = reduction;
+        next[depth] = 0;
+        return depth + 1;
+    }
+
+    /**
+     * @return the alternative of a {@link Reduction} as in a
+     * {@link ConcreteSyntaxTree}
+     */
+    static int alternative(Reduction reduction) {
+        switch (reduction.getAlternative()) {
+            case Reduction.INFIX:
+                return ConcreteSyntaxTree.INFIX;
+            case Reduction.EMPTY:
+                return ConcreteSyntaxTree.EMPTY;
+            default:
+                return reduction.getAlternative();
+        }
+    }
+
+    @Override
+    public Type getStartingToken() {
+        return root.getStartingToken();
+    }
+}
@@ -0,0 +1,654 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.parser.ParseContext;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.cst.ParseListener;
+import edu.rit.gec8773.laps.resources.Resources;
+import edu.rit.gec8773.laps.scanner.Scanner;
+import edu.rit.gec8773.laps.scanner.Token;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * {@link ExplicitStackParser} parses with the same graph of
+ * {@link TopDownParser}s as its root, trying the same alternatives in the
+ * same order and running the same constructors and hooks, but keeps the
+ * grammar rules being parsed on a stack in the heap instead of calling
+ * {@link Parser#parse(ParseContext)} recursively. How deeply the input can
+ * nest is then limited by the heap rather than the thread's stack size.
+ * Grammar rules inside a {@link RepetitionParser} or an
+ * {@link OptionalParser} are kept on the same stack, and the operands of
+ * a rule with an {@link edu.rit.gec8773.laps.annotation.Infix} constructor
+ * are parsed by the rule's own frame one after another, as are the
+ * attempts at growing the result of a left recursive rule.
+ *
+ * @see SkeletalClassParser
+ */
+public class ExplicitStackParser implements Parser {
+
+    /**
+     * Returned instead of a result when a grammar rule was pushed onto the
+     * stack and hasn't finished yet
+     */
+    private static final Object PENDING = new Object();
+
+    /**
+     * Stored in place of a value whose events were already given to a
+     * {@link ParseListener}
+     */
+    private static final Object EMITTED = new Object();
+
+    /**
+     * Thrown when a grammar rule whose events were already given to a
+     * {@link ParseListener} doesn't accept, since the parse can't move back
+     * past them
+     */
+    private static final RuntimeException CUT =
+            new RuntimeException(null, null, false, false) {};
+
+    /**
+     * How the result of a rule on the stack is remembered: not at all, by
+     * packrat parsing, or by growing it because the rule is left recursive
+     */
+    private static final byte PLAIN = 0;
+    private static final byte MEMO = 1;
+    private static final byte GROW = 2;
+
+    private final Parser root;
+
+    /**
+     * Class constructor which parses with a grammar built by
+     * {@link TopDownParser#grammarRule(Class)}
+     *
+     * @param root the {@link Parser} of the top grammar rule
+     */
+    public ExplicitStackParser(Parser root) {
+        this.root = root;
+    }
+
+    @Override
+    public Object parse(ParseContext context) throws IOException,
+            InvocationTargetException, InstantiationException {
+        SkeletalClassParser head = SkeletalClassParser.asRule(root);
+        if (head == null)
+            return root.parse(context);
+        if (!Resources.instance.deferredConstructionEnabled() ||
+                !context.startDeferring())
+            return new Run(context).parse(head);
+        Object AST;
+        try {
+            AST = new Run(context).parse(head);
+        } finally {
+            context.stopDeferring();
+        }
+        return Reduction.replay(AST);
+    }
+
+    /**
+     * Parses while the {@link ParseContext} is deferring, giving the events
+     * of the log to a {@link ParseListener} instead of returning it. Each
+     * time an element of a list of grammar rules is accepted, the parse
+     * commits to everything it accepted so far: the events of the rules
+     * being parsed and of what they accepted are given to the listener and
+     * dropped from the log. Once a rule is committed to, it can't be given
+     * up on, so the input isn't accepted when it later fails instead of
+     * another alternative being tried. Nothing is committed to inside a
+     * rule with operators or a left recursive rule, whose results can
+     * still change shape, and results aren't remembered by packrat parsing.
+     * After each commit the {@link Scanner} is told to release the input
+     * before it, so when the input isn't accepted after a commit, the
+     * {@link Scanner} is left after the last committed element instead of
+     * where the parse started.
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @param listener the {@link ParseListener}
+     * @return true if the input is accepted
+     */
+    boolean stream(ParseContext context, ParseListener listener)
+            throws IOException, InvocationTargetException,
+            InstantiationException {
+        Object log = new Run(context, listener).parse(
+                SkeletalClassParser.asRule(root));
+        if (log == null)
+            return false;
+        emit(listener, log);
+        return true;
+    }
+
+    /**
+     * Gives the events of a value in the log of a parse to a
+     * {@link ParseListener}, with a stack in the heap
+     */
+    private static void emit(ParseListener listener, Object value) {
+        if (value instanceof Token) {
+            listener.token((Token)value);
+            return;
+        }
+        if (!(value instanceof Reduction))
+            return;
+        Reduction[] stack = new Reduction[16];
+        int[] next = new int[16];
+        stack[0] = enter(listener, (Reduction)value);
+        int depth = 1;
+        while (depth > 0) {
+            int top = depth - 1;
+            Reduction reduction = stack[top];
+            Object[] values = reduction.getValues();
+            int index = next[top];
+            if (index == values.length) {
+                stack[top] = null;
+                --depth;
+                if (reduction.getRule() != null)
+                    listener.exitRule(reduction.getRule().getName());
+                continue;
+            }
+            next[top] = index + 1;
+            if (values[index] instanceof Token)
+                listener.token((Token)values[index]);
+            else if (values[index] instanceof Reduction) {
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                    next = Arrays.copyOf(next, depth * 2);
+                }
+                stack[depth] = enter(listener, (Reduction)values[index]);
+                next[depth++] = 0;
+            }
+        }
+    }
+
+    /**
+     * Enters the grammar rule of a {@link Reduction}, unless it's the value
+     * of a {@link RepetitionParser} or an {@link OptionalParser}
+     */
+    private static Reduction enter(ParseListener listener,
+                                   Reduction reduction) {
+        if (reduction.getRule() != null)
+            listener.enterRule(reduction.getRule().getName(),
+                    ConcreteSyntaxParser.alternative(reduction));
+        return reduction;
+    }
+
+    @Override
+    public Type getStartingToken() {
+        return root.getStartingToken();
+    }
+
+    /**
+     * The stack of a single call to
+     * {@link ExplicitStackParser#parse(ParseContext)}, where each grammar
+     * rule being parsed is stored across parallel arrays
+     */
+    private static final class Run {
+        private final ParseContext context;
+        private final Scanner sc;
+        private final boolean memoize;
+
+        /**
+         * Given the events of the parse while streaming or null, and the
+         * amount of rules at the bottom of the stack committed to
+         */
+        private final ParseListener listener;
+        private int committed = 0;
+
+        /**
+         * The first position the scanner can still be reset to, which is
+         * moved past each committed element once the scanner releases the
+         * input before it
+         */
+        private int kept;
+
+        private int depth = 0;
+        private SkeletalClassParser[] rules = new SkeletalClassParser[64];
+
+        /**
+         * The index of the alternative being tried
+         */
+        private int[] alternatives = new int[64];
+
+        /**
+         * The index of the next element of the alternative to parse
+         */
+        private int[] elements = new int[64];
+
+        /**
+         * The argument buffer of the alternative or null before it starts
+         */
+        private Object[][] arguments = new Object[64][];
+
+        /**
+         * The position of the scanner when the alternative started
+         */
+        private int[] alternativeMarks = new int[64];
+
+        /**
+         * The position of the scanner when the rule started, and after
+         * skipping when packrat parsing
+         */
+        private int[] marks = new int[64];
+        private int[] starts = new int[64];
+        private byte[] modes = new byte[64];
+
+        /**
+         * The longest result so far of a left recursive rule being grown
+         */
+        private SkeletalClassParser.Memo[] grown =
+                new SkeletalClassParser.Memo[64];
+
+        /**
+         * The elements of the {@link RepetitionParser} being parsed or null
+         */
+        @SuppressWarnings("unchecked")
+        private ArrayList<Object>[] items =
+                (ArrayList<Object>[])new ArrayList<?>[64];
+
+        /**
+         * The position after the last element of the
+         * {@link RepetitionParser}, or before the {@link OptionalParser},
+         * being parsed
+         */
+        private int[] itemMarks = new int[64];
+
+        /**
+         * The expression being parsed by a rule with operators or null, and
+         * the position before its last operator
+         */
+        private SkeletalClassParser.Expression[] expressions =
+                new SkeletalClassParser.Expression[64];
+        private int[] operatorMarks = new int[64];
+
+        private Run(ParseContext context) {
+            this(context, null);
+        }
+
+        private Run(ParseContext context, ParseListener listener) {
+            this.context = context;
+            this.sc = context.getScanner();
+            this.listener = listener;
+            this.memoize = listener == null &&
+                    Resources.instance.memoizationEnabled();
+        }
+
+        private Object parse(SkeletalClassParser head) throws IOException,
+                InvocationTargetException, InstantiationException {
+            int mark = sc.mark();
+            kept = mark;
+            try {
+                Object value = begin(head);
+                while (depth > 0) {
+                    if (value != PENDING)
+                        deliver(depth - 1, value);
+                    value = step(depth - 1);
+                }
+                return value;
+            } catch (Throwable t) {
+                // The scanner is only reset once, since the input where
+                // committed rules started may already be released
+                while (depth > 0) {
+                    --depth;
+                    items[depth] = null;
+                    expressions[depth] = null;
+                    if (arguments[depth] != null) {
+                        rules[depth].getAlternative(alternatives[depth])
+                                    .release(context);
+                        arguments[depth] = null;
+                    }
+                    if (modes[depth] == GROW)
+                        context.stopGrowing();
+                    grown[depth] = null;
+                }
+                committed = 0;
+                sc.reset(kept);
+                if (t != CUT)
+                    throw t;
+                return null;
+            }
+        }
+
+        /**
+         * Starts parsing a grammar rule, unless its result is remembered
+         *
+         * @return the remembered result or {@link ExplicitStackParser#PENDING}
+         */
+        private Object begin(SkeletalClassParser rule)
+                throws IOException, InvocationTargetException {
+            int mark = sc.mark();
+            int start = mark;
+            byte mode = PLAIN;
+            SkeletalClassParser.Memo memo = null;
+            if (memoize || rule.isLeftRecursive()) {
+                sc.skip();
+                start = sc.mark();
+                if (!rule.isInvolved(context, start)) {
+                    memo = rule.recall(context, start);
+                    if (memo != null) {
+                        sc.reset(memo.AST == null ? mark : memo.end);
+                        return memo.AST;
+                    }
+                    if (rule.isLeftRecursive()) {
+                        mode = GROW;
+                        memo = rule.seed(context, start);
+                    } else
+                        mode = MEMO;
+                }
+            }
+            rule.enter(context);
+            if (depth == rules.length)
+                grow();
+            rules[depth] = rule;
+            alternatives[depth] = -1;
+            arguments[depth] = null;
+            items[depth] = null;
+            expressions[depth] = null;
+            marks[depth] = mark;
+            starts[depth] = start;
+            modes[depth] = mode;
+            grown[depth] = memo;
+            ++depth;
+            return PENDING;
+        }
+
+        /**
+         * Parses the rule at the top of the stack until it finishes or a
+         * grammar rule it contains is pushed
+         *
+         * @return the result of the rule or {@link ExplicitStackParser#PENDING}
+         */
+        private Object step(int top) throws IOException,
+                InvocationTargetException, InstantiationException {
+            SkeletalClassParser rule = rules[top];
+            while (true) {
+                if (arguments[top] == null) {
+                    int alternative = ++alternatives[top];
+                    if (alternative == rule.alternativeCount())
+                        return operand(top, rule.acceptEmpty(context));
+                    if (!rule.isViable(sc, alternative))
+                        continue;
+                    alternativeMarks[top] = sc.mark();
+                    arguments[top] = context.acquireBuffer(
+                            rule.getAlternative(alternative).size());
+                    elements[top] = 0;
+                }
+                SequentialParser sequence =
+                        rule.getAlternative(alternatives[top]);
+                if (elements[top] == sequence.size()) {
+                    Object[] parsed = arguments[top];
+                    arguments[top] = null;
+                    return operand(top, rule.accept(context,
+                            alternatives[top], parsed));
+                }
+                Parser element = sequence.get(elements[top]);
+                SkeletalClassParser elementRule =
+                        SkeletalClassParser.asRule(element);
+                Object value;
+                if (items[top] != null)
+                    value = repeat(top, (RepetitionParser)element);
+                else if (elementRule != null)
+                    value = begin(elementRule);
+                else if (element instanceof RepetitionParser &&
+                        SkeletalClassParser.asRule(
+                                ((RepetitionParser)element).getElement()) !=
+                                null) {
+                    items[top] = new ArrayList<>();
+                    itemMarks[top] = sc.mark();
+                    value = repeat(top, (RepetitionParser)element);
+                } else if (element instanceof OptionalParser &&
+                        (elementRule = SkeletalClassParser.asRule(
+                                ((OptionalParser)element).getElement())) !=
+                                null) {
+                    itemMarks[top] = sc.mark();
+                    value = begin(elementRule);
+                    if (value != PENDING)
+                        value = optional(top, (OptionalParser)element, value);
+                } else
+                    value = element.parse(context);
+                if (value == PENDING)
+                    return PENDING;
+                store(top, value);
+            }
+        }
+
+        /**
+         * Gives a parsed operand to the rule at the top of the stack, which
+         * finishes unless it has operators and another operator follows. In
+         * that case the rule's alternatives are tried again for the next
+         * operand.
+         *
+         * @param AST the operand or null if no alternative accepted
+         * @return the result of the rule or {@link ExplicitStackParser#PENDING}
+         */
+        private Object operand(int top, Object AST) throws IOException,
+                InvocationTargetException, InstantiationException {
+            SkeletalClassParser rule = rules[top];
+            if (!rule.hasOperators())
+                return finish(AST);
+            SkeletalClassParser.Expression expression = expressions[top];
+            if (expression == null) {
+                if (AST == null)
+                    return finish(null);
+                expression = expressions[top] =
+                        new SkeletalClassParser.Expression(AST);
+            } else if (AST == null) {
+                sc.reset(operatorMarks[top]);
+                expressions[top] = null;
+                return finish(rule.reduce(context, expression));
+            } else
+                rule.shift(context, expression, AST);
+            operatorMarks[top] = sc.mark();
+            if (!rule.operator(context, expression)) {
+                sc.reset(operatorMarks[top]);
+                expressions[top] = null;
+                return finish(rule.reduce(context, expression));
+            }
+            rule.enter(context);
+            alternatives[top] = -1;
+            return PENDING;
+        }
+
+        /**
+         * Parses the elements of a {@link RepetitionParser} of a grammar rule
+         * until it ends or an element is pushed
+         *
+         * @return the result of the repetition or
+         * {@link ExplicitStackParser#PENDING}
+         */
+        private Object repeat(int top, RepetitionParser repetition)
+                throws IOException, InvocationTargetException,
+                InstantiationException {
+            SkeletalClassParser rule =
+                    SkeletalClassParser.asRule(repetition.getElement());
+            ArrayList<Object> list = items[top];
+            while (itemMarks[top] != -1) {
+                if (!repetition.separate(context, list)) {
+                    sc.reset(itemMarks[top]);
+                    break;
+                }
+                Object item = begin(rule);
+                if (item == PENDING)
+                    return PENDING;
+                collect(top, repetition, item);
+            }
+            items[top] = null;
+            return top < committed ? EMITTED : repetition.result(list);
+        }
+
+        /**
+         * Adds an element to the {@link RepetitionParser} being parsed, or
+         * ends it when the element isn't accepted
+         */
+        private void collect(int top, RepetitionParser repetition,
+                             Object item) {
+            if (repetition.add(context, items[top], item, itemMarks[top])) {
+                itemMarks[top] = sc.mark();
+                if (listener != null && canCommit(top)) {
+                    commit(top);
+                    kept = itemMarks[top];
+                    sc.release(kept);
+                }
+            } else {
+                sc.reset(itemMarks[top]);
+                itemMarks[top] = -1;
+            }
+        }
+
+        /**
+         * Gives the result of an {@link OptionalParser} of a grammar rule
+         */
+        private Object optional(int top, OptionalParser optional,
+                                Object item) {
+            if (item == null)
+                sc.reset(itemMarks[top]);
+            return optional.result(item);
+        }
+
+        /**
+         * Gives the result of a grammar rule which was pushed to the element
+         * of the rule below it which is being parsed
+         */
+        private void deliver(int top, Object value) {
+            Parser element = rules[top].getAlternative(alternatives[top])
+                    .get(elements[top]);
+            if (items[top] != null)
+                collect(top, (RepetitionParser)element, value);
+            else if (element instanceof OptionalParser)
+                store(top, optional(top, (OptionalParser)element, value));
+            else
+                store(top, value);
+        }
+
+        /**
+         * Gives the result of an element to the alternative being tried
+         */
+        private void store(int top, Object value) {
+            if (value == null) {
+                if (top < committed)
+                    throw CUT;
+                fail(top);
+            } else {
+                if (top < committed) {
+                    emit(listener, value);
+                    value = EMITTED;
+                }
+                arguments[top][elements[top]++] = value;
+            }
+        }
+
+        /**
+         * @return true if the rules up to the top of the stack can be
+         * committed to, because none of them has operators or is
+         * remembered
+         */
+        private boolean canCommit(int top) {
+            for (int i = committed; i <= top; ++i)
+                if (modes[i] != PLAIN || rules[i].hasOperators())
+                    return false;
+            return true;
+        }
+
+        /**
+         * Enters each rule up to the top of the stack which isn't committed
+         * to yet, and gives the events of what they accepted so far to the
+         * {@link ParseListener}
+         */
+        private void commit(int top) {
+            for (; committed <= top; ++committed) {
+                int i = committed;
+                listener.enterRule(rules[i].getName(), alternatives[i]);
+                for (int j = 0; j < elements[i]; ++j) {
+                    emit(listener, arguments[i][j]);
+                    arguments[i][j] = EMITTED;
+                }
+                if (i < top && items[i] != null)
+                    commitItems(items[i]);
+            }
+            commitItems(items[top]);
+        }
+
+        /**
+         * Gives the events of the elements of a {@link RepetitionParser} to
+         * the {@link ParseListener}, leaving a single element in their place
+         * so a separator is still expected before the next one
+         */
+        private void commitItems(ArrayList<Object> list) {
+            for (Object item : list)
+                emit(listener, item);
+            list.clear();
+            list.add(EMITTED);
+        }
+
+        /**
+         * Moves back to where the alternative being tried started
+         */
+        private void fail(int top) {
+            sc.reset(alternativeMarks[top]);
+            rules[top].getAlternative(alternatives[top]).release(context);
+            arguments[top] = null;
+        }
+
+        /**
+         * Pops the rule at the top of the stack, unless it's left recursive
+         * and its result grew, in which case it's parsed again
+         *
+         * @param AST the result of the rule
+         * @return the result of the rule or
+         * {@link ExplicitStackParser#PENDING}
+         */
+        private Object finish(Object AST) throws InvocationTargetException {
+            int top = depth - 1;
+            SkeletalClassParser rule = rules[top];
+            switch (modes[top]) {
+                case MEMO:
+                    SkeletalClassParser.Memo memo = rule.remember(context,
+                            starts[top], AST, sc.mark());
+                    sc.reset(AST == null ? marks[top] : memo.end);
+                    break;
+                case GROW:
+                    if (SkeletalClassParser.grew(grown[top], AST,
+                            sc.mark())) {
+                        grown[top] = rule.remember(context, starts[top], AST,
+                                sc.mark());
+                        sc.reset(starts[top]);
+                        rule.enter(context);
+                        alternatives[top] = -1;
+                        return PENDING;
+                    }
+                    context.stopGrowing();
+                    AST = grown[top].AST;
+                    sc.reset(AST == null ? marks[top] : grown[top].end);
+                    break;
+                default:
+                    if (AST == null)
+                        sc.reset(marks[top]);
+                    else if (top < committed) {
+                        listener.exitRule(rule.getName());
+                        committed = top;
+                        AST = EMITTED;
+                    }
+            }
+            rules[top] = null;
+            grown[top] = null;
+            --depth;
+            return AST;
+        }
+
+        private void grow() {
+            int capacity = rules.length * 2;
+            rules = Arrays.copyOf(rules, capacity);
+            alternatives = Arrays.copyOf(alternatives, capacity);
+            elements = Arrays.copyOf(elements, capacity);
+            arguments = Arrays.copyOf(arguments, capacity);
+            alternativeMarks = Arrays.copyOf(alternativeMarks, capacity);
+            marks = Arrays.copyOf(marks, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            modes = Arrays.copyOf(modes, capacity);
+            grown = Arrays.copyOf(grown, capacity);
+            items = Arrays.copyOf(items, capacity);
+            itemMarks = Arrays.copyOf(itemMarks, capacity);
+            expressions = Arrays.copyOf(expressions, capacity);
+            operatorMarks = Arrays.copyOf(operatorMarks, capacity);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.parser.Parser;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Finds the tokens each alternative of a grammar rule can start with, its
+ * FIRST set, and whether it can accept the empty input. An alternative which
+ * can't be empty is only tried when one of the tokens it can start with is
+ * next in the input, so most rules try a single alternative instead of
+ * backtracking through each of them.
+ *
+ * @see SkeletalClassParser#isViable(edu.rit.gec8773.laps.scanner.Scanner, int)
+ */
+final class FirstSets {
+
+    /**
+     * The tokens a {@link Parser} can start with, by id, and whether it
+     * can be empty or can start with anything
+     */
+    private static final class First {
+        private final BitSet ids = new BitSet();
+        private boolean nullable = false;
+        private boolean any = false;
+
+        /**
+         * Adds the tokens of another {@link First} to this one
+         *
+         * @return true if this {@link First} changed
+         */
+        private boolean add(First other) {
+            boolean changed = (other.nullable && !nullable) ||
+                    (other.any && !any);
+            nullable |= other.nullable;
+            any |= other.any;
+            BitSet added = (BitSet)other.ids.clone();
+            added.andNot(ids);
+            ids.or(added);
+            return changed || !added.isEmpty();
+        }
+    }
+
+    private final Map<SkeletalClassParser, First> rules =
+            new IdentityHashMap<>();
+
+    private FirstSets() {}
+
+    /**
+     * Gives each rule the FIRST sets of its alternatives and whether it can
+     * be empty, found by
+     * repeating the calculation over every rule the grammar reaches until
+     * nothing changes
+     *
+     * @param built the rules of a grammar which was just built
+     */
+    static void mark(Collection<SkeletalClassParser> built) {
+        FirstSets sets = new FirstSets();
+        for (SkeletalClassParser rule : built)
+            sets.collect(rule);
+        boolean changed;
+        do {
+            changed = false;
+            for (Map.Entry<SkeletalClassParser, First> rule :
+                    sets.rules.entrySet())
+                changed |= rule.getValue().add(sets.firstOf(rule.getKey()));
+        } while (changed);
+        for (SkeletalClassParser rule : built) {
+            int[][] firstIds = new int[rule.alternativeCount()][];
+            boolean filters = false;
+            for (int i = 0; i < firstIds.length; ++i) {
+                First first = sets.first(rule.getAlternative(i));
+                if (!first.nullable && !first.any) {
+                    firstIds[i] = first.ids.stream().toArray();
+                    filters = true;
+                }
+            }
+            rule.setFirstIds(filters ? firstIds : null);
+            rule.setNullable(sets.rules.get(rule).nullable);
+        }
+    }
+
+    /**
+     * Finds every rule reachable from a {@link Parser}
+     */
+    private void collect(Parser parser) {
+        SkeletalClassParser rule = SkeletalClassParser.asRule(parser);
+        if (rule != null) {
+            if (rules.containsKey(rule))
+                return;
+            rules.put(rule, new First());
+            parser = rule;
+        }
+        if (parser instanceof TopDownParser)
+            for (Parser child : ((TopDownParser)parser).parsingRules)
+                collect(child);
+    }
+
+    /**
+     * Calculates the {@link First} of a rule from the current guesses of
+     * the rules it uses
+     */
+    private First firstOf(SkeletalClassParser rule) {
+        First first = new First();
+        first.nullable = rule.acceptsEmpty();
+        for (int i = 0; i < rule.alternativeCount(); ++i)
+            first.add(first(rule.getAlternative(i)));
+        return first;
+    }
+
+    /**
+     * Calculates the {@link First} of any {@link Parser} from the current
+     * guesses of the rules it uses
+     */
+    private First first(Parser parser) {
+        SkeletalClassParser rule = SkeletalClassParser.asRule(parser);
+        First first = new First();
+        if (rule != null) {
+            First guess = rules.get(rule);
+            if (guess == null)
+                first.any = true;
+            else
+                first.add(guess);
+        } else if (parser instanceof TokenParser)
+            first.ids.set(((TokenParser)parser).getId());
+        else if (parser instanceof SequentialParser) {
+            SequentialParser sequence = (SequentialParser)parser;
+            first.nullable = true;
+            for (int i = 0; i < sequence.size() && first.nullable; ++i) {
+                First element = first(sequence.get(i));
+                first.nullable = false;
+                first.add(element);
+            }
+        } else if (parser instanceof RepetitionParser) {
+            first.add(first(((RepetitionParser)parser).getElement()));
+            first.nullable = true;
+        } else if (parser instanceof OptionalParser) {
+            first.add(first(((OptionalParser)parser).getElement()));
+            first.nullable = true;
+        } else if (parser instanceof OperatorParser)
+            for (Parser operator : ((OperatorParser)parser).parsingRules)
+                first.add(first(operator));
+        else
+            first.any = true;
+        return first;
+    }
+}
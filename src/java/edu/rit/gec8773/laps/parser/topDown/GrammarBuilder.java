@@ -0,0 +1,191 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.grammar.Grammar;
+import edu.rit.gec8773.laps.scanner.Token;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Writes the grammar rules reached from a {@link SkeletalClassParser} as a
+ * context free {@link Grammar} whose productions call the same grammar rule
+ * constructors and hooks. Each alternative becomes a production, an infix
+ * constructor becomes a production for each operator, and a
+ * {@link RepetitionParser} or {@link OptionalParser} becomes a helper
+ * nonterminal which builds the parameter's value.
+ *
+ * @see TopDownParser#toGrammar(Parser)
+ */
+final class GrammarBuilder {
+
+    private final Grammar.Builder builder = new Grammar.Builder();
+
+    /**
+     * The nonterminal of each grammar rule and helper which has been added
+     */
+    private final Map<Parser, Integer> nonterminals = new IdentityHashMap<>();
+
+    /**
+     * The grammar rules whose productions haven't been added yet
+     */
+    private final ArrayDeque<SkeletalClassParser> pending = new ArrayDeque<>();
+
+    private GrammarBuilder() {}
+
+    /**
+     * Writes the grammar reached from a grammar rule
+     *
+     * @param head the {@link Parser} of the grammar rule the input is parsed
+     *             as
+     * @return the {@link Grammar}
+     * @throws InvocationTargetException when the grammar can't be written as
+     * a context free grammar
+     */
+    static Grammar build(Parser head) throws InvocationTargetException {
+        SkeletalClassParser rule = SkeletalClassParser.asRule(head);
+        if (rule == null)
+            throw new InvocationTargetException(new Exception(head +
+                    " is not a grammar rule"));
+        GrammarBuilder grammar = new GrammarBuilder();
+        int start = grammar.rule(rule);
+        while (!grammar.pending.isEmpty())
+            grammar.addProductions(grammar.pending.poll());
+        return grammar.builder.build(start);
+    }
+
+    /**
+     * Gets the nonterminal of a grammar rule, adding it the first time
+     */
+    private int rule(SkeletalClassParser rule) {
+        Integer nonterminal = nonterminals.get(rule);
+        if (nonterminal == null) {
+            nonterminal = builder.addNonterminal(rule.getName(),
+                    ignored -> rule.enter());
+            nonterminals.put(rule, nonterminal);
+            pending.add(rule);
+        }
+        return nonterminal;
+    }
+
+    /**
+     * Adds the alternatives of a grammar rule in order of priority, then the
+     * operators of its infix constructor, then its empty constructor
+     */
+    private void addProductions(SkeletalClassParser rule)
+            throws InvocationTargetException {
+        int lhs = nonterminals.get(rule);
+        for (int i = 0; i < rule.alternativeCount(); ++i) {
+            SequentialParser alternative = rule.getAlternative(i);
+            int[] rhs = new int[alternative.size()];
+            for (int j = 0; j < rhs.length; ++j)
+                rhs[j] = symbol(alternative.get(j));
+            int index = i;
+            builder.addProduction(lhs, rhs,
+                    values -> rule.afterEach(rule.construct(index, values)));
+        }
+        if (rule.hasOperators()) {
+            OperatorParser operators = rule.getOperators();
+            int self = Grammar.symbol(lhs);
+            for (Parser operator : operators.getOperators()) {
+                int id = ((TokenParser)operator).getId();
+                builder.addOperator(lhs, new int[] { self, id, self },
+                        values -> rule.afterEach(rule.constructInfix(values)),
+                        operators.precedence(id),
+                        operators.isLeftAssociative(id));
+            }
+        }
+        if (rule.acceptsEmpty())
+            builder.addProduction(lhs, new int[0],
+                    values -> rule.constructEmpty());
+    }
+
+    /**
+     * Gets the symbol of a parameter's {@link Parser}
+     */
+    private int symbol(Parser parser) throws InvocationTargetException {
+        if (parser instanceof TokenParser)
+            return ((TokenParser)parser).getId();
+        SkeletalClassParser rule = SkeletalClassParser.asRule(parser);
+        if (rule != null)
+            return Grammar.symbol(rule(rule));
+        Integer nonterminal = nonterminals.get(parser);
+        if (nonterminal != null)
+            return Grammar.symbol(nonterminal);
+        if (parser instanceof RepetitionParser)
+            return Grammar.symbol(repetition((RepetitionParser)parser));
+        if (parser instanceof OptionalParser)
+            return Grammar.symbol(optional((OptionalParser)parser));
+        throw new InvocationTargetException(new Exception(parser +
+                " can't be written as a context free grammar"));
+    }
+
+    /**
+     * Adds the nonterminals of a repetition. The elements are collected
+     * from the last one back, so neither nonterminal is left recursive.
+     * <pre>
+     *     list ::= e | element tail
+     *     tail ::= e | [ separator ] element tail
+     * </pre>
+     */
+    private int repetition(RepetitionParser repetition)
+            throws InvocationTargetException {
+        String name = repetition.toString();
+        int list = builder.addNonterminal(name, null);
+        nonterminals.put(repetition, list);
+        int tail = builder.addNonterminal(name + "'", null);
+        int element = symbol(repetition.getElement());
+        int[] rest = repetition.getSeparator() == null ?
+                new int[] { element, Grammar.symbol(tail) } :
+                new int[] { symbol(repetition.getSeparator()), element,
+                        Grammar.symbol(tail) };
+        builder.addProduction(tail, rest, values -> {
+            @SuppressWarnings("unchecked")
+            ArrayList<Object> items =
+                    (ArrayList<Object>)values[values.length - 1];
+            items.add(value(values[values.length - 2]));
+            return items;
+        });
+        builder.addProduction(tail, new int[0], values -> new ArrayList<>());
+        builder.addProduction(list, new int[] { element, Grammar.symbol(tail) },
+                values -> {
+                    @SuppressWarnings("unchecked")
+                    ArrayList<Object> items = (ArrayList<Object>)values[1];
+                    items.add(value(values[0]));
+                    Collections.reverse(items);
+                    return repetition.result(items);
+                });
+        builder.addProduction(list, new int[0],
+                values -> repetition.result(new ArrayList<>()));
+        return list;
+    }
+
+    /**
+     * Adds the nonterminal of an optional parameter
+     * <pre>
+     *     optional ::= element | e
+     * </pre>
+     */
+    private int optional(OptionalParser optional)
+            throws InvocationTargetException {
+        int nonterminal = builder.addNonterminal(optional.toString(), null);
+        nonterminals.put(optional, nonterminal);
+        builder.addProduction(nonterminal,
+                new int[] { symbol(optional.getElement()) },
+                values -> optional.result(values[0]));
+        builder.addProduction(nonterminal, new int[0],
+                values -> optional.result(null));
+        return nonterminal;
+    }
+
+    /**
+     * @return the text of a {@link Token} or any other value unchanged
+     */
+    private static Object value(Object item) {
+        return item instanceof Token ? ((Token)item).getValue() : item;
+    }
+}
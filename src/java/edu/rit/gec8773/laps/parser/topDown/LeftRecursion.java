@@ -0,0 +1,117 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.parser.Parser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the grammar rules which can reach themselves through the first
+ * element of an alternative, without consuming any input, and groups them
+ * by the cycles they're in. These rules are parsed by growing a result from
+ * a failed seed, since trying them recursively would never stop.
+ *
+ * @see SkeletalClassParser#parse(edu.rit.gec8773.laps.parser.ParseContext)
+ */
+final class LeftRecursion {
+
+    private final Map<SkeletalClassParser, Integer> indices =
+            new IdentityHashMap<>();
+    private final Map<SkeletalClassParser, Integer> lowLinks =
+            new IdentityHashMap<>();
+    private final Map<SkeletalClassParser, Boolean> onStack =
+            new IdentityHashMap<>();
+    private final ArrayList<SkeletalClassParser> stack = new ArrayList<>();
+    private final Collection<SkeletalClassParser> rules;
+
+    private LeftRecursion(Collection<SkeletalClassParser> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Marks each left recursive rule with the cycle it's in, by finding the
+     * strongly connected components of the graph where each rule points to
+     * the rules its alternatives can start with
+     *
+     * @param rules the rules of a grammar which was just built
+     */
+    static void mark(Collection<SkeletalClassParser> rules) {
+        LeftRecursion finder = new LeftRecursion(rules);
+        for (SkeletalClassParser rule : rules)
+            if (!finder.indices.containsKey(rule))
+                finder.connect(rule);
+    }
+
+    /**
+     * Tarjan's algorithm for strongly connected components
+     */
+    private void connect(SkeletalClassParser rule) {
+        int index = indices.size();
+        indices.put(rule, index);
+        lowLinks.put(rule, index);
+        stack.add(rule);
+        onStack.put(rule, true);
+        List<SkeletalClassParser> next = leftmost(rule);
+        for (SkeletalClassParser other : next) {
+            if (!rules.contains(other))
+                continue;
+            if (!indices.containsKey(other)) {
+                connect(other);
+                lowLinks.put(rule,
+                        Math.min(lowLinks.get(rule), lowLinks.get(other)));
+            } else if (onStack.getOrDefault(other, false))
+                lowLinks.put(rule,
+                        Math.min(lowLinks.get(rule), indices.get(other)));
+        }
+        if (!lowLinks.get(rule).equals(indices.get(rule)))
+            return;
+        List<SkeletalClassParser> cycle = new ArrayList<>();
+        SkeletalClassParser member;
+        do {
+            member = stack.remove(stack.size() - 1);
+            onStack.put(member, false);
+            cycle.add(member);
+        } while (member != rule);
+        if (cycle.size() > 1 || next.contains(rule))
+            for (SkeletalClassParser recursive : cycle)
+                recursive.setCycle(cycle);
+    }
+
+    /**
+     * Gets the rules the alternatives of a rule can start with, looking past
+     * elements which can be empty because they're repeated, optional or
+     * rules which can accept the empty input
+     *
+     * @param rule the rule
+     * @return the rules
+     */
+    private static List<SkeletalClassParser> leftmost(
+            SkeletalClassParser rule) {
+        List<SkeletalClassParser> leftmost = new ArrayList<>();
+        for (int i = 0; i < rule.alternativeCount(); ++i) {
+            SequentialParser sequence = rule.getAlternative(i);
+            for (int j = 0; j < sequence.size(); ++j) {
+                Parser element = sequence.get(j);
+                boolean empty = true;
+                if (element instanceof RepetitionParser)
+                    element = ((RepetitionParser)element).getElement();
+                else if (element instanceof OptionalParser)
+                    element = ((OptionalParser)element).getElement();
+                else
+                    empty = false;
+                SkeletalClassParser elementRule =
+                        SkeletalClassParser.asRule(element);
+                if (elementRule != null) {
+                    leftmost.add(elementRule);
+                    empty |= elementRule.isNullable();
+                }
+                if (!empty)
+                    break;
+            }
+        }
+        return leftmost;
+    }
+}
@@ -0,0 +1,135 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.annotation.Operator;
+import edu.rit.gec8773.laps.parser.ParseContext;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.resources.Resources;
+import edu.rit.gec8773.laps.scanner.Scanner;
+import edu.rit.gec8773.laps.scanner.Token;
+import edu.rit.gec8773.laps.util.IntMap;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link OperatorParser} accepts any one of the {@link Operator} tokens of
+ * an {@link edu.rit.gec8773.laps.annotation.Infix} constructor, preferring
+ * the longest when several match, and knows the precedence and
+ * associativity of each
+ */
+public class OperatorParser extends TopDownParser {
+
+    /**
+     * The {@link Operator} of each token keyed by the token's id
+     */
+    private final IntMap<Operator> operators = new IntMap<>();
+
+    /**
+     * Class constructor
+     *
+     * @param operators the {@link Operator} of each token keyed by the
+     *                  token's name
+     * @throws InvocationTargetException when the user provides a token which
+     * is not recognized
+     */
+    OperatorParser(Map<String, Operator> operators)
+            throws InvocationTargetException {
+        super(operators.keySet()
+                       .stream()
+                       .map(name -> {
+                           Token token = Resources.instance.getToken(name);
+                           return token == null ? name : token;
+                       })
+                       .toArray());
+        for (Map.Entry<String, Operator> operator : operators.entrySet())
+            this.operators.put(
+                    Resources.instance.getToken(operator.getKey()).getId(),
+                    operator.getValue());
+    }
+
+    @Override
+    public Object parse(ParseContext context) throws IOException,
+            InvocationTargetException, InstantiationException {
+        Scanner sc = context.getScanner();
+        int mark = sc.mark();
+        Token longest = null;
+        int end = mark;
+        for (Parser parser : parsingRules) {
+            Token token = (Token)parser.parse(context);
+            if (token != null &&
+                    (longest == null || token.getLength() > longest.getLength())) {
+                longest = token;
+                end = sc.mark();
+            }
+            sc.reset(mark);
+        }
+        sc.reset(end);
+        return longest;
+    }
+
+    /**
+     * Gets the precedence of an operator
+     *
+     * @param operator an operator accepted by this parser
+     * @return the precedence, which is larger for operators binding more
+     * tightly
+     */
+    int precedence(Token operator) {
+        return precedence(operator.getId());
+    }
+
+    /**
+     * Gets the precedence of an operator by its token id
+     *
+     * @param id the id of an operator accepted by this parser
+     * @return the precedence, which is larger for operators binding more
+     * tightly
+     */
+    int precedence(int id) {
+        return operators.get(id).precedence();
+    }
+
+    /**
+     * Checks if an operator groups to the left
+     *
+     * @param operator an operator accepted by this parser
+     * @return true if the operator is left associative
+     */
+    boolean isLeftAssociative(Token operator) {
+        return isLeftAssociative(operator.getId());
+    }
+
+    /**
+     * Checks if an operator groups to the left by its token id
+     *
+     * @param id the id of an operator accepted by this parser
+     * @return true if the operator is left associative
+     */
+    boolean isLeftAssociative(int id) {
+        return operators.get(id).associativity() ==
+                Operator.Associativity.LEFT;
+    }
+
+    /**
+     * @return the {@link TokenParser} of each operator
+     */
+    List<Parser> getOperators() {
+        return parsingRules;
+    }
+
+    @Override
+    public Type getStartingToken() {
+        return parsingRules.get(0).getStartingToken();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("( ");
+        for (Parser parser : parsingRules)
+            sb.append(RepetitionParser.name(parser)).append(" | ");
+        return sb.substring(0, sb.length() - 3) + " )";
+    }
+}
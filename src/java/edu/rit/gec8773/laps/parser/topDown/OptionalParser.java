@@ -0,0 +1,86 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.parser.ParseContext;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.scanner.Scanner;
+import edu.rit.gec8773.laps.scanner.Token;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.util.Optional;
+
+/**
+ * {@link OptionalParser} accepts a token or grammar rule zero or one times
+ * for a grammar rule constructor parameter typed as an {@link Optional}
+ */
+public class OptionalParser extends TopDownParser {
+
+    private final Parser element;
+
+    /**
+     * Class constructor
+     *
+     * @param element the optional {@link Token} or grammar rule
+     *                {@link Class}
+     * @throws InvocationTargetException when the user provides a token which
+     * is not recognized
+     */
+    OptionalParser(Object element) throws InvocationTargetException {
+        super(new Object[] { element });
+        this.element = parsingRules.get(0);
+    }
+
+    /**
+     * Always accepts, with an empty {@link Optional} when the element isn't
+     * found. A token is kept as it is while the abstract syntax tree is
+     * being recorded.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public Object parse(ParseContext context) throws IOException,
+            InvocationTargetException, InstantiationException {
+        Scanner sc = context.getScanner();
+        int mark = sc.mark();
+        Object item = element.parse(context);
+        if (item == null)
+            sc.reset(mark);
+        else if (item instanceof Token && context.isDeferring())
+            return Reduction.of(new Object[] { item },
+                    values -> result(values[0]));
+        return result(item);
+    }
+
+    /**
+     * @return the {@link Parser} of the optional element
+     */
+    Parser getElement() {
+        return element;
+    }
+
+    /**
+     * Wraps the parsed element in an {@link Optional}, once it's created
+     *
+     * @param item the parsed element or null
+     * @return the {@link Optional} or a {@link Reduction} which creates it
+     */
+    Object result(Object item) {
+        if (item instanceof Reduction)
+            return Reduction.of(new Object[] { item },
+                    values -> result(values[0]));
+        return Optional.ofNullable(item instanceof Token ?
+                ((Token)item).getValue() :
+                item);
+    }
+
+    @Override
+    public Type getStartingToken() {
+        return element.getStartingToken();
+    }
+
+    @Override
+    public String toString() {
+        return "[ " + RepetitionParser.name(element) + " ]";
+    }
+}
@@ -0,0 +1,194 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.parser.grammar.Production;
+import edu.rit.gec8773.laps.scanner.Token;
+import edu.rit.gec8773.laps.util.MyConsumer;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link Reduction} records that a grammar rule accepted some input, in
+ * place of the abstract syntax tree, while the
+ * {@link edu.rit.gec8773.laps.parser.ParseContext} is deferring. Its values
+ * can be other {@link Reduction}s, so the accepted rules form a log of the
+ * parse shaped like the tree it creates. Nothing is created until the whole
+ * input is accepted and the log is replayed, so rules accepted inside
+ * alternatives which are given up on create nothing and run no hooks. Each
+ * rule's {@link edu.rit.gec8773.laps.annotation.RunBeforeFirstInit} and
+ * {@link edu.rit.gec8773.laps.annotation.RunBeforeEachInit} hooks run
+ * before its values are created, as they would have while parsing. Tokens
+ * are kept as {@link edu.rit.gec8773.laps.scanner.Token}s, so the log can
+ * also be read as a concrete syntax tree.
+ *
+ * @see edu.rit.gec8773.laps.parser.ParseContext#isDeferring()
+ */
+final class Reduction {
+
+    /**
+     * The alternative of an {@link edu.rit.gec8773.laps.annotation.Infix}
+     * constructor and of a constructor without parameters
+     */
+    static final int INFIX = -1;
+    static final int EMPTY = -2;
+
+    /**
+     * The grammar rule and the index of its alternative in order of
+     * priority, or null for the value of a {@link RepetitionParser} or an
+     * {@link OptionalParser}
+     */
+    private final SkeletalClassParser rule;
+    private final int alternative;
+
+    private final Object[] values;
+    private final MyConsumer<Void> enter;
+    private final Production.Action action;
+
+    /**
+     * Set once the values are replayed, and then the created value
+     */
+    private boolean replayed = false;
+    private Object value;
+
+    /**
+     * Class constructor
+     *
+     * @param rule the grammar rule or null
+     * @param alternative the index of the alternative in order of priority,
+     *                    {@link Reduction#INFIX} or {@link Reduction#EMPTY}
+     * @param values the values the rule accepted, which are owned by this
+     *               {@link Reduction}
+     * @param enter the hooks to run before the values are replayed or null
+     * @param action creates the value once each value is replayed
+     */
+    Reduction(SkeletalClassParser rule, int alternative, Object[] values,
+              MyConsumer<Void> enter, Production.Action action) {
+        this.rule = rule;
+        this.alternative = alternative;
+        this.values = values;
+        this.enter = enter;
+        this.action = action;
+    }
+
+    /**
+     * Records the value of a {@link RepetitionParser} or an
+     * {@link OptionalParser}, which is created once each of its elements is
+     *
+     * @param values the elements, which are owned by the {@link Reduction}
+     * @param action creates the value from the elements
+     * @return the {@link Reduction}
+     */
+    static Reduction of(Object[] values, Production.Action action) {
+        return new Reduction(null, 0, values, null, action);
+    }
+
+    /**
+     * @param items the elements of a {@link RepetitionParser}
+     * @return true if an element is waiting to be replayed or is still a
+     * {@link edu.rit.gec8773.laps.scanner.Token}
+     */
+    static boolean isPending(List<Object> items) {
+        for (Object item : items)
+            if (item instanceof Reduction || item instanceof Token)
+                return true;
+        return false;
+    }
+
+    /**
+     * @return the grammar rule or null for the value of a
+     * {@link RepetitionParser} or an {@link OptionalParser}
+     */
+    SkeletalClassParser getRule() {
+        return rule;
+    }
+
+    /**
+     * @return the index of the alternative in order of priority,
+     * {@link Reduction#INFIX} or {@link Reduction#EMPTY}
+     */
+    int getAlternative() {
+        return alternative;
+    }
+
+    /**
+     * @return the values the rule accepted, which must not be changed
+     */
+    Object[] getValues() {
+        return values;
+    }
+
+    /**
+     * @return the amount of values the rule accepted
+     */
+    int size() {
+        return values.length;
+    }
+
+    /**
+     * Gets a value the rule accepted and forgets it, so the part of the log
+     * it holds can be freed once it's read. The log can't be replayed or
+     * read again afterwards.
+     *
+     * @param index the index of the value
+     * @return the value
+     */
+    Object take(int index) {
+        Object value = values[index];
+        values[index] = null;
+        return value;
+    }
+
+    /**
+     * Creates the value of each {@link Reduction} in a log of a parse, the
+     * values of each one in order before the one itself, with a stack in
+     * the heap
+     *
+     * @param result the result of a parse, which may be a {@link Reduction}
+     * @return the created abstract syntax tree
+     * @throws InvocationTargetException when the user causes an exception
+     * @throws InstantiationException when a grammar rule constructor
+     * throws an exception
+     */
+    static Object replay(Object result) throws InvocationTargetException,
+            InstantiationException {
+        if (!(result instanceof Reduction))
+            return result;
+        Reduction[] stack = new Reduction[64];
+        boolean[] expanded = new boolean[64];
+        stack[0] = (Reduction)result;
+        int depth = 1;
+        while (depth > 0) {
+            int top = depth - 1;
+            Reduction reduction = stack[top];
+            if (reduction.replayed) {
+                stack[top] = null;
+                --depth;
+            } else if (!expanded[top]) {
+                expanded[top] = true;
+                if (reduction.enter != null)
+                    reduction.enter.accept(null);
+                Object[] values = reduction.values;
+                for (int i = values.length - 1; i >= 0; --i)
+                    if (values[i] instanceof Reduction) {
+                        if (depth == stack.length) {
+                            stack = Arrays.copyOf(stack, depth * 2);
+                            expanded = Arrays.copyOf(expanded, depth * 2);
+                        }
+                        stack[depth] = (Reduction)values[i];
+                        expanded[depth++] = false;
+                    }
+            } else {
+                stack[top] = null;
+                --depth;
+                Object[] values = reduction.values;
+                for (int i = 0; i < values.length; ++i)
+                    if (values[i] instanceof Reduction)
+                        values[i] = ((Reduction)values[i]).value;
+                reduction.value = reduction.action.apply(values);
+                reduction.replayed = true;
+            }
+        }
+        return ((Reduction)result).value;
+    }
+}
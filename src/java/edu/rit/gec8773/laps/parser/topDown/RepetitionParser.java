@@ -0,0 +1,173 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.parser.ParseContext;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.scanner.Scanner;
+import edu.rit.gec8773.laps.scanner.Token;
+import edu.rit.gec8773.laps.util.BNFWriter;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+
+/**
+ * {@link RepetitionParser} accepts a token or grammar rule zero or more
+ * times, optionally with a separator token between each, for a grammar rule
+ * constructor parameter typed as a {@link java.util.List} or an array. The
+ * elements are parsed in a loop straight into an {@link ArrayList}, so a
+ * list costs neither a level of recursion nor an object per element.
+ */
+public class RepetitionParser extends TopDownParser {
+
+    private final Parser element;
+    private final Parser separator;
+
+    /**
+     * The type of the elements when the parameter is an array, or null when
+     * it's a {@link java.util.List}
+     */
+    private final Class<?> arrayType;
+
+    /**
+     * Class constructor
+     *
+     * @param element the repeated {@link Token} or grammar rule
+     *                {@link Class}
+     * @param separator the {@link Token} between elements or null
+     * @param arrayType the type of the elements of an array parameter or
+     *                  null for a {@link java.util.List} parameter
+     * @throws InvocationTargetException when the user provides a token which
+     * is not recognized
+     */
+    RepetitionParser(Object element, Object separator, Class<?> arrayType)
+            throws InvocationTargetException {
+        super(separator == null ?
+                new Object[] { element } :
+                new Object[] { element, separator });
+        this.element = parsingRules.get(0);
+        this.separator = separator == null ? null : parsingRules.get(1);
+        this.arrayType = arrayType;
+    }
+
+    /**
+     * Always accepts, with an empty list when no element is found
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public Object parse(ParseContext context) throws IOException,
+            InvocationTargetException, InstantiationException {
+        Scanner sc = context.getScanner();
+        ArrayList<Object> items = new ArrayList<>();
+        int mark = sc.mark();
+        while (separate(context, items) &&
+                add(context, items, element.parse(context), mark))
+            mark = sc.mark();
+        sc.reset(mark);
+        return result(items);
+    }
+
+    // The steps of parsing a repetition, shared with ExplicitStackParser
+
+    /**
+     * @return the {@link Parser} of the repeated element
+     */
+    Parser getElement() {
+        return element;
+    }
+
+    /**
+     * @return the {@link Parser} of the separator or null
+     */
+    Parser getSeparator() {
+        return separator;
+    }
+
+    /**
+     * Parses the separator before the next element, if there is a separator
+     * and an element before it
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @param items the elements parsed so far
+     * @return true if another element can follow
+     */
+    boolean separate(ParseContext context, ArrayList<Object> items)
+            throws IOException, InvocationTargetException,
+            InstantiationException {
+        return items.isEmpty() ||
+                separator == null ||
+                separator.parse(context) != null;
+    }
+
+    /**
+     * Adds a parsed element, unless it wasn't accepted or the input didn't
+     * move past the previous element, which would otherwise repeat forever.
+     * The caller moves the scanner back to {@code mark} when it's not added.
+     * A token is added as its text, unless the abstract syntax tree is being
+     * recorded.
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @param items the elements parsed so far
+     * @param item the parsed element or null
+     * @param mark the position after the previous element
+     * @return true if the element is added
+     */
+    boolean add(ParseContext context, ArrayList<Object> items, Object item,
+                int mark) {
+        if (item == null || context.getScanner().mark() == mark)
+            return false;
+        items.add(item instanceof Token && !context.isDeferring() ?
+                ((Token)item).getValue() :
+                item);
+        return true;
+    }
+
+    /**
+     * Converts the parsed elements into the type of the parameter, once
+     * every element is created
+     *
+     * @param items the parsed elements
+     * @return the elements as a {@link java.util.List} or an array, or a
+     * {@link Reduction} which creates them
+     */
+    Object result(ArrayList<Object> items) {
+        if (Reduction.isPending(items))
+            return Reduction.of(items.toArray(), values -> {
+                ArrayList<Object> created = new ArrayList<>(values.length);
+                for (Object value : values)
+                    created.add(value instanceof Token ?
+                            ((Token)value).getValue() :
+                            value);
+                return result(created);
+            });
+        if (arrayType == null)
+            return items;
+        return items.toArray((Object[])Array.newInstance(arrayType,
+                items.size()));
+    }
+
+    @Override
+    public Type getStartingToken() {
+        return element.getStartingToken();
+    }
+
+    @Override
+    public String toString() {
+        String name = name(element);
+        if (separator == null)
+            return "{ " + name + " }";
+        return "[ " + name + " { " + name(separator) + " " + name + " } ]";
+    }
+
+    /**
+     * @return how a child parser is written in a grammar rule
+     */
+    static String name(Parser child) {
+        BNFWriter.Writable writable = (BNFWriter.Writable)child;
+        return writable.getName() == null ?
+                writable.toString() :
+                writable.getName();
+    }
+}
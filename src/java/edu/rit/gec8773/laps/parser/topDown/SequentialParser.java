@@ -1,18 +1,16 @@
 package edu.rit.gec8773.laps.parser.topDown;
 
+import edu.rit.gec8773.laps.parser.ParseContext;
+import edu.rit.gec8773.laps.parser.Parser;
 import edu.rit.gec8773.laps.util.BNFWriter;
 import edu.rit.gec8773.laps.scanner.Scanner;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
-import java.util.Stack;
 
 public class SequentialParser extends TopDownParser {
 
-
-    private final Stack<Integer> lastAcceptedRuleIndex = new Stack<>();
-
     /**
      *
      * {@inheritDoc}
@@ -23,32 +21,76 @@ public class SequentialParser extends TopDownParser {
     }
 
     @Override
-    public Object parse(Scanner sc) throws IOException,
+    public Object parse(ParseContext context) throws IOException,
+            InvocationTargetException, InstantiationException {
+        Object[] parsed = parseArguments(context);
+        if (parsed == null)
+            return null;
+        try {
+            return parsed.clone();
+        } finally {
+            release(context);
+        }
+    }
+
+    /**
+     * Parses the sequence into an argument buffer of the
+     * {@link ParseContext} instead of a new array. When the sequence is
+     * accepted, the buffer stays in use until
+     * {@link SequentialParser#release(ParseContext)} is called.
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @return the parsed elements or null if the sequence isn't accepted
+     * @see Parser#parse(ParseContext)
+     */
+    Object[] parseArguments(ParseContext context) throws IOException,
             InvocationTargetException, InstantiationException {
 //	/*DEBUG*/		System.out.println("SEQ rule");
-        Object[] parsed = new Object[parsingRules.size()];
-        for (int i = 0; i < parsingRules.size(); ++i) {
-            parsed[i] = parsingRules.get(i).parse(sc);
-            if (parsed[i] == null) {
-                lastAcceptedRuleIndex.push(i);
-                return null;
+        Scanner sc = context.getScanner();
+        int mark = sc.mark();
+        int size = parsingRules.size();
+        Object[] parsed = context.acquireBuffer(size);
+        try {
+            for (int i = 0; i < size; ++i) {
+                parsed[i] = parsingRules.get(i).parse(context);
+                if (parsed[i] == null) {
+                    sc.reset(mark);
+                    release(context);
+                    return null;
+                }
             }
+        } catch (Throwable t) {
+            release(context);
+            throw t;
         }
-        lastAcceptedRuleIndex.push(parsingRules.size());
         return parsed;
     }
 
-    @Override
-    public void returnTokens(Scanner sc) {
-        if (this == EMPTY)
-            return;
-//	/*DEBUG*/		System.out.println("SEQ returning tokens");
-        Integer i = lastAcceptedRuleIndex.isEmpty() ?
-                null : lastAcceptedRuleIndex.pop();
-        if (i == null)
-            return;
-        for (--i; i >= 0; --i)
-            parsingRules.get(i).returnTokens(sc);
+    /**
+     * @return the amount of elements in the sequence
+     */
+    int size() {
+        return parsingRules.size();
+    }
+
+    /**
+     * Gets the {@link Parser} of an element of the sequence
+     *
+     * @param index the index of the element
+     * @return the {@link Parser}
+     */
+    Parser get(int index) {
+        return parsingRules.get(index);
+    }
+
+    /**
+     * Lets the buffer most recently returned by
+     * {@link SequentialParser#parseArguments(ParseContext)} be reused
+     *
+     * @param context the {@link ParseContext} the buffer is from
+     */
+    void release(ParseContext context) {
+        context.releaseBuffer(parsingRules.size());
     }
 
     @Override
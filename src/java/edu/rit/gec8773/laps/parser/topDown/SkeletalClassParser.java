@@ -1,17 +1,23 @@
 package edu.rit.gec8773.laps.parser.topDown;
 
 import edu.rit.gec8773.laps.util.BNFWriter;
+import edu.rit.gec8773.laps.util.IntMap;
 import edu.rit.gec8773.laps.util.MyConsumer;
+import edu.rit.gec8773.laps.util.RuleConstructor;
 import edu.rit.gec8773.laps.scanner.Scanner;
 import edu.rit.gec8773.laps.scanner.Token;
 import edu.rit.gec8773.laps.util.AnnotationUtils;
 import edu.rit.gec8773.laps.annotation.RunAfterEachInit;
 import edu.rit.gec8773.laps.annotation.RunBeforeEachInit;
 import edu.rit.gec8773.laps.annotation.RunBeforeFirstInit;
+import edu.rit.gec8773.laps.parser.ParseContext;
 import edu.rit.gec8773.laps.parser.Parser;
 import edu.rit.gec8773.laps.resources.Resources;
 
 import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Parameter;
@@ -19,16 +25,124 @@ import java.lang.reflect.Type;
 import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class SkeletalClassParser extends TopDownParser {
 
     private final String name;
     private final Class<?> cls;
-    private final HashMap<List<Class<?>>, Parser> ruleMap;
-    private final Stack<Parser> acceptedRulesStack = new Stack<>();
-    // TODO make use of callstack instead
-    private boolean ranOnce = false;
+
+    /**
+     * Set once the methods marked with {@link RunBeforeFirstInit} have run,
+     * which happens once for the grammar rather than once for each input
+     */
+    private volatile boolean ranOnce = false;
+
+    /**
+     * The grammar rule constructors with parameters in order of priority
+     */
+    private final Alternative[] alternatives;
+
+    /**
+     * The {@link edu.rit.gec8773.laps.annotation.Infix} grammar rule
+     * constructor and the {@link OperatorParser} of its operators, or null
+     */
+    private final Alternative infix;
+    private final OperatorParser operators;
+
+    /**
+     * The grammar rule constructor without parameters or null
+     */
+    private transient RuleConstructor emptyConstructor;
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    /**
+     * The left recursive rules this rule is in a cycle with, including
+     * itself, or null if it isn't left recursive. It's set while the grammar
+     * is built.
+     *
+     * @see LeftRecursion
+     */
+    private List<SkeletalClassParser> cycle = null;
+
+    /**
+     * The ids of the tokens each alternative can start with, or null for an
+     * alternative which can be empty and is always tried. It's null when
+     * every alternative is always tried, and is set while the grammar is
+     * built.
+     *
+     * @see FirstSets
+     */
+    private int[][] firstIds = null;
+
+    /**
+     * Whether this rule can accept the empty input, through its constructor
+     * without parameters or an alternative whose elements can all be empty.
+     * It's set while the grammar is built.
+     *
+     * @see FirstSets
+     */
+    private boolean nullable = false;
+
+    /**
+     * The hooks of {@code cls}, which are bound again when the grammar is
+     * loaded instead of being saved
+     */
+    private transient MyConsumer<Void> runOnce;
+    private transient MyConsumer<Void> beforeEach;
+    private transient MyConsumer<Object> runAfter;
+
+    /**
+     * Runs the hooks which come before the rule as a {@link Reduction} of
+     * it is replayed
+     */
+    private transient MyConsumer<Void> replayEnter;
+
+    /**
+     * A remembered result of parsing a {@link SkeletalClassParser} at a
+     * position in the input, kept in
+     * {@link ParseContext#getMemoTable(Parser)}
+     */
+    static final class Memo {
+        final Object AST;
+        final int end;
+
+        private Memo(Object AST, int end) {
+            this.AST = AST;
+            this.end = end;
+        }
+    }
+
+    /**
+     * A grammar rule constructor and the {@link Parser} for its parameters.
+     * Only the class and parameter types of the constructor are saved with
+     * the grammar, and it's bound again when the grammar is loaded.
+     */
+    private static final class Alternative implements Serializable {
+        private final SequentialParser rule;
+        private final Class<?> cls;
+        private final Class<?>[] parameterTypes;
+        private transient RuleConstructor constructor;
+
+        private Alternative(Parser rule, Constructor<?> constructor) {
+            this.rule = (SequentialParser)rule;
+            this.cls = constructor.getDeclaringClass();
+            this.parameterTypes = constructor.getParameterTypes();
+            this.constructor = new RuleConstructor(constructor);
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException,
+                ClassNotFoundException {
+            in.defaultReadObject();
+            try {
+                constructor = new RuleConstructor(
+                        cls.getConstructor(parameterTypes));
+            } catch (NoSuchMethodException e) {
+                throw new InvalidObjectException(cls + " no longer has " +
+                        "the constructor " + e.getMessage());
+            }
+        }
+    }
 
     private static HashMap<List<Class<?>>, Parser> constructRuleMap(Class<?> cls, boolean isHead) throws InvocationTargetException {
         HashMap<List<Class<?>>, Parser> ruleMap = new HashMap<>();
@@ -45,14 +159,18 @@ public class SkeletalClassParser extends TopDownParser {
                 ruleMap.put(List.of(), EMPTY);
                 continue;
             }
-            Parser seqRule = TopDownParser.seq((Object[])rules);
+            Parser seqRule = AnnotationUtils.isInfix(ctr) ?
+                    TopDownParser.infix(cls, ctr) :
+                    TopDownParser.seq((Object[])rules);
             Type firstTypeSeq = seqRule.getStartingToken();
             int priority = AnnotationUtils.priority(ctr);
             for (Parser parser : ruleMap.values()) {
                 if (parser == EMPTY)
                     continue;
                 Type firstTypeTest = parser.getStartingToken();
-                if (firstTypeSeq.equals(firstTypeTest) && priorityMap.get(parser) == priority) {
+                if (firstTypeSeq.equals(firstTypeTest) &&
+                        priorityMap.get(parser) == priority &&
+                        !Resources.instance.ambiguousRulesEnabled()) {
                     String otherCtrString = "non-existent constructor";
                     try {
                         otherCtrString = cls.getConstructor(
@@ -95,13 +213,77 @@ public class SkeletalClassParser extends TopDownParser {
      *
      */
     SkeletalClassParser(Class<?> cls, boolean isHead) throws InvocationTargetException {
-        super(SkeletalClassParser.constructRuleMap(cls, isHead).values().toArray());
+        this(cls, SkeletalClassParser.constructRuleMap(cls, isHead));
+    }
+
+    /**
+     * Resolves everything {@link SkeletalClassParser#parse(Scanner)} needs
+     * from {@code cls} once, so parsing doesn't use reflection to find the
+     * constructors, their {@link Parser}s, or the hooks
+     *
+     * @param cls the grammar rule class
+     * @param ruleMap the {@link Parser} of each constructor keyed by its
+     *                parameter types
+     * @throws InvocationTargetException when the user causes an exception
+     */
+    private SkeletalClassParser(Class<?> cls,
+                                HashMap<List<Class<?>>, Parser> ruleMap)
+            throws InvocationTargetException {
+        super(ruleMap.values().toArray());
         StringBuilder sb = new StringBuilder(cls.getSimpleName());
         sb.insert(0, "<")
                 .append(">");
         name = sb.toString();
-        this.ruleMap = SkeletalClassParser.constructRuleMap(cls, isHead);
         this.cls = cls;
+        Constructor<?>[] ctrs = cls.getConstructors();
+        Arrays.sort(ctrs, Comparator.comparingInt(AnnotationUtils::priority));
+        List<Alternative> alternatives = new ArrayList<>();
+        Alternative infix = null;
+        for (Constructor<?> ctr : ctrs) {
+            if (ctr.getParameterCount() == 0)
+                continue;
+            if (AnnotationUtils.isInfix(ctr)) {
+                if (infix != null)
+                    throw new InvocationTargetException(
+                            new Exception(cls + " has more than one infix " +
+                                    "constructor"));
+                infix = new Alternative(
+                        ruleMap.get(List.of(ctr.getParameterTypes())), ctr);
+            } else
+                alternatives.add(new Alternative(
+                        ruleMap.get(List.of(ctr.getParameterTypes())), ctr));
+        }
+        this.alternatives = alternatives.toArray(new Alternative[0]);
+        this.infix = infix;
+        this.operators = infix == null ?
+                null :
+                (OperatorParser)infix.rule.get(1);
+        bind();
+    }
+
+    /**
+     * Binds the constructor without parameters and the hooks of
+     * {@code cls}, when the grammar is built and again when it's loaded
+     */
+    private void bind() {
+        try {
+            emptyConstructor = new RuleConstructor(cls.getConstructor());
+        } catch (NoSuchMethodException e) {
+            emptyConstructor = null;
+        }
+        runOnce = AnnotationUtils.getStaticMethod(cls,
+                RunBeforeFirstInit.class);
+        beforeEach = AnnotationUtils.getStaticMethod(cls,
+                RunBeforeEachInit.class);
+        runAfter = AnnotationUtils.getInstanceMethod(cls,
+                RunAfterEachInit.class);
+        replayEnter = ignored -> beforeHooks();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException,
+            ClassNotFoundException {
+        in.defaultReadObject();
+        bind();
     }
 
 
@@ -111,81 +293,585 @@ public class SkeletalClassParser extends TopDownParser {
     }
 
     @Override
-    public Object parse(Scanner sc) throws IOException,
+    public Object parse(ParseContext context) throws IOException,
             InvocationTargetException, InstantiationException {
-        if (!ranOnce) {
-            MyConsumer<Void> runOnce = AnnotationUtils.getStaticMethod(cls,
-                    RunBeforeFirstInit.class);
-            runOnce.accept(null);
-            ranOnce = true;
+        if (!Resources.instance.deferredConstructionEnabled() ||
+                !context.startDeferring())
+            return parseRemembered(context);
+        Object AST;
+        try {
+            AST = parseRemembered(context);
+        } finally {
+            context.stopDeferring();
         }
-        if (Resources.instance.debugEnabled())
-            System.out.println("Trying to parse: " + name + " rule");
-        MyConsumer<Void> beforeEach = AnnotationUtils.getStaticMethod(cls,
-                RunBeforeEachInit.class);
-        MyConsumer<Object> runAfter = AnnotationUtils.getInstanceMethod(cls,
-                RunAfterEachInit.class);
-        Constructor<?>[] ctrs = cls.getConstructors();
-        beforeEach.accept(null);
-        Arrays.sort(ctrs, Comparator.comparingInt(AnnotationUtils::priority));
-        int emptyIndex = -1;
-        for (int i = 0; i < ctrs.length; ++i) {
-            Parameter[] rules = ctrs[i].getParameters();
-            if (rules.length == 0) {
-                emptyIndex = i;
-                continue;
+        return Reduction.replay(AST);
+    }
+
+    /**
+     * Parses this rule, remembering its result when packrat parsing is
+     * enabled or it's left recursive
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @return the created abstract syntax tree, or a {@link Reduction} when
+     * construction is deferred, or null if no rule accepts
+     */
+    private Object parseRemembered(ParseContext context) throws IOException,
+            InvocationTargetException, InstantiationException {
+        if (cycle == null && !Resources.instance.memoizationEnabled())
+            return parseRule(context);
+        Scanner sc = context.getScanner();
+        int mark = sc.mark();
+        sc.skip();
+        int start = sc.mark();
+        if (isInvolved(context, start)) {
+            Object AST = parseRule(context);
+            if (AST == null)
+                sc.reset(mark);
+            return AST;
+        }
+        Memo memo = recall(context, start);
+        if (memo == null)
+            memo = cycle == null ?
+                    remember(context, start, parseRule(context), sc.mark()) :
+                    grow(context, start);
+        sc.reset(memo.AST == null ? mark : memo.end);
+        return memo.AST;
+    }
+
+    /**
+     * Parses this left recursive rule by remembering a failed seed, then
+     * parsing again, where the recursive use of this rule gets the
+     * remembered result, for as long as the result gets longer
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @param start the position after skipping
+     * @return the longest result
+     */
+    private Memo grow(ParseContext context, int start) throws IOException,
+            InvocationTargetException, InstantiationException {
+        Scanner sc = context.getScanner();
+        Memo memo = seed(context, start);
+        try {
+            while (true) {
+                sc.reset(start);
+                Object AST = parseRule(context);
+                if (!grew(memo, AST, sc.mark()))
+                    return memo;
+                memo = remember(context, start, AST, sc.mark());
             }
-            List<Class<?>> types = Arrays.stream(rules)
-                                      .map(Parameter::getType)
-                                      .collect(Collectors.toList());
-            Parser rule = ruleMap.get(types);
-            Object[] parsed = (Object[])rule.parse(sc);
-            if (parsed == null) {
-                rule.returnTokens(sc);
+        } finally {
+            context.stopGrowing();
+        }
+    }
+
+    /**
+     * Parses an operand, then when {@link SkeletalClassParser#cls} has an
+     * infix constructor, as many operators each followed by another operand
+     * as possible
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @return the created abstract syntax tree or null if no rule accepts
+     * @see Parser#parse(ParseContext)
+     */
+    private Object parseRule(ParseContext context) throws IOException,
+            InvocationTargetException, InstantiationException {
+        Object AST = parseOperand(context);
+        if (infix == null || AST == null)
+            return AST;
+        Scanner sc = context.getScanner();
+        Expression expression = new Expression(AST);
+        while (true) {
+            int mark = sc.mark();
+            if (!operator(context, expression)) {
+                sc.reset(mark);
+                break;
+            }
+            Object operand = parseOperand(context);
+            if (operand == null) {
+                sc.reset(mark);
+                break;
+            }
+            shift(context, expression, operand);
+        }
+        return reduce(context, expression);
+    }
+
+    /**
+     * Tries each of the grammar rule constructors of
+     * {@link SkeletalClassParser#cls}, other than its infix constructor, in
+     * order of priority until one accepts the input
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @return the created abstract syntax tree or null if no rule accepts
+     */
+    private Object parseOperand(ParseContext context) throws IOException,
+            InvocationTargetException, InstantiationException {
+        enter(context);
+        for (int i = 0; i < alternatives.length; ++i) {
+            if (!isViable(context.getScanner(), i))
                 continue;
+            Object[] parsed = alternatives[i].rule.parseArguments(context);
+            if (parsed != null)
+                return accept(context, i, parsed);
+        }
+        return acceptEmpty(context);
+    }
+
+    // The steps of parsing this rule, shared with ExplicitStackParser
+
+    /**
+     * Gets the grammar rule a {@link Parser} parses
+     *
+     * @param parser the {@link Parser}
+     * @return the grammar rule or null if the {@link Parser} is not a
+     * grammar rule
+     */
+    static SkeletalClassParser asRule(Parser parser) {
+        if (parser instanceof SkeletalClassParserReference)
+            parser = ((SkeletalClassParserReference)parser).resolve();
+        return parser instanceof SkeletalClassParser ?
+                (SkeletalClassParser)parser :
+                null;
+    }
+
+    /**
+     * Marks this rule as left recursive
+     *
+     * @param cycle the left recursive rules this rule is in a cycle with
+     */
+    void setCycle(List<SkeletalClassParser> cycle) {
+        this.cycle = cycle;
+    }
+
+    /**
+     * @return true if this rule is left recursive
+     */
+    boolean isLeftRecursive() {
+        return cycle != null;
+    }
+
+    /**
+     * Checks if another rule in the same cycle is growing its result at a
+     * position, in which case this rule is parsed without remembering its
+     * result, since the result changes as the other rule grows
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @param start the position after skipping
+     * @return true if this rule is involved in growing another rule
+     */
+    boolean isInvolved(ParseContext context, int start) {
+        if (cycle == null)
+            return false;
+        Parser head = context.getGrowing(start);
+        return head != this &&
+                head instanceof SkeletalClassParser &&
+                ((SkeletalClassParser)head).cycle == cycle;
+    }
+
+    /**
+     * Starts growing the result of this left recursive rule from a failed
+     * seed. The caller stops growing with
+     * {@link ParseContext#stopGrowing()}.
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @param start the position after skipping
+     * @return the remembered seed
+     */
+    Memo seed(ParseContext context, int start) {
+        Memo memo = remember(context, start, null, start);
+        context.startGrowing(this, start);
+        return memo;
+    }
+
+    /**
+     * Checks if parsing a left recursive rule again got a longer result
+     *
+     * @param memo the longest result so far
+     * @param AST the new result or null
+     * @param end the position after the new result
+     * @return true if the new result should be remembered and grown
+     */
+    static boolean grew(Memo memo, Object AST, int end) {
+        return AST != null && (memo.AST == null || end > memo.end);
+    }
+
+    /**
+     * Gets the result of parsing this rule which was remembered at a
+     * position when packrat parsing is enabled
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @param start the position after skipping
+     * @return the remembered result or null if there is none
+     */
+    Memo recall(ParseContext context, int start) {
+        Memo memo = context.<Memo>getMemoTable(this).get(start);
+        if (memo != null && Resources.instance.debugEnabled())
+            System.out.println("Reusing parse of " + name + " rule at " +
+                    start);
+        return memo;
+    }
+
+    /**
+     * Remembers the result of parsing this rule at a position
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @param start the position after skipping
+     * @param AST the created abstract syntax tree or null
+     * @param end the position after the accepted input
+     * @return the remembered result
+     */
+    Memo remember(ParseContext context, int start, Object AST, int end) {
+        Memo memo = new Memo(AST, end);
+        context.<Memo>getMemoTable(this).put(start, memo);
+        return memo;
+    }
+
+    /**
+     * Runs the hooks which come before trying any alternatives
+     *
+     * @throws InvocationTargetException when a hook throws an exception
+     */
+    void enter() throws InvocationTargetException {
+        if (Resources.instance.debugEnabled())
+            System.out.println("Trying to parse: " + name + " rule");
+        beforeHooks();
+    }
+
+    /**
+     * Runs the hooks which come before trying any alternatives, unless the
+     * abstract syntax tree is being recorded, in which case they run as
+     * the accepted rule is replayed instead
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @throws InvocationTargetException when a hook throws an exception
+     * @see ParseContext#isDeferring()
+     */
+    void enter(ParseContext context) throws InvocationTargetException {
+        if (!context.isDeferring())
+            enter();
+        else if (Resources.instance.debugEnabled())
+            System.out.println("Trying to parse: " + name + " rule");
+    }
+
+    /**
+     * Runs the {@link RunBeforeFirstInit} hooks the first time, then the
+     * {@link RunBeforeEachInit} hooks
+     */
+    private void beforeHooks() throws InvocationTargetException {
+        if (!ranOnce) {
+            synchronized (this) {
+                if (!ranOnce) {
+                    runOnce.accept(null);
+                    ranOnce = true;
+                }
             }
-            acceptedRulesStack.push(rule);
-            parsed = Stream.of(parsed)
-                           .map( elm ->
-                                   elm instanceof Token ?
-                                        ((Token)elm).getValue() :
-                                        elm )
-                           .toArray();
-            Object AST = null;
-            try {
-                if (Resources.instance.debugEnabled())
-                    System.out.println("Accepted " + name +
-                            " rule with sequence: " + rule );
-                AST = ctrs[i].newInstance(parsed);
-            } catch (IllegalAccessException ignored) {}
-            runAfter.accept(AST);
-            return AST;
         }
-        if (emptyIndex != -1) {
-            acceptedRulesStack.push(EMPTY);
-            Object AST = null;
-            try {
-                if (Resources.instance.debugEnabled())
-                    System.out.println("Accepted " + name +
-                            " rule with sequence: " + EMPTY );
-                AST = ctrs[emptyIndex].newInstance();
-            } catch (IllegalAccessException ignored) {}
-            runAfter.accept(AST);
-            return AST;
+        beforeEach.accept(null);
+    }
+
+    /**
+     * Gives this rule the FIRST sets of its alternatives
+     *
+     * @param firstIds the ids of the tokens each alternative can start with
+     */
+    void setFirstIds(int[][] firstIds) {
+        this.firstIds = firstIds;
+    }
+
+    /**
+     * Sets whether this rule can accept the empty input
+     *
+     * @param nullable true if it can
+     */
+    void setNullable(boolean nullable) {
+        this.nullable = nullable;
+    }
+
+    /**
+     * @return true if this rule can accept the empty input
+     */
+    boolean isNullable() {
+        return nullable || acceptsEmpty();
+    }
+
+    /**
+     * Checks if an alternative can accept the input by looking at the next
+     * token, without moving the scanner
+     *
+     * @param sc the {@link Scanner} of the input being parsed
+     * @param index the index of the alternative in order of priority
+     * @return false if the alternative can't accept the input
+     * @throws IOException when the scanner can't read the input
+     */
+    boolean isViable(Scanner sc, int index) throws IOException {
+        if (firstIds == null || firstIds[index] == null)
+            return true;
+        int mark = sc.mark();
+        sc.skip();
+        try {
+            for (int id : firstIds[index])
+                if (sc.hasNextToken(id))
+                    return true;
+            return false;
+        } finally {
+            sc.reset(mark);
+        }
+    }
+
+    /**
+     * @return true if this rule has a constructor without parameters
+     */
+    boolean acceptsEmpty() {
+        return emptyConstructor != null;
+    }
+
+    /**
+     * @return the amount of alternatives which have parameters
+     */
+    int alternativeCount() {
+        return alternatives.length;
+    }
+
+    /**
+     * Gets the {@link SequentialParser} of an alternative
+     *
+     * @param index the index of the alternative in order of priority
+     * @return the {@link SequentialParser}
+     */
+    SequentialParser getAlternative(int index) {
+        return alternatives[index].rule;
+    }
+
+    /**
+     * Creates the abstract syntax tree of an accepted alternative and runs
+     * the {@link RunAfterEachInit} hooks on it
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @param index the index of the alternative in order of priority
+     * @param parsed the argument buffer the alternative was parsed into,
+     *               which is released
+     * @return the created abstract syntax tree
+     */
+    Object accept(ParseContext context, int index, Object[] parsed)
+            throws InvocationTargetException, InstantiationException {
+        Object AST;
+        try {
+            if (context.isDeferring())
+                return new Reduction(this, index, parsed.clone(),
+                        replayEnter,
+                        values -> afterEach(construct(index, values)));
+            AST = construct(index, parsed);
+        } finally {
+            alternatives[index].rule.release(context);
+        }
+        runAfter.accept(AST);
+        return AST;
+    }
+
+    /**
+     * Creates the abstract syntax tree of an accepted alternative without
+     * running the {@link RunAfterEachInit} hooks
+     *
+     * @param index the index of the alternative in order of priority
+     * @param parsed the parsed value of each parameter, where tokens are
+     *               replaced by their text
+     * @return the created abstract syntax tree
+     */
+    Object construct(int index, Object[] parsed)
+            throws InvocationTargetException, InstantiationException {
+        Alternative alternative = alternatives[index];
+        for (int i = 0; i < parsed.length; ++i)
+            if (parsed[i] instanceof Token)
+                parsed[i] = ((Token)parsed[i]).getValue();
+        if (Resources.instance.debugEnabled())
+            System.out.println("Accepted " + name +
+                    " rule with sequence: " + alternative.rule );
+        return alternative.constructor.newInstance(parsed);
+    }
+
+    /**
+     * Runs the {@link RunAfterEachInit} hooks on a created abstract syntax
+     * tree
+     *
+     * @param AST the abstract syntax tree
+     * @return the abstract syntax tree
+     */
+    Object afterEach(Object AST) throws InvocationTargetException {
+        runAfter.accept(AST);
+        return AST;
+    }
+
+    /**
+     * Accepts the empty input, once no other alternative accepted, when this
+     * rule has a constructor without parameters
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @return the created abstract syntax tree or null if this rule doesn't
+     * accept the empty input
+     */
+    Object acceptEmpty(ParseContext context)
+            throws InvocationTargetException, InstantiationException {
+        if (emptyConstructor != null) {
+            if (context.isDeferring())
+                return new Reduction(this, Reduction.EMPTY, NO_ARGUMENTS,
+                        replayEnter, values -> constructEmpty());
+            return constructEmpty();
         }
         if (Resources.instance.debugEnabled())
             System.out.println("Failed to accept " + name + " rule");
         return null;
     }
 
-    @Override
-    public void returnTokens(Scanner sc) {
-//	/*DEBUG*/			System.out.println(name + " returning tokens");
-        Parser rule = acceptedRulesStack.empty() ?
-                null : acceptedRulesStack.pop();
-        if (rule == null)
+    /**
+     * Creates the abstract syntax tree of the empty input with the
+     * constructor without parameters and runs the {@link RunAfterEachInit}
+     * hooks on it
+     *
+     * @return the created abstract syntax tree
+     */
+    Object constructEmpty() throws InvocationTargetException,
+            InstantiationException {
+        if (Resources.instance.debugEnabled())
+            System.out.println("Accepted " + name +
+                    " rule with sequence: " + EMPTY );
+        Object AST = emptyConstructor.newInstance(NO_ARGUMENTS);
+        runAfter.accept(AST);
+        return AST;
+    }
+
+    /**
+     * The operands and operators of an expression parsed by precedence
+     * climbing, where operators wait on a stack until an operator which
+     * binds less tightly, or the end of the expression, is found
+     */
+    static final class Expression {
+        private final ArrayList<Object> operands = new ArrayList<>();
+        private final ArrayList<Token> operators = new ArrayList<>();
+        private Token operator;
+
+        Expression(Object operand) {
+            operands.add(operand);
+        }
+    }
+
+    /**
+     * @return true if this rule has an infix constructor
+     */
+    boolean hasOperators() {
+        return infix != null;
+    }
+
+    /**
+     * Parses the operator after the last operand of an expression. The
+     * caller moves the scanner back when it isn't found.
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @param expression the expression
+     * @return true if an operator is found
+     */
+    boolean operator(ParseContext context, Expression expression)
+            throws IOException, InvocationTargetException,
+            InstantiationException {
+        expression.operator = (Token)operators.parse(context);
+        return expression.operator != null;
+    }
+
+    /**
+     * Adds an operand after the operator found by
+     * {@link SkeletalClassParser#operator(ParseContext, Expression)},
+     * first combining the operands of the operators before it which bind at
+     * least as tightly
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @param expression the expression
+     * @param operand the operand after the operator
+     */
+    void shift(ParseContext context, Expression expression, Object operand)
+            throws InvocationTargetException, InstantiationException {
+        Token operator = expression.operator;
+        int precedence = operators.precedence(operator);
+        boolean left = operators.isLeftAssociative(operator);
+        ArrayList<Token> stack = expression.operators;
+        while (!stack.isEmpty()) {
+            int top = operators.precedence(stack.get(stack.size() - 1));
+            if (top < precedence || (top == precedence && !left))
+                break;
+            combine(context, expression);
+        }
+        stack.add(operator);
+        expression.operands.add(operand);
+        expression.operator = null;
+    }
+
+    /**
+     * Combines the remaining operands of an expression
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @param expression the expression
+     * @return the created abstract syntax tree of the whole expression
+     */
+    Object reduce(ParseContext context, Expression expression)
+            throws InvocationTargetException, InstantiationException {
+        while (!expression.operators.isEmpty())
+            combine(context, expression);
+        return expression.operands.get(0);
+    }
+
+    /**
+     * Creates the abstract syntax tree of the last operator of an expression
+     * and its two operands with the infix constructor
+     */
+    private void combine(ParseContext context, Expression expression)
+            throws InvocationTargetException, InstantiationException {
+        ArrayList<Object> operands = expression.operands;
+        if (context.isDeferring()) {
+            Object right = operands.remove(operands.size() - 1);
+            Object operator = expression.operators
+                    .remove(expression.operators.size() - 1);
+            Object left = operands.remove(operands.size() - 1);
+            operands.add(new Reduction(this, Reduction.INFIX,
+                    new Object[] { left, operator, right }, null,
+                    values -> afterEach(constructInfix(values))));
             return;
-        rule.returnTokens(sc);
+        }
+        Object[] parsed = context.acquireBuffer(3);
+        Object AST;
+        try {
+            parsed[2] = operands.remove(operands.size() - 1);
+            parsed[1] = expression.operators
+                    .remove(expression.operators.size() - 1);
+            parsed[0] = operands.remove(operands.size() - 1);
+            AST = constructInfix(parsed);
+        } finally {
+            context.releaseBuffer(3);
+        }
+        runAfter.accept(AST);
+        operands.add(AST);
+    }
+
+    /**
+     * Creates the abstract syntax tree of an operator and its two operands
+     * with the infix constructor without running the
+     * {@link RunAfterEachInit} hooks
+     *
+     * @param parsed the left operand, the operator's {@link Token} and the
+     *               right operand
+     * @return the created abstract syntax tree
+     */
+    Object constructInfix(Object[] parsed)
+            throws InvocationTargetException, InstantiationException {
+        parsed[1] = ((Token)parsed[1]).getValue();
+        if (Resources.instance.debugEnabled())
+            System.out.println("Accepted " + name +
+                    " rule with operator: " + parsed[1]);
+        return infix.constructor.newInstance(parsed);
+    }
+
+    /**
+     * @return the {@link OperatorParser} of the infix constructor or null
+     */
+    OperatorParser getOperators() {
+        return operators;
     }
 
     @Override
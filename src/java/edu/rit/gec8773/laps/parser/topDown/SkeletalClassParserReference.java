@@ -1,6 +1,7 @@
 package edu.rit.gec8773.laps.parser.topDown;
 
-import edu.rit.gec8773.laps.scanner.Scanner;
+import edu.rit.gec8773.laps.parser.ParseContext;
+import edu.rit.gec8773.laps.parser.Parser;
 import edu.rit.gec8773.laps.resources.Resources;
 
 import java.io.IOException;
@@ -12,6 +13,12 @@ public class SkeletalClassParserReference extends TopDownParser {
     private final Class<?> cls;
     private final String name;
 
+    /**
+     * The referenced {@link Parser}, found the first time it's needed since
+     * it isn't built yet when the reference is created
+     */
+    private transient volatile Parser parser;
+
     SkeletalClassParserReference(Class<?> cls) throws InvocationTargetException {
         super(new Object[0]);
         this.cls = cls;
@@ -26,20 +33,27 @@ public class SkeletalClassParserReference extends TopDownParser {
         return name;
     }
 
-    @Override
-    public void returnTokens(Scanner sc) {
-        Resources.instance.getParser(cls).returnTokens(sc);
-    }
-
     @Override
     public Type getStartingToken() {
         return cls;
     }
 
     @Override
-    public Object parse(Scanner sc) throws IOException,
+    public Object parse(ParseContext context) throws IOException,
             InvocationTargetException, InstantiationException {
 //					System.out.println(name + " closure");
-        return Resources.instance.getParser(cls).parse(sc);
+        return resolve().parse(context);
+    }
+
+    /**
+     * Gets the referenced {@link Parser}
+     *
+     * @return the {@link Parser} of the referenced grammar rule
+     */
+    Parser resolve() {
+        Parser resolved = parser;
+        if (resolved == null)
+            parser = resolved = Resources.instance.getParser(cls);
+        return resolved;
     }
 }
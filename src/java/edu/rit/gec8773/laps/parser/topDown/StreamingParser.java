@@ -0,0 +1,82 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.parser.ParseContext;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.cst.ParseListener;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+
+/**
+ * {@link StreamingParser} parses with the same grammar as a
+ * {@link SkeletalClassParser}, with the heap stack of an
+ * {@link ExplicitStackParser}, but gives the shape of the parse to a
+ * {@link ParseListener} as events instead of creating any tree. No grammar
+ * rule constructor or hook runs. The events of each element of a list of
+ * grammar rules are given as soon as it's accepted and then forgotten, and
+ * the {@link edu.rit.gec8773.laps.scanner.Scanner} releases the input
+ * before it, so an input which is a long list, such as a log, is parsed in
+ * memory proportional to how deeply it nests rather than to its length.
+ * Once an element is given, the parse can't go back before it, so an input
+ * whose grammar needs to give up on an alternative after a list in it isn't
+ * accepted, after some of its events were given.
+ * <p>
+ * Only a list parameter of a grammar rule constructor, such as
+ * {@code List<Entry>}, is given element by element. A list written as a
+ * right recursive rule, such as numlist2's {@code RestOfNumbers}, nests once
+ * for each element, so its events are only given once the whole list is
+ * accepted, and it's kept in memory proportional to its length until then.
+ *
+ * @see ExplicitStackParser#stream(ParseContext, ParseListener)
+ */
+public class StreamingParser implements Parser {
+
+    private final Parser root;
+    private final ParseListener listener;
+    private final ExplicitStackParser parser;
+
+    /**
+     * Class constructor
+     *
+     * @param root the {@link Parser} of the top grammar rule
+     * @param listener the {@link ParseListener} given the events of each
+     *                 parse
+     * @throws InvocationTargetException when the root isn't a grammar rule
+     */
+    public StreamingParser(Parser root, ParseListener listener)
+            throws InvocationTargetException {
+        if (SkeletalClassParser.asRule(root) == null)
+            throw new InvocationTargetException(new Exception(root +
+                    " is not a grammar rule"));
+        this.root = root;
+        this.listener = listener;
+        parser = new ExplicitStackParser(root);
+    }
+
+    /**
+     * Parses the input, giving its events to the {@link ParseListener}
+     *
+     * @param context the {@link ParseContext} of the input being parsed
+     * @return the {@link ParseListener} or null if the input isn't accepted
+     * @throws IllegalStateException when the {@link ParseContext} is
+     * already in use by a parse which creates an abstract syntax tree
+     */
+    @Override
+    public Object parse(ParseContext context) throws IOException,
+            InvocationTargetException, InstantiationException {
+        if (!context.startDeferring())
+            throw new IllegalStateException("the parse context is already " +
+                    "deferring an abstract syntax tree");
+        try {
+            return parser.stream(context, listener) ? listener : null;
+        } finally {
+            context.stopDeferring();
+        }
+    }
+
+    @Override
+    public Type getStartingToken() {
+        return root.getStartingToken();
+    }
+}
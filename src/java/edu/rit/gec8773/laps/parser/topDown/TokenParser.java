@@ -1,18 +1,17 @@
 package edu.rit.gec8773.laps.parser.topDown;
 
+import edu.rit.gec8773.laps.parser.ParseContext;
 import edu.rit.gec8773.laps.scanner.Scanner;
 import edu.rit.gec8773.laps.scanner.Token;
 import edu.rit.gec8773.laps.resources.Resources;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.util.Stack;
-import java.util.regex.Pattern;
 
 public class TokenParser extends TopDownParser {
 
     private final String name;
-    private final Pattern pattern;
+    private final int id;
 
     public TokenParser(Token token) throws InvocationTargetException {
         super(new Object[0]);
@@ -21,43 +20,42 @@ public class TokenParser extends TopDownParser {
                 .append(token.getName().toUpperCase())
                 .append(">");
         name = sb.toString();
-        pattern = token.getRegex();
+        int tokenId = token.getId();
+        if (tokenId == -1)
+            tokenId = Resources.instance.getTokenId(token.getRegex());
+        if (tokenId == -1)
+            throw new InvocationTargetException(new Exception(
+                    token.getName() + " is not a defined token"));
+        id = tokenId;
     }
 
-    private final Stack<Token> tokStack = new Stack<>();
-    // TODO make use of callstack instead
-
     @Override
-    public Object parse(Scanner sc) throws IOException {
+    public Object parse(ParseContext context) throws IOException {
+        Scanner sc = context.getScanner();
         sc.skip();
         if (Resources.instance.debugEnabled())
             System.out.print(name + " token = ");
-        if (!sc.hasNextToken(pattern)) {
+        if (!sc.hasNextToken(id)) {
             if (Resources.instance.debugEnabled())
                 System.out.println("null");
             return null;
         }
-        Token tok = sc.nextToken(pattern);
-        String val = tok.getValue();
+        Token tok = sc.nextToken(id);
         if (Resources.instance.debugEnabled())
-            System.out.println('"' + val + '"');
-        tokStack.push(tok);
+            System.out.println('"' + tok.getValue() + '"');
         return tok;
     }
 
-    @Override
-    public void returnTokens(Scanner sc) {
-        Token tok = tokStack.empty() ?
-                null : tokStack.pop();
-        if (tok == null)
-            return;
-//	/*DEBUG*/		System.out.println("Returning: " + tok.getValue());
-        sc.unreadToken(tok);
+    /**
+     * @return the id of the token type this parser accepts
+     */
+    int getId() {
+        return id;
     }
 
     @Override
     public Token getStartingToken() {
-        return Resources.instance.getToken(pattern);
+        return Resources.instance.getToken(id);
     }
 
     @Override
@@ -1,18 +1,27 @@
 package edu.rit.gec8773.laps.parser.topDown;
 
+import edu.rit.gec8773.laps.annotation.Infix;
+import edu.rit.gec8773.laps.annotation.Operator;
 import edu.rit.gec8773.laps.util.AnnotationUtils;
 import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.grammar.Grammar;
 import edu.rit.gec8773.laps.resources.Resources;
 import edu.rit.gec8773.laps.scanner.Scanner;
 import edu.rit.gec8773.laps.scanner.Token;
 import edu.rit.gec8773.laps.util.BNFWriter;
 import edu.rit.gec8773.laps.util.TokenCollector;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * {@link TopDownParser} builds parsing graphs (allowing cycles) of type
@@ -43,7 +52,8 @@ public abstract class TopDownParser implements Parser, BNFWriter.Writable {
 	 * Collects all the potential rules and recursively builds the parser tree.
 	 * A list of potential rules include:
 	 * 	<ul>
-	 * 	 <li>{@link Parameter} describing a token or another grammar class</li>
+	 * 	 <li>{@link Parameter} describing a token or another grammar class, or
+	 * 	 a {@link List}, array or {@link Optional} of them</li>
 	 * 	 <li>{@link Parser} containing a constructed parser</li>
 	 * 	 <li>{@link Token}</li>
 	 * 	 <li>{@link Class} representing another grammar rule</li>
@@ -57,13 +67,19 @@ public abstract class TopDownParser implements Parser, BNFWriter.Writable {
 		for (Object rule : rules) {
 			if (rule instanceof Parameter) {
 				Parameter param = (Parameter)rule;
-				if (param.getType().equals(String.class)) {
-					String name = param.getName();
-					rule = Resources.instance.getToken(name);
-					if (rule == null)
-						rule = name;
-				} else
-					rule = param.getType();
+				Class<?> type = param.getType();
+				if (type.equals(List.class) || type.isArray())
+					rule = TopDownParser.repetition(param);
+				else if (type.equals(Optional.class))
+					rule = TopDownParser.optional(param);
+				else if (AnnotationUtils.separator(param) != null)
+					throw new InvocationTargetException(
+							new Exception(param + " of " +
+									param.getDeclaringExecutable() +
+									" has a separator but isn't a List or " +
+									"an array"));
+				else
+					rule = element(param, type);
 			}
 			if (rule instanceof TopDownParser) {
 				TopDownParser topDownParser = (TopDownParser) rule;
@@ -145,16 +161,139 @@ public abstract class TopDownParser implements Parser, BNFWriter.Writable {
 		return new TokenParser(token);
 	}
 
+	/**
+	 * Creates a parser for an {@link Infix} constructor, which accepts its
+	 * class, one of the {@link Operator} tokens its class declares, and its
+	 * class again
+	 * @param cls the class declaring the constructor
+	 * @param ctr the constructor
+	 * @return the parser
+	 * @throws InvocationTargetException when the constructor doesn't take two
+	 * operands and an operator or the class declares no operators
+	 */
+	static Parser infix(Class<?> cls, Constructor<?> ctr)
+			throws InvocationTargetException {
+		Class<?>[] types = ctr.getParameterTypes();
+		if (types.length != 3 || !types[0].isAssignableFrom(cls) ||
+				!types[1].equals(String.class) ||
+				!types[2].isAssignableFrom(cls))
+			throw new InvocationTargetException(
+					new Exception(ctr + " must take the left operand, the " +
+							"operator as a String, and the right operand to " +
+							"be an infix constructor"));
+		Map<String, Operator> operators = AnnotationUtils.getOperators(cls);
+		if (operators.isEmpty())
+			throw new InvocationTargetException(
+					new Exception(cls + " has an infix constructor but " +
+							"declares no operator tokens"));
+		return TopDownParser.seq(cls, new OperatorParser(operators), cls);
+	}
+
+	/**
+	 * Creates a parser which accepts a grammar rule constructor parameter
+	 * typed as a {@link List} or an array, accepting its elements zero or
+	 * more times, with the token named by its
+	 * {@link edu.rit.gec8773.laps.annotation.Separator} between them
+	 * @param param the parameter
+	 * @return the parser
+	 * @throws InvocationTargetException when the element type or the
+	 * separator isn't defined
+	 */
+	private static Parser repetition(Parameter param)
+			throws InvocationTargetException {
+		Class<?> type = param.getType();
+		Class<?> elementType = type.isArray() ?
+				type.getComponentType() :
+				typeArgument(param);
+		Object separator = AnnotationUtils.separator(param);
+		if (separator != null) {
+			Token token = Resources.instance.getToken((String)separator);
+			if (token != null)
+				separator = token;
+		}
+		return new RepetitionParser(element(param, elementType), separator,
+				type.isArray() ? elementType : null);
+	}
+
+	/**
+	 * Creates a parser which accepts a grammar rule constructor parameter
+	 * typed as an {@link Optional}, accepting its element zero or one times
+	 * @param param the parameter
+	 * @return the parser
+	 * @throws InvocationTargetException when the element type isn't defined
+	 */
+	private static Parser optional(Parameter param)
+			throws InvocationTargetException {
+		return new OptionalParser(element(param, typeArgument(param)));
+	}
+
+	/**
+	 * Gets the rule a grammar rule constructor parameter, or one of its
+	 * elements, accepts: the token named by the parameter for a
+	 * {@link String}, or else the grammar rule of the type
+	 * @param param the parameter
+	 * @param type the type of the parameter or its elements
+	 * @return the {@link Token}, the {@link Class} or the name of the
+	 * missing token
+	 */
+	private static Object element(Parameter param, Class<?> type) {
+		if (!type.equals(String.class))
+			return type;
+		String name = param.getName();
+		Token token = Resources.instance.getToken(name);
+		return token == null ? name : token;
+	}
+
+	/**
+	 * Gets the type of the elements of a {@link List} or {@link Optional}
+	 * grammar rule constructor parameter
+	 * @param param the parameter
+	 * @return the type of the elements
+	 * @throws InvocationTargetException when the parameter's type has no
+	 * class as its type argument
+	 */
+	private static Class<?> typeArgument(Parameter param)
+			throws InvocationTargetException {
+		Type type = param.getParameterizedType();
+		if (type instanceof ParameterizedType) {
+			Type argument =
+					((ParameterizedType)type).getActualTypeArguments()[0];
+			if (argument instanceof Class<?>)
+				return (Class<?>)argument;
+		}
+		throw new InvocationTargetException(
+				new Exception(param + " of " + param.getDeclaringExecutable() +
+						" must name the class of its elements"));
+	}
+
+	/**
+	 * Writes the grammar a parser built by
+	 * {@link TopDownParser#grammarRule(Class)} accepts as a context free
+	 * {@link Grammar}, whose productions create the same abstract syntax
+	 * trees and run the same hooks, for engines which parse from tables
+	 * @param head the parser of the grammar rule the input is parsed as
+	 * @return the {@link Grammar}
+	 * @throws InvocationTargetException when the grammar can't be written as
+	 * a context free grammar
+	 */
+	public static Grammar toGrammar(Parser head) throws InvocationTargetException {
+		return GrammarBuilder.build(head);
+	}
+
 	private static final HashSet<Class<?>> processing = new HashSet<>();
 
 	/**
 	 * Creates a parser from the passed in Class using the class's constructors
-	 * as acceptable rules for parsing.
+	 * as acceptable rules for parsing. Rules which are left recursive, with a
+	 * constructor starting with the rule itself, are found once the whole
+	 * grammar is built. Only one grammar is built at a time,
+	 * and the parser doesn't change once built, so it can parse many inputs
+	 * at once.
 	 * @param cls the class used as the skeleton
 	 * @return the parser constructed
 	 * @throws InvocationTargetException when the user causes an exception
 	 */
-	public static Parser grammarRule(Class<?> cls) throws InvocationTargetException {
+	public static synchronized Parser grammarRule(Class<?> cls) throws InvocationTargetException {
 		if (Resources.instance.hasParser(cls))
 			return Resources.instance.getParser(cls);
 		boolean isHead = processing.size() == 0;
@@ -166,9 +305,16 @@ public abstract class TopDownParser implements Parser, BNFWriter.Writable {
 		if (processing.add(cls)) {
 			TokenCollector.collect(cls);
 			Parser result = new SkeletalClassParser(cls, isHead);
-			if (isHead)
-				processing.clear();
 			Resources.instance.addParser(cls, result);
+			if (isHead) {
+				ArrayList<SkeletalClassParser> rules = new ArrayList<>();
+				for (Class<?> built : processing)
+					rules.add((SkeletalClassParser)
+							Resources.instance.getParser(built));
+				FirstSets.mark(rules);
+				LeftRecursion.mark(rules);
+				processing.clear();
+			}
 			return result;
 		} else
 			return new SkeletalClassParserReference(cls);
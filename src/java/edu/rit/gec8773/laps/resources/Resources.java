@@ -2,11 +2,13 @@ package edu.rit.gec8773.laps.resources;
 
 import edu.rit.gec8773.laps.parser.Parser;
 import edu.rit.gec8773.laps.scanner.Token;
+import edu.rit.gec8773.laps.scanner.dfa.DFALexer;
 
 import java.io.*;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Set;
@@ -128,6 +130,82 @@ public class Resources implements Serializable {
 		this.debug = true;
 	}
 
+	private boolean memoize = false;
+
+	public boolean memoizationEnabled() {
+		return memoize;
+	}
+
+	public void enableMemoization() {
+		this.memoize = true;
+	}
+
+	public void disableMemoization() {
+		this.memoize = false;
+	}
+
+	private boolean dfaLexer = false;
+
+	public boolean dfaLexerEnabled() {
+		return dfaLexer;
+	}
+
+	public void enableDFALexer() {
+		this.dfaLexer = true;
+	}
+
+	private boolean methodHandles = false;
+
+	public boolean methodHandlesEnabled() {
+		return methodHandles;
+	}
+
+	public void enableMethodHandles() {
+		this.methodHandles = true;
+	}
+
+	public void disableMethodHandles() {
+		this.methodHandles = false;
+	}
+
+	private boolean tokenArray = false;
+
+	public boolean tokenArrayEnabled() {
+		return tokenArray;
+	}
+
+	public void enableTokenArray() {
+		this.tokenArray = true;
+	}
+
+	private boolean ambiguousRules = false;
+
+	public boolean ambiguousRulesEnabled() {
+		return ambiguousRules;
+	}
+
+	public void enableAmbiguousRules() {
+		this.ambiguousRules = true;
+	}
+
+	public void disableAmbiguousRules() {
+		this.ambiguousRules = false;
+	}
+
+	private boolean deferredConstruction = false;
+
+	public boolean deferredConstructionEnabled() {
+		return deferredConstruction;
+	}
+
+	public void enableDeferredConstruction() {
+		this.deferredConstruction = true;
+	}
+
+	public void disableDeferredConstruction() {
+		this.deferredConstruction = false;
+	}
+
 	private TokenStorage tokenStorage = new TokenStorage();
 
 	public boolean hasToken(Token token) {
@@ -150,10 +228,26 @@ public class Resources implements Serializable {
 		return tokenStorage.getToken(name);
 	}
 
+	public Token getToken(int id) {
+		return tokenStorage.getToken(id);
+	}
+
+	public int getTokenId(Pattern pattern) {
+		return tokenStorage.getTokenId(pattern);
+	}
+
+	public int getTokenCount() {
+		return tokenStorage.getTokenCount();
+	}
+
 	public Set<Pattern> getPatterns() {
 		return tokenStorage.getPatterns();
 	}
 
+	public List<Pattern> getTokenPatterns() {
+		return tokenStorage.getTokenPatterns();
+	}
+
 	public boolean addToken(Token token) {
 		return tokenStorage.addToken(token);
 	}
@@ -178,6 +272,22 @@ public class Resources implements Serializable {
 		return tokenStorage.getSkips();
 	}
 
+	public List<Pattern> getSkipList() {
+		return tokenStorage.getSkipList();
+	}
+
+	public Pattern getSkipPattern() {
+		return tokenStorage.getSkipPattern();
+	}
+
+	public DFALexer getLexer() {
+		return tokenStorage.getLexer();
+	}
+
+	public int getSkipStart() {
+		return tokenStorage.getSkipStart();
+	}
+
 	private ParserStorage parserStorage = new ParserStorage();
 
 	public Parser getParser(Class<?> c) {
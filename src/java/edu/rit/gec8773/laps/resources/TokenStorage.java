@@ -1,18 +1,34 @@
 package edu.rit.gec8773.laps.resources;
 
 import edu.rit.gec8773.laps.scanner.Token;
+import edu.rit.gec8773.laps.scanner.dfa.DFALexer;
 
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 public class TokenStorage implements Serializable {
 
-    private final HashSet<Token> tokens = new HashSet<>();
-    private final HashSet<Pattern> skips = new HashSet<>();
+    private final LinkedHashSet<Token> tokens = new LinkedHashSet<>();
+
+    /**
+     * Every token indexed by its token type id
+     */
+    private final ArrayList<Token> tokenList = new ArrayList<>();
+    private final LinkedHashSet<Pattern> skips = new LinkedHashSet<>();
+
+    /**
+     * Caches built the first time they're needed, which may happen in many
+     * parses at once, so each one is written once it's complete and read
+     * once by each call. The combined skip pattern is empty when the skip
+     * patterns can't be combined.
+     */
+    private transient volatile DFALexer lexer;
+    private transient volatile List<Pattern> tokenPatterns;
+    private transient volatile List<Pattern> skipList;
+    private transient volatile Optional<Pattern> skipPattern;
     private final HashMap<Pattern, Token> patternMap = new HashMap<>();
     private final HashMap<String, Token> nameMap = new HashMap<>();
 
@@ -36,11 +52,67 @@ public class TokenStorage implements Serializable {
         return nameMap.get(name.toUpperCase());
     }
 
+    /**
+     * Gets a token by its token type id
+     *
+     * @param id the token type id
+     * @return the token
+     */
+    public Token getToken(int id) {
+        return tokenList.get(id);
+    }
+
+    /**
+     * Gets the token type id of a pattern
+     *
+     * @param pattern the pattern
+     * @return the id or -1 if no token has the pattern
+     */
+    public int getTokenId(Pattern pattern) {
+        Token token = patternMap.get(pattern);
+        return token == null ? -1 : token.getId();
+    }
+
+    /**
+     * Gets the amount of tokens, which is one more than the largest token
+     * type id
+     *
+     * @return the amount of tokens
+     */
+    public int getTokenCount() {
+        return tokenList.size();
+    }
+
     public Set<Pattern> getPatterns() {
         return Set.copyOf(patternMap.keySet());
     }
 
+    /**
+     * Gets the pattern of every token in the order the tokens were added,
+     * so each pattern's index is its token type id
+     *
+     * @return the patterns
+     */
+    public List<Pattern> getTokenPatterns() {
+        List<Pattern> tokenPatterns = this.tokenPatterns;
+        if (tokenPatterns == null) {
+            List<Pattern> patterns = new ArrayList<>();
+            tokens.forEach(token -> patterns.add(token.getRegex()));
+            tokenPatterns = Collections.unmodifiableList(patterns);
+            this.tokenPatterns = tokenPatterns;
+        }
+        return tokenPatterns;
+    }
+
+    /**
+     * Adds a copy of a token with the next token type id
+     *
+     * @param token the token
+     * @return false if a token with the same name or pattern was already
+     * added
+     */
     public boolean addToken(Token token) {
+        token = new Token(token, tokenList.size());
         if (!tokens.add(token))
             return false;
         if (hasToken(token.getRegex())) {
@@ -52,8 +124,11 @@ public class TokenStorage implements Serializable {
             return false;
         }
 
+        tokenList.add(token);
         nameMap.put(token.getName().toUpperCase(), token);
         patternMap.put(token.getRegex(), token);
+        lexer = null;
+        tokenPatterns = null;
         return true;
     }
 
@@ -62,7 +137,12 @@ public class TokenStorage implements Serializable {
     }
 
     public boolean addSkip(Pattern pattern) {
-        return skips.add(pattern);
+        if (!skips.add(pattern))
+            return false;
+        lexer = null;
+        skipList = null;
+        skipPattern = null;
+        return true;
     }
 
     public boolean addSkip(String pattern) {
@@ -77,4 +157,85 @@ public class TokenStorage implements Serializable {
         return Set.copyOf(skips);
     }
 
+    /**
+     * Gets every skip pattern in the order they were added without copying
+     * them each time
+     *
+     * @return the skip patterns
+     */
+    public List<Pattern> getSkipList() {
+        List<Pattern> skipList = this.skipList;
+        if (skipList == null) {
+            skipList = List.copyOf(skips);
+            this.skipList = skipList;
+        }
+        return skipList;
+    }
+
+    /**
+     * Gets a single pattern which matches any amount of text matched by the
+     * skip patterns one after another, trying them in the order they were
+     * added. The pattern is compiled once until another skip is added.
+     *
+     * @return the combined pattern or null if the skip patterns can't be
+     * combined, e.g. when they use flags or back references, in which case
+     * {@link TokenStorage#getSkipList()} has to be matched one at a time
+     */
+    public Pattern getSkipPattern() {
+        Optional<Pattern> skipPattern = this.skipPattern;
+        if (skipPattern == null) {
+            skipPattern = Optional.ofNullable(combineSkips());
+            this.skipPattern = skipPattern;
+        }
+        return skipPattern.orElse(null);
+    }
+
+    private Pattern combineSkips() {
+        if (skips.isEmpty())
+            return null;
+        StringJoiner alternatives = new StringJoiner("|", "(?:(?>", "))*+");
+        for (Pattern skip : skips) {
+            String regex = skip.pattern();
+            // group numbers and flags would change meaning once combined
+            if (skip.flags() != 0 ||
+                    regex.matches("(?s).*\\\\(?:[1-9]|k<).*"))
+                return null;
+            alternatives.add("(?:" + regex + ")");
+        }
+        try {
+            return Pattern.compile(alternatives.toString());
+        } catch (PatternSyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets a {@link DFALexer} for every token and skip pattern, compiling it
+     * if the tokens changed since it was last compiled. Token patterns come
+     * first in the order they were added, followed by the skip patterns, so
+     * {@link TokenStorage#getSkipStart()} is the first skip type.
+     *
+     * @return the {@link DFALexer}
+     */
+    public DFALexer getLexer() {
+        DFALexer lexer = this.lexer;
+        if (lexer == null) {
+            List<Pattern> patterns = new ArrayList<>(getTokenPatterns());
+            patterns.addAll(skips);
+            lexer = DFALexer.compile(patterns);
+            this.lexer = lexer;
+        }
+        return lexer;
+    }
+
+    /**
+     * Gets the first token type of {@link TokenStorage#getLexer()} which is
+     * a skip pattern
+     *
+     * @return the type
+     */
+    public int getSkipStart() {
+        return tokens.size();
+    }
+
 }
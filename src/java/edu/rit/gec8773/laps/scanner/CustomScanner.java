@@ -1,24 +1,122 @@
 package edu.rit.gec8773.laps.scanner;
 
 import edu.rit.gec8773.laps.resources.Resources;
+import edu.rit.gec8773.laps.scanner.dfa.DFALexer;
 
 import java.io.*;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
- * An implementation of a {@link Scanner} using {@link LineNumberReader} and
- * {@link Matcher} to handle regular expression matching
+ * An implementation of a {@link Scanner} reading its input in blocks from a
+ * {@link Reader} and using {@link Matcher} to handle regular expression
+ * matching, or a {@link DFALexer} when enabled in {@link Resources}
  *
  * @see Scanner
- * @see LineNumberReader
+ * @see Reader
  * @see Matcher
  */
 public class CustomScanner implements Scanner {
-	private final LineNumberReader lineReader;
-	private final StringBuffer buffer;
+	/**
+	 * The default amount of characters read from the input at a time
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+	private final Reader reader;
+
+	/**
+	 * The input read so far which wasn't released, starting at the position
+	 * {@link CustomScanner#offset}
+	 */
+	private final StringBuilder buffer;
+	private int offset = 0;
+
+	/**
+	 * The input read so far, indexed by position, which {@link Token}s read
+	 * their values from
+	 */
+	private final CharSequence input = new Input();
+
+	/**
+	 * The position given to {@link CustomScanner#release(int)}, before which
+	 * the {@link CustomScanner} can't be reset to. Released input is only
+	 * removed from {@link CustomScanner#buffer} once there's at least a block
+	 * of it and it's at least as long as what's kept, so each character is
+	 * moved a bounded amount of times.
+	 */
+	private int released = 0;
+
+	/**
+	 * Storage for each block of characters read from
+	 * {@link CustomScanner#reader}
+	 */
+	private final char[] block;
+
+	/**
+	 * Set to true once {@link CustomScanner#reader} has no more input
+	 */
+	private boolean endOfInput = false;
+
+	/**
+	 * The start of every line read into {@link CustomScanner#buffer}
+	 */
+	private final LineIndex lines = new LineIndex();
+
+	/**
+	 * A {@link Matcher} over {@link CustomScanner#buffer} for each token
+	 * type id matched so far
+	 */
+	private Matcher[] matchers = new Matcher[0];
+
+	/**
+	 * A {@link Matcher} over {@link CustomScanner#buffer} for each skip
+	 * {@link Pattern} matched so far
+	 */
+	private final HashMap<Pattern, Matcher> skipMatchers = new HashMap<>();
+
+	/**
+	 * The length of the longest match of each token type of a
+	 * {@link DFALexer} at {@link CustomScanner#lexedPosition}
+	 */
+	private int[] lengths = new int[0];
+	private int lexedPosition = -1;
+
+	/**
+	 * The result of the last call to {@link CustomScanner#findEnd(int)},
+	 * reused when the same token type is checked and then read
+	 */
+	private int lastId = -1;
+	private int lastPosition = -1;
+	private int lastEnd;
+
+	/**
+	 * The amount of positions {@link CustomScanner#skip()} remembers
+	 */
+	private static final int SKIP_CACHE_SIZE = 256;
+
+	/**
+	 * Where skipping from a position ends, stored in the slot
+	 * {@code position % SKIP_CACHE_SIZE} so returning to a position after
+	 * backtracking doesn't match the skip patterns again
+	 */
+	private final int[] skipFrom = new int[SKIP_CACHE_SIZE];
+	private final int[] skipTo = new int[SKIP_CACHE_SIZE];
+
+	/**
+	 * The skip patterns {@link CustomScanner#skipFrom} was filled with
+	 */
+	private List<Pattern> skipList;
+
+	/**
+	 * The position of the next unread character. Everything before it has
+	 * already been read, but is kept until it's released so the
+	 * {@link CustomScanner} can move back to it.
+	 */
+	private int position = 0;
 
 	/**
 	 * Class constructor which uses an {@link InputStream} as input
@@ -32,9 +130,23 @@ public class CustomScanner implements Scanner {
 	 * Class constructor which uses a {@link Reader} as input
 	 * @param input the input {@link Reader}
 	 */
-	public  CustomScanner(Reader input) {
-		lineReader = new LineNumberReader(input);
-		buffer = new StringBuffer();
+	public CustomScanner(Reader input) {
+		this(input, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * Class constructor which uses a {@link Reader} as input, reading up to a
+	 * given amount of characters at a time
+	 * @param input the input {@link Reader}
+	 * @param blockSize the maximum amount of characters to read at a time
+	 */
+	public CustomScanner(Reader input, int blockSize) {
+		if (blockSize <= 0)
+			throw new IllegalArgumentException("the block size must be " +
+					"positive");
+		reader = input;
+		block = new char[blockSize];
+		buffer = new StringBuilder();
 	}
 
 	/**
@@ -54,136 +166,392 @@ public class CustomScanner implements Scanner {
 	}
 
 	/**
-	 * Appends more character(s) into {@link CustomScanner#buffer}
+	 * Appends the next block of characters into {@link CustomScanner#buffer}
 	 * @throws IOException
 	 */
 	private void updateBuffer() throws IOException {
-		int charCode = lineReader.read();
-		if (charCode == -1)
+		if (endOfInput)
 			return;
-		buffer.appendCodePoint(charCode);
+		int count = reader.read(block);
+		if (count == -1) {
+			endOfInput = true;
+			return;
+		}
+		lines.addLines(block, count, offset + buffer.length());
+		buffer.append(block, 0, count);
 	}
 
 	/**
-	 * Tries to find the longest match of a {@link Pattern} in the
-	 * {@link CustomScanner#buffer}. If the end of the buffer is reached,
-	 * more input will be read.
+	 * Tries to find the longest match of a token type in the
+	 * {@link CustomScanner#buffer} starting at {@link CustomScanner#position}
 	 *
-	 * @param pattern the {@link Pattern} to match
-	 * @return last index of the matching region or null if there's no match
+	 * @param id the token type id to match
+	 * @return last index of the matching region or -1 if there's no match
 	 * @throws IOException
 	 */
-	private Integer findEnd(Pattern pattern) throws IOException {
-		if (buffer.length() == 0)
-			updateBuffer(); // ensure there is at least 1 char in buf
-//	DEBUG	System.out.println("Contents of buffer: " + buffer);
-		Matcher matcher = pattern.matcher(buffer);
-		if (buffer.length() == 0)
-			return matcher.lookingAt() ? matcher.end() : null;
-		int end = 1;
-		do {
-			matcher.region(0, end++).matches();
-			if (end > buffer.length())
-				updateBuffer();
-			if (end > buffer.length())
-				break;
-		} while (matcher.hitEnd());
-		if (matcher.lookingAt()) {
-//	DEBUG		System.out.println("end: " + matcher.end());
-			return matcher.end();
-		} else
-			return null;
+	private int findEnd(int id) throws IOException {
+		if (id == lastId && position == lastPosition)
+			return lastEnd;
+		lastId = id;
+		lastPosition = position;
+		lastEnd = match(id);
+		return lastEnd;
 	}
 
 	/**
-	 * Checks if the next {@link Pattern} is available from
-	 * {@link CustomScanner#buffer}
-	 * @param pattern the {@link Pattern} to check
-	 * @return true if the {@link Pattern} matches
+	 * Finds the longest match of every token type at
+	 * {@link CustomScanner#position}, running the {@link DFALexer} once for
+	 * all the types it supports
+	 *
+	 * @param ends filled with the index after the longest match of each
+	 * token type id or -1 for types which don't match
 	 * @throws IOException
 	 */
-	private boolean hasNext(Pattern pattern) throws IOException {
-//	DEBUG	System.out.println("hasNext(): " + pattern);
-		Integer end = findEnd(pattern);
-		return end != null;
+	void findEnds(int[] ends) throws IOException {
+		for (int id = 0; id < ends.length; ++id)
+			ends[id] = findEnd(id);
 	}
 
 	/**
-	 * Gets the next {@link Pattern} from {@link CustomScanner#buffer}
+	 * Matches a token type at {@link CustomScanner#position}
 	 *
-	 * @param pattern the {@link Pattern} to match
-	 * @return the {@link String} matching the pattern
+	 * @param id the token type id to match
+	 * @return last index of the matching region or -1 if there's no match
 	 * @throws IOException
 	 */
-	private String next(Pattern pattern) throws IOException {
-		Integer end = findEnd(pattern);
-		if (end == null)
-			return null;
-		String value = buffer.substring(0, end);
-		buffer.delete(0, end);
-		return value;
+	private int match(int id) throws IOException {
+		DFALexer lexer = lexer();
+		if (lexer != null && lexer.isSupported(id)) {
+			lex(lexer);
+			return lengths[id] == -1 ? -1 : position + lengths[id];
+		}
+		if (id >= matchers.length)
+			matchers = Arrays.copyOf(matchers,
+					Resources.instance.getTokenCount());
+		if (matchers[id] == null)
+			matchers[id] = Resources.instance.getToken(id)
+											 .getRegex()
+											 .matcher(buffer);
+		return lookingAt(matchers[id]);
 	}
 
+	/**
+	 * Matches a skip {@link Pattern} at {@link CustomScanner#position}
+	 *
+	 * @param pattern the skip {@link Pattern} to match
+	 * @return last index of the matching region or -1 if there's no match
+	 * @throws IOException
+	 */
+	private int matchSkip(Pattern pattern) throws IOException {
+		return lookingAt(skipMatchers.computeIfAbsent(pattern,
+				p -> p.matcher(buffer)));
+	}
+
+	/**
+	 * Tries to find the longest match of a {@link Matcher}'s {@link Pattern}
+	 * starting at {@link CustomScanner#position}. The match is only retried,
+	 * after reading more input, when the end of the buffer was reached while
+	 * matching.
+	 *
+	 * @param matcher the {@link Matcher} over {@link CustomScanner#buffer}
+	 * @return last index of the matching region or -1 if there's no match
+	 * @throws IOException
+	 */
+	private int lookingAt(Matcher matcher) throws IOException {
+		while (true) {
+			matcher.region(position - offset, buffer.length());
+			boolean found = matcher.lookingAt();
+			if (endOfInput || !(matcher.hitEnd() || matcher.requireEnd()))
+				return found ? offset + matcher.end() : -1;
+			int length = buffer.length();
+			updateBuffer();
+			if (buffer.length() == length)
+				return found ? offset + matcher.end() : -1;
+		}
+	}
+
+	/**
+	 * Gets the {@link DFALexer} to match tokens with
+	 *
+	 * @return the {@link DFALexer} or null if tokens are matched with
+	 * {@link Matcher}s
+	 */
+	private DFALexer lexer() {
+		return Resources.instance.dfaLexerEnabled() ?
+				Resources.instance.getLexer() :
+				null;
+	}
+
+	/**
+	 * Runs a {@link DFALexer} once at {@link CustomScanner#position}, storing
+	 * the length matched by each token type in {@link CustomScanner#lengths}.
+	 * More input is only read when the lexer reached the end of the buffer.
+	 *
+	 * @param lexer the {@link DFALexer} to run
+	 * @throws IOException
+	 */
+	private void lex(DFALexer lexer) throws IOException {
+		if (lexedPosition == position && lengths.length == lexer.size())
+			return;
+		if (lengths.length != lexer.size())
+			lengths = new int[lexer.size()];
+		while (lexer.match(buffer, position - offset, buffer.length(),
+				lengths) &&
+				!endOfInput) {
+			int length = buffer.length();
+			updateBuffer();
+			if (buffer.length() == length)
+				break;
+		}
+		lexedPosition = position;
+	}
+
+	/**
+	 * Creates a {@link Token} whose value is a section of the input without
+	 * copying it
+	 *
+	 * @param template the type of the {@link Token}
+	 * @param start the index of the value's first character
+	 * @param length the length of the value
+	 * @return the {@link Token}
+	 */
+	Token newToken(Token template, int start, int length) {
+		return new Token(template, input, start, length, lines);
+	}
+
+	@Override
+	public int mark() {
+		return position;
+	}
+
+	@Override
+	public void reset(int mark) {
+		if (mark < released)
+			throw new IllegalArgumentException(mark + " is before the " +
+					"input released by this scanner");
+		if (mark > offset + buffer.length())
+			throw new IllegalArgumentException(mark + " is not a position " +
+					"read by this scanner");
+		position = mark;
+	}
+
+	/**
+	 * Forgets the input before a position, along with the start of the lines
+	 * before it. The values of {@link Token}s read before the position can
+	 * no longer be retrieved unless they already were.
+	 *
+	 * @param mark the position, which must not be after the current one
+	 */
 	@Override
-	public void unreadToken(Token token) {
-		buffer.insert(0, token.getValue());
+	public void release(int mark) {
+		if (mark < released || mark > position)
+			throw new IllegalArgumentException(mark + " is not a position " +
+					"between the released input and the current position");
+		released = mark;
+		int count = released - offset;
+		if (count < block.length || count < buffer.length() - count)
+			return;
+		buffer.delete(0, count);
+		offset = released;
+		lines.release(offset);
+	}
+
+	/**
+	 * Gets the amount of characters of the input kept in memory, which
+	 * were either not read yet or not released
+	 *
+	 * @return the amount of characters
+	 */
+	public int getBufferLength() {
+		return buffer.length();
 	}
 
 	@Override
-	public boolean hasNextToken(Pattern pattern) throws IOException {
-		return hasNext(pattern);
+	public boolean hasNextToken(int id) throws IOException {
+//	DEBUG	System.out.println("hasNextToken(): " + id);
+		return findEnd(id) != -1;
 	}
 
 	@Override
-	public Token nextToken(Pattern pattern) throws IOException {
-		String value = next(pattern);
-		if (value == null)
+	public Token nextToken(int id) throws IOException {
+		int start = position;
+		int end = findEnd(id);
+		if (end == -1)
 			return null;
-		Token tokenType = Resources.instance.getToken(pattern);
-		return new Token(tokenType, value);
+		position = end;
+		return newToken(Resources.instance.getToken(id), start, end - start);
 	}
 
+	/**
+	 * Retrieves the longest next {@link Token}, preferring tokens added to
+	 * {@link Resources} earlier when several have the same length
+	 *
+	 * @return a {@link Token} or null
+	 * @throws IOException
+	 */
+	@Override
+	public Token nextToken() throws IOException {
+		int best = -1;
+		int bestEnd = -1;
+		int count = Resources.instance.getTokenCount();
+		for (int id = 0; id < count; ++id) {
+			int end = findEnd(id);
+			if (end > bestEnd) {
+				best = id;
+				bestEnd = end;
+			}
+		}
+		return best == -1 ? null : nextToken(best);
+	}
+
+	/**
+	 * Checks if all the input has been read
+	 *
+	 * @return true if there are no characters after
+	 * {@link CustomScanner#position}
+	 * @throws IOException
+	 */
+	boolean atEnd() throws IOException {
+		if (position == offset + buffer.length())
+			updateBuffer();
+		return position == offset + buffer.length();
+	}
+
+	/**
+	 * Gets a section of the input which has already been read and wasn't
+	 * released
+	 *
+	 * @param start the position of the first character
+	 * @param end the position after the last character
+	 * @return the section of the input
+	 */
+	String getText(int start, int end) {
+		return buffer.substring(start - offset, end - offset);
+	}
+
+	/**
+	 * Skips all skip {@link Pattern}s at once, either with the
+	 * {@link DFALexer} or with the combined skip {@link Pattern} from
+	 * {@link Resources#getSkipPattern()}. Where skipping ends is remembered
+	 * for each starting position.
+	 *
+	 * @throws IOException
+	 */
 	@Override
 	public void skip() throws IOException {
-//	DEBUG	System.out.print("skipping...");
+		List<Pattern> skips = Resources.instance.getSkipList();
+		if (skips != skipList) {
+			skipList = skips;
+			Arrays.fill(skipFrom, -1);
+		}
+		int from = position;
+		int slot = from % SKIP_CACHE_SIZE;
+		if (skipFrom[slot] == from) {
+			position = skipTo[slot];
+			return;
+		}
+		DFALexer lexer = lexer();
+		Pattern combined = Resources.instance.getSkipPattern();
+		if (lexer != null && lexesSkips(lexer))
+			skip(lexer);
+		else if (combined != null)
+			position = matchSkip(combined);
+		else
+			skip(skips);
+		skipFrom[slot] = from;
+		skipTo[slot] = position;
+		if (Resources.instance.debugEnabled() && position != from)
+			System.out.println("skipping: '" + getText(from, position) + "'");
+	}
+
+	/**
+	 * Checks if a {@link DFALexer} matches every skip {@link Pattern}
+	 *
+	 * @param lexer the {@link DFALexer}
+	 * @return true if no skip {@link Pattern} needs a {@link Matcher}
+	 */
+	private static boolean lexesSkips(DFALexer lexer) {
+		for (int type = Resources.instance.getSkipStart(); type < lexer.size();
+			 ++type)
+			if (!lexer.isSupported(type))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Skips with a {@link DFALexer} until no skip {@link Pattern} matches
+	 *
+	 * @param lexer the {@link DFALexer}
+	 * @throws IOException
+	 */
+	private void skip(DFALexer lexer) throws IOException {
+		int skipStart = Resources.instance.getSkipStart();
+		boolean run = true;
+		while (run) {
+			run = false;
+			lex(lexer);
+			for (int type = skipStart; type < lexer.size(); ++type)
+				if (lengths[type] > 0) {
+					position += lengths[type];
+					run = true;
+					break;
+				}
+		}
+	}
+
+	/**
+	 * Skips each skip {@link Pattern} one at a time until none of them match
+	 *
+	 * @param skips the skip {@link Pattern}s
+	 * @throws IOException
+	 */
+	private void skip(List<Pattern> skips) throws IOException {
 		boolean run;
-		Set<Pattern> patterns = Resources.instance.getSkips();
 		do {
 			run = false;
-			for (Pattern pattern : patterns) {
-				if (hasNext(pattern)) {
+			for (Pattern pattern : skips) {
+				int end = matchSkip(pattern);
+				if (end > position) {
+					position = end;
 					run = true;
-					String value = next(pattern);
-					if (Resources.instance.debugEnabled())
-						System.out.println("skipping: '" + value + "'");
 				}
 			}
 		} while (run);
-//	DEBUG	System.out.println("done");
 	}
 
 	@Override
 	public int getLineNumber() {
-		int result = lineReader.getLineNumber() + 1;
-		for (char c : buffer.toString().toCharArray()) {
-			if (c == '\n')
-				--result;
-		}
-		return result;
+		return lines.getLine(position);
+	}
+
+	@Override
+	public int getColumnNumber() {
+		return lines.getColumn(position);
+	}
+
+	/**
+	 * Gets the start of every line read so far, which can find the line and
+	 * column of any position given by {@link CustomScanner#mark()}
+	 *
+	 * @return the {@link LineIndex}
+	 */
+	public LineIndex getLineIndex() {
+		return lines;
 	}
 
 	@Override
 	public void close() throws IOException {
-		lineReader.close();
+		reader.close();
 	}
 
 	/**
-	 * Gets the current contents of the {@link CustomScanner#buffer} as a
+	 * Gets the unread contents of the {@link CustomScanner#buffer} as a
 	 * {@link String} with non-printable characters escaped
 	 * @return the {@link String}
 	 */
 	public String getBufferString() {
-		return buffer.chars()
+		return buffer.substring(position - offset)
+				.chars()
 				.mapToObj(e -> {
 					switch (e) {
 						case '\n':
@@ -208,4 +576,29 @@ public class CustomScanner implements Scanner {
 				})
 				.collect(Collectors.joining());
 	}
+
+	/**
+	 * A view of {@link CustomScanner#buffer} indexed by position
+	 */
+	private final class Input implements CharSequence {
+		@Override
+		public int length() {
+			return offset + buffer.length();
+		}
+
+		@Override
+		public char charAt(int index) {
+			return buffer.charAt(index - offset);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return buffer.subSequence(start - offset, end - offset);
+		}
+
+		@Override
+		public String toString() {
+			return buffer.toString();
+		}
+	}
 }
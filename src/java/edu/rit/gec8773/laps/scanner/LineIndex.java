@@ -0,0 +1,92 @@
+package edu.rit.gec8773.laps.scanner;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Stores the position where each line of some input starts so the line and
+ * column of any position can be found with a binary search. Lines are added
+ * as the input is read.
+ */
+public class LineIndex implements Serializable {
+
+	/**
+	 * The position of the first character of each line, in ascending order
+	 */
+	private int[] lineStarts = new int[64];
+	private int lineCount = 1;
+
+	/**
+	 * The amount of lines before the first one in
+	 * {@link LineIndex#lineStarts}, which were released
+	 */
+	private int released = 0;
+
+	/**
+	 * Adds the lines started by the line feeds in a block of characters
+	 *
+	 * @param chars the characters
+	 * @param count the amount of characters in the array to look at
+	 * @param position the position of the first character in the input
+	 */
+	void addLines(char[] chars, int count, int position) {
+		for (int i = 0; i < count; ++i)
+			if (chars[i] == '\n') {
+				if (lineCount == lineStarts.length)
+					lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+				lineStarts[lineCount++] = position + i + 1;
+			}
+	}
+
+	/**
+	 * Forgets the start of every line before the one a position is on
+	 *
+	 * @param position the position in the input
+	 */
+	void release(int position) {
+		int index = Arrays.binarySearch(lineStarts, 0, lineCount, position);
+		int line = index >= 0 ? index : -index - 2;
+		if (line <= 0)
+			return;
+		lineCount -= line;
+		System.arraycopy(lineStarts, line, lineStarts, 0, lineCount);
+		released += line;
+	}
+
+	/**
+	 * Gets the amount of lines started so far
+	 *
+	 * @return the amount of lines
+	 */
+	public int getLineCount() {
+		return released + lineCount;
+	}
+
+	/**
+	 * Gets the line of a position
+	 *
+	 * @param position the position in the input
+	 * @return the line number starting at 1
+	 * @throws IllegalArgumentException when the start of the position's
+	 * line was released
+	 */
+	public int getLine(int position) {
+		int index = Arrays.binarySearch(lineStarts, 0, lineCount, position);
+		if (index == -1 && released > 0)
+			throw new IllegalArgumentException("the line of " + position +
+					" was released");
+		return released + (index >= 0 ? index + 1 : -index - 1);
+	}
+
+	/**
+	 * Gets the column of a position
+	 *
+	 * @param position the position in the input
+	 * @return the column number starting at 1
+	 * @throws IllegalArgumentException when the start of the position's
+	 * line was released
+	 */
+	public int getColumn(int position) {
+		return position - lineStarts[getLine(position) - released - 1] + 1;
+	}
+}
@@ -3,7 +3,6 @@ package edu.rit.gec8773.laps.scanner;
 import edu.rit.gec8773.laps.resources.Resources;
 
 import java.io.IOException;
-import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
@@ -14,6 +13,24 @@ import java.util.regex.Pattern;
  * @see Pattern
  */
 public interface Scanner extends AutoCloseable {
+	/**
+	 * Checks if the next {@link Token} has a given token type id
+	 *
+	 * @param id the token type id from {@link Token#getId()}
+	 * @return true if there is the expected next {@link Token}
+	 * @throws IOException
+	 */
+	boolean hasNextToken(int id) throws IOException;
+
+	/**
+	 * Retrieves the next {@link Token} of a desired token type id
+	 *
+	 * @param id the token type id from {@link Token#getId()}
+	 * @return the next {@link Token} or {@code null}
+	 * @throws IOException
+	 */
+	Token nextToken(int id) throws IOException;
+
 	/**
 	 * Checks if the next {@link Token} has a given {@link Pattern}
 	 *
@@ -21,7 +38,10 @@ public interface Scanner extends AutoCloseable {
 	 * @return true if there is the expected next {@link Token}
 	 * @throws IOException
 	 */
-	boolean hasNextToken(Pattern pattern) throws IOException;
+	default boolean hasNextToken(Pattern pattern) throws IOException {
+		int id = Resources.instance.getTokenId(pattern);
+		return id != -1 && hasNextToken(id);
+	}
 
 	/**
 	 * Retrieves the next {@link Token} of a desired pattern
@@ -30,7 +50,10 @@ public interface Scanner extends AutoCloseable {
 	 * @return the next {@link Token} or {@code null}
 	 * @throws IOException
 	 */
-	Token nextToken(Pattern pattern) throws IOException;
+	default Token nextToken(Pattern pattern) throws IOException {
+		int id = Resources.instance.getTokenId(pattern);
+		return id == -1 ? null : nextToken(id);
+	}
 
 	/**
 	 * Retrieves any next {@link Token}
@@ -38,11 +61,10 @@ public interface Scanner extends AutoCloseable {
 	 * @throws IOException
 	 */
 	default Token nextToken() throws IOException {
-		Set<Pattern> tokenPatterns = Resources.instance
-						      .getPatterns();
-		for (Pattern pattern : tokenPatterns)
-			if (hasNextToken(pattern))
-				return nextToken(pattern);
+		int count = Resources.instance.getTokenCount();
+		for (int id = 0; id < count; ++id)
+			if (hasNextToken(id))
+				return nextToken(id);
 		return null;
 	}
 
@@ -53,14 +75,38 @@ public interface Scanner extends AutoCloseable {
 	void skip() throws IOException;
 
 	/**
-	 * Returns the {@link Token} to the {@link Scanner}
-	 * @param token the {@link Token} to return
+	 * Gets the current position of the {@link Scanner} in its input so it
+	 * can be returned to with {@link Scanner#reset(int)}
+	 * @return the current position
+	 */
+	int mark();
+
+	/**
+	 * Moves the {@link Scanner} back to a position previously given by
+	 * {@link Scanner#mark()}, e.g. to return the {@link Token}s read since
+	 * then so other grammar rules can be tried
+	 * @param mark the position to move to
 	 */
-	void unreadToken(Token token);
+	void reset(int mark);
+
+	/**
+	 * Lets the {@link Scanner} forget its input before a position given by
+	 * {@link Scanner#mark()}, once it will never be reset to anything before
+	 * it. {@link Token}s read before the position may no longer be able to
+	 * give their value unless it was already retrieved.
+	 * @param mark the position, which must not be after the current one
+	 */
+	default void release(int mark) {}
 
 	/**
 	 * Gets the current line number the {@link Scanner} is reading from
 	 * @return the line number
 	 */
 	int getLineNumber();
+
+	/**
+	 * Gets the current column number the {@link Scanner} is reading from
+	 * @return the column number starting at 1
+	 */
+	int getColumnNumber();
 }
@@ -1,5 +1,7 @@
 package edu.rit.gec8773.laps.scanner;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.lang.reflect.Type;
 import java.util.Objects;
@@ -8,7 +10,9 @@ import java.util.regex.Pattern;
 /**
  * Stores the name of a token, the regular expression associated with
  * that name, and, optionally, a value matched to
- * the regular expression
+ * the regular expression. Tokens read by a {@link Scanner} may keep their
+ * value as a section of the {@link Scanner}'s input which only becomes a
+ * {@link String} once {@link Token#getValue()} is called.
  */
 public class Token implements Serializable, Type {
 
@@ -23,9 +27,45 @@ public class Token implements Serializable, Type {
 	private final Pattern regex;
 
 	/**
-	 * The optional string value which matched the regular expression
+	 * The token type id given when the token was added to
+	 * {@link edu.rit.gec8773.laps.resources.TokenStorage} or -1
 	 */
-	private final String value;
+	private final int id;
+
+	/**
+	 * The optional string value which matched the regular expression, set
+	 * from {@link Token#source} the first time it's needed
+	 */
+	private String value;
+
+	/**
+	 * The input the value was read from, until the value is needed
+	 */
+	private transient CharSequence source;
+
+	/**
+	 * The length of the value in {@link Token#source}
+	 */
+	private final int length;
+
+	/**
+	 * The position of the value in the input it was read from or -1 if
+	 * unknown
+	 */
+	private final int position;
+
+	/**
+	 * The lines of the input the value was read from or null if unknown,
+	 * which are only used while the input is being read
+	 */
+	private final transient LineIndex lines;
+
+	/**
+	 * The line and column of the value, set from {@link Token#lines} when
+	 * the token is saved, or -1 if unknown
+	 */
+	private int line = -1;
+	private int column = -1;
 
 	/**
 	 * The main Class constructor checks all the arguments for appropriate
@@ -34,12 +74,20 @@ public class Token implements Serializable, Type {
 	 *
 	 * @param name the name of the token
 	 * @param regex the compiled regular expression pattern
+	 * @param id the token type id or -1
 	 * @param value the optional value of the token
+	 * @param position the position of the value in the input or -1
+	 * @param lines the lines of the input or null
 	 */
-	private Token(String name, Pattern regex, String value) {
+	private Token(String name, Pattern regex, int id, String value,
+				  int position, LineIndex lines) {
 		this.name = Objects.requireNonNull(name);
 		this.regex = Objects.requireNonNull(regex);
+		this.id = id;
 		this.value = value;
+		this.length = value == null ? 0 : value.length();
+		this.position = position;
+		this.lines = lines;
 		if (value != null && !regex.matcher(value).matches())
 			throw new IllegalArgumentException("\"" + value + "\"" +
 					" must match the pattern " + regex);
@@ -51,10 +99,10 @@ public class Token implements Serializable, Type {
 	 * @param name the name of the token
 	 * @param regex the compiled regular expression pattern
 	 *
-	 * @see Token#Token(String, Pattern, String)
+	 * @see Token#Token(String, Pattern, int, String, int, LineIndex)
 	 */
 	public Token(String name, Pattern regex) {
-		this(name, regex, null);
+		this(name, regex, -1, null, -1, null);
 	}
 
 	/**
@@ -64,7 +112,7 @@ public class Token implements Serializable, Type {
 	 * @param name the name of the token
 	 * @param pattern the source string regular expression pattern
 	 *
-	 * @see Token#Token(String, Pattern, String)
+	 * @see Token#Token(String, Pattern, int, String, int, LineIndex)
 	 */
 	public Token(String name, String pattern) {
 		this(name, Pattern.compile(pattern));
@@ -77,10 +125,46 @@ public class Token implements Serializable, Type {
 	 * @param template the token of the same type
 	 * @param value the value which matches the template's regular expression
 	 *
-	 * @see Token#Token(String, Pattern, String)
+	 * @see Token#Token(String, Pattern, int, String, int, LineIndex)
 	 */
 	public Token(Token template, String value) {
-		this(template.name, template.regex, value);
+		this(template.name, template.regex, template.id, value, -1, null);
+	}
+
+	/**
+	 * Class constructor for a copy of a token type with a token type id,
+	 * which {@link edu.rit.gec8773.laps.resources.TokenStorage} gives every
+	 * token added to it
+	 *
+	 * @param template the token type
+	 * @param id the token type id
+	 *
+	 * @see Token#Token(String, Pattern, int, String, int, LineIndex)
+	 */
+	public Token(Token template, int id) {
+		this(template.name, template.regex, id, null, -1, null);
+	}
+
+	/**
+	 * Class constructor for a token whose value is a section of the input
+	 * which has already been matched to the template's regular expression.
+	 * The value isn't checked or copied out of the input.
+	 *
+	 * @param template the token of the same type
+	 * @param source the input, which must not change where the value is
+	 * @param position the position of the value in the input
+	 * @param length the length of the value
+	 * @param lines the start of each line of the input or null
+	 */
+	Token(Token template, CharSequence source, int position, int length,
+		  LineIndex lines) {
+		this.name = template.name;
+		this.regex = template.regex;
+		this.id = template.id;
+		this.source = source;
+		this.position = position;
+		this.length = length;
+		this.lines = lines;
 	}
 	
 	// Getters
@@ -103,15 +187,75 @@ public class Token implements Serializable, Type {
 		return regex;
 	}
 
+	/**
+	 * Retrieves the token's type id
+	 *
+	 * @return {@link Token#id}, or -1 if the token type wasn't added to
+	 * {@link edu.rit.gec8773.laps.resources.TokenStorage}
+	 */
+	public int getId() {
+		return id;
+	}
+
 	/**
 	 * Retrieves the token's value
 	 *
 	 * @return {@link Token#value}
 	 */
 	public String getValue() {
+		if (source != null) {
+			value = source.subSequence(position, position + length).toString();
+			source = null;
+		}
 		return value;
 	}
 
+	/**
+	 * Retrieves the length of the token's value without needing the value
+	 *
+	 * @return the length, or 0 if there is no value
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Retrieves the position of the token's value in the input it was read
+	 * from
+	 *
+	 * @return {@link Token#position}, or -1 if unknown
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	/**
+	 * Retrieves the line of the input the token's value starts on
+	 *
+	 * @return the line number starting at 1, or -1 if unknown
+	 */
+	public int getLine() {
+		return lines == null || position < 0 ? line : lines.getLine(position);
+	}
+
+	/**
+	 * Retrieves the column of the input the token's value starts at
+	 *
+	 * @return the column number starting at 1, or -1 if unknown
+	 */
+	public int getColumn() {
+		return lines == null || position < 0 ?
+				column :
+				lines.getColumn(position);
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		getValue();
+		line = getLine();
+		column = getColumn();
+		out.defaultWriteObject();
+	}
+
 	@Override
 	public String getTypeName() {
 		return "token <" + name + ">";
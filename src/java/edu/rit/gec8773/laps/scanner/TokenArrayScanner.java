@@ -0,0 +1,271 @@
+package edu.rit.gec8773.laps.scanner;
+
+import edu.rit.gec8773.laps.resources.Resources;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A {@link Scanner} which reads all the input of a {@link CustomScanner}
+ * into {@link Token}s up front. Each position a token starts at is an
+ * entry, storing the length of the longest match of every token type there
+ * in parallel arrays. Parsing then moves over entry indices, so
+ * {@link Scanner#mark()} and {@link Scanner#reset(int)} work with entries
+ * and nothing is matched twice after backtracking.
+ * <p>
+ * The entries read up front follow the longest match at each position,
+ * preferring tokens added to {@link Resources} earlier. A grammar rule may
+ * still ask for any other type which matches there, e.g. a keyword instead
+ * of an identifier, or {@code <} where {@code <=} was the longest match,
+ * and gets the same token the {@link CustomScanner} would have given it.
+ * When that token is shorter, the entries after it are read when they're
+ * first reached. Token patterns which match the empty string are always
+ * available without consuming a token.
+ *
+ * @see CustomScanner#nextToken()
+ */
+public class TokenArrayScanner implements Scanner {
+	private final CustomScanner source;
+
+	/**
+	 * Whether each token type id's pattern matches the empty string
+	 */
+	private final boolean[] matchesEmpty;
+
+	/**
+	 * The end of the longest match of each token type id at the position
+	 * being read
+	 */
+	private final int[] ends;
+
+	/**
+	 * The amount of tokens read up front, which are followed by the entry
+	 * where tokenizing stopped, either at the end of the input or at the
+	 * first text no token matches
+	 */
+	private final int size;
+
+	/**
+	 * The position of each entry, after skipping
+	 */
+	private int entryCount = 0;
+	private int[] starts = new int[1024];
+
+	/**
+	 * For the entry at index i, the token types matching there are
+	 * {@code matchTypes[firstMatches[i]]} to
+	 * {@code matchTypes[firstMatches[i + 1] - 1]}, the longest match first,
+	 * with the length of each and the index of the entry after it, or -1
+	 * until that entry is read
+	 */
+	private int[] firstMatches = new int[1025];
+	private int matchCount = 0;
+	private int[] matchTypes = new int[1024];
+	private int[] matchLengths = new int[1024];
+	private int[] matchNext = new int[1024];
+
+	/**
+	 * The index of each entry read after a token which isn't the longest
+	 * match, by position
+	 */
+	private final HashMap<Integer, Integer> later = new HashMap<>();
+
+	/**
+	 * The index of the next entry
+	 */
+	private int index = 0;
+
+	/**
+	 * Class constructor which reads every token from a {@link CustomScanner}
+	 *
+	 * @param source the {@link CustomScanner} to read from
+	 * @throws IOException when the {@link CustomScanner} has an I/O error
+	 */
+	public TokenArrayScanner(CustomScanner source) throws IOException {
+		this.source = source;
+		int typeCount = Resources.instance.getTokenCount();
+		matchesEmpty = new boolean[typeCount];
+		for (int type = 0; type < typeCount; ++type)
+			matchesEmpty[type] = Resources.instance.getToken(type)
+												   .getRegex()
+												   .matcher("")
+												   .matches();
+		ends = new int[typeCount];
+		while (true) {
+			int entry = read(source.mark());
+			if (firstMatches[entry] == firstMatches[entry + 1])
+				break;
+			source.reset(starts[entry] + matchLengths[firstMatches[entry]]);
+			matchNext[firstMatches[entry]] = entry + 1;
+		}
+		size = entryCount - 1;
+	}
+
+	/**
+	 * Skips from a position and stores the longest match of every token
+	 * type there as a new entry
+	 *
+	 * @param position the position to read from
+	 * @return the index of the entry
+	 * @throws IOException when the {@link CustomScanner} has an I/O error
+	 */
+	private int read(int position) throws IOException {
+		source.reset(position);
+		source.skip();
+		int start = source.mark();
+		if (entryCount == starts.length) {
+			starts = Arrays.copyOf(starts, entryCount * 2);
+			firstMatches = Arrays.copyOf(firstMatches, entryCount * 2 + 1);
+		}
+		int entry = entryCount++;
+		starts[entry] = start;
+		firstMatches[entry] = matchCount;
+		if (!source.atEnd()) {
+			source.findEnds(ends);
+			int best = -1;
+			for (int type = 0; type < ends.length; ++type)
+				if (ends[type] > start &&
+						(best == -1 || ends[type] > ends[best]))
+					best = type;
+			if (best != -1) {
+				addMatch(best, ends[best] - start);
+				for (int type = 0; type < ends.length; ++type)
+					if (type != best && ends[type] > start)
+						addMatch(type, ends[type] - start);
+			}
+		}
+		firstMatches[entryCount] = matchCount;
+		source.reset(start);
+		return entry;
+	}
+
+	private void addMatch(int type, int length) {
+		if (matchCount == matchTypes.length) {
+			int capacity = matchCount * 2;
+			matchTypes = Arrays.copyOf(matchTypes, capacity);
+			matchLengths = Arrays.copyOf(matchLengths, capacity);
+			matchNext = Arrays.copyOf(matchNext, capacity);
+		}
+		matchTypes[matchCount] = type;
+		matchLengths[matchCount] = length;
+		matchNext[matchCount++] = -1;
+	}
+
+	/**
+	 * Gets the entry after a match, reading it if it's not read yet
+	 *
+	 * @param match the index of the match
+	 * @return the index of the entry
+	 * @throws IOException when the {@link CustomScanner} has an I/O error
+	 */
+	private int next(int match) throws IOException {
+		if (matchNext[match] != -1)
+			return matchNext[match];
+		int position = starts[index] + matchLengths[match];
+		source.reset(position);
+		source.skip();
+		int start = source.mark();
+		int entry = Arrays.binarySearch(starts, 0, size + 1, start);
+		if (entry < 0) {
+			Integer found = later.get(start);
+			if (found == null) {
+				found = read(start);
+				later.put(start, found);
+			}
+			entry = found;
+		}
+		return matchNext[match] = entry;
+	}
+
+	/**
+	 * Gets the amount of tokens read up front
+	 *
+	 * @return the amount of tokens
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the position in the {@link CustomScanner}'s input of the next
+	 * token, or where tokenizing stopped if all the tokens have been read
+	 *
+	 * @return the position
+	 */
+	public int getInputPosition() {
+		return starts[index];
+	}
+
+	/**
+	 * @return the index of the match of a token type at the next entry or
+	 * -1 if it doesn't match there
+	 */
+	private int find(int type) {
+		for (int i = firstMatches[index]; i < firstMatches[index + 1]; ++i)
+			if (matchTypes[i] == type)
+				return i;
+		return -1;
+	}
+
+	@Override
+	public boolean hasNextToken(int id) {
+		return find(id) != -1 || matchesEmpty[id];
+	}
+
+	@Override
+	public Token nextToken(int id) throws IOException {
+		Token template = Resources.instance.getToken(id);
+		int match = find(id);
+		if (match != -1) {
+			Token token = source.newToken(template, starts[index],
+					matchLengths[match]);
+			index = next(match);
+			return token;
+		}
+		if (matchesEmpty[id])
+			return source.newToken(template, getInputPosition(), 0);
+		return null;
+	}
+
+	@Override
+	public Token nextToken() throws IOException {
+		if (firstMatches[index] == firstMatches[index + 1])
+			return null;
+		return nextToken(matchTypes[firstMatches[index]]);
+	}
+
+	/**
+	 * Does nothing since skip patterns were removed while tokenizing
+	 */
+	@Override
+	public void skip() {}
+
+	@Override
+	public int mark() {
+		return index;
+	}
+
+	@Override
+	public void reset(int mark) {
+		if (mark < 0 || mark >= entryCount)
+			throw new IllegalArgumentException(mark + " is not a token " +
+					"index of this scanner");
+		index = mark;
+	}
+
+	@Override
+	public int getLineNumber() {
+		return source.getLineIndex().getLine(getInputPosition());
+	}
+
+	@Override
+	public int getColumnNumber() {
+		return source.getLineIndex().getColumn(getInputPosition());
+	}
+
+	@Override
+	public void close() throws IOException {
+		source.close();
+	}
+}
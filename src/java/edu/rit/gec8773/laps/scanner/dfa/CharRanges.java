@@ -0,0 +1,123 @@
+package edu.rit.gec8773.laps.scanner.dfa;
+
+import java.util.Arrays;
+
+/**
+ * Utility functions for sets of code points stored as sorted arrays of
+ * disjoint, inclusive {@code [low, high]} pairs
+ */
+class CharRanges {
+
+	/**
+	 * The largest code point
+	 */
+	static final int MAX = Character.MAX_CODE_POINT;
+
+	/**
+	 * The empty set
+	 */
+	static final int[] EMPTY = new int[0];
+
+	/**
+	 * Every code point
+	 */
+	static final int[] ALL = {0, MAX};
+
+	/**
+	 * Equivalent to {@code \d}
+	 */
+	static final int[] DIGIT = {'0', '9'};
+
+	/**
+	 * Equivalent to {@code \w}
+	 */
+	static final int[] WORD = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+
+	/**
+	 * Equivalent to {@code \s}
+	 */
+	static final int[] SPACE = {'\t', '\r', ' ', ' '};
+
+	/**
+	 * Equivalent to {@code .} without the {@code DOTALL} flag
+	 */
+	static final int[] DOT = complement(new int[] {'\n', '\n', '\r', '\r',
+			'\u0085', '\u0085', 0x2028, 0x2029});
+
+	private CharRanges() {}
+
+	/**
+	 * Creates a set of a single range of code points
+	 *
+	 * @param low the smallest code point in the set
+	 * @param high the largest code point in the set
+	 * @return the set
+	 */
+	static int[] of(int low, int high) {
+		return new int[] {low, high};
+	}
+
+	/**
+	 * Creates the union of two sets
+	 *
+	 * @param a a set
+	 * @param b another set
+	 * @return a set of the code points in either set
+	 */
+	static int[] union(int[] a, int[] b) {
+		int[] all = Arrays.copyOf(a, a.length + b.length);
+		System.arraycopy(b, 0, all, a.length, b.length);
+		Integer[] order = new Integer[all.length / 2];
+		for (int i = 0; i < order.length; ++i)
+			order[i] = i;
+		Arrays.sort(order, (x, y) -> Integer.compare(all[x * 2], all[y * 2]));
+		int[] result = new int[all.length];
+		int size = 0;
+		for (int i : order) {
+			int low = all[i * 2];
+			int high = all[i * 2 + 1];
+			if (size > 0 && low <= result[size - 1] + 1) {
+				result[size - 1] = Math.max(result[size - 1], high);
+			} else {
+				result[size++] = low;
+				result[size++] = high;
+			}
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	/**
+	 * Creates the complement of a set
+	 *
+	 * @param a the set
+	 * @return a set of every code point not in the given set
+	 */
+	static int[] complement(int[] a) {
+		int[] result = new int[a.length + 2];
+		int size = 0;
+		int next = 0;
+		for (int i = 0; i < a.length; i += 2) {
+			if (a[i] > next) {
+				result[size++] = next;
+				result[size++] = a[i] - 1;
+			}
+			next = a[i + 1] + 1;
+		}
+		if (next <= MAX) {
+			result[size++] = next;
+			result[size++] = MAX;
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	/**
+	 * Creates the intersection of two sets
+	 *
+	 * @param a a set
+	 * @param b another set
+	 * @return a set of the code points in both sets
+	 */
+	static int[] intersection(int[] a, int[] b) {
+		return complement(union(complement(a), complement(b)));
+	}
+}
@@ -0,0 +1,376 @@
+package edu.rit.gec8773.laps.scanner.dfa;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * A lexer which matches many token {@link Pattern}s at once with a single
+ * minimized deterministic finite automaton (DFA). Each {@link Pattern} is
+ * given a token type, its index in the list it was compiled from, and one
+ * pass over the input finds the longest match of every type. Lower types
+ * have priority when several types match the same amount of input.
+ * <p>
+ * {@link Pattern}s which can't be expressed as a DFA, such as ones with back
+ * references or look arounds, are not matched by the lexer and must be
+ * matched with {@link java.util.regex} instead.
+ *
+ * @see DFALexer#isSupported(int)
+ */
+public class DFALexer implements Serializable {
+
+	/**
+	 * Returned when there is no matching type
+	 */
+	public static final int NO_MATCH = -1;
+
+	private final Pattern[] patterns;
+	private final HashMap<Pattern, Integer> types = new HashMap<>();
+	private final boolean[] supported;
+
+	/**
+	 * The character class of every ASCII character
+	 */
+	private final int[] asciiClasses = new int[128];
+
+	/**
+	 * The first code unit of each character class, in ascending order
+	 */
+	private final int[] classStarts;
+
+	/**
+	 * The transition table indexed by
+	 * {@code state * classCount + characterClass}, where -1 is the dead state
+	 */
+	private final int[] transitions;
+
+	private final int classCount;
+
+	/**
+	 * The token types each state accepts
+	 */
+	private final int[][] accepting;
+
+	/**
+	 * Compiles {@link Pattern}s into a {@link DFALexer}
+	 *
+	 * @param patterns the {@link Pattern}s in order of priority
+	 * @return the {@link DFALexer}
+	 */
+	public static DFALexer compile(List<Pattern> patterns) {
+		return new DFALexer(patterns);
+	}
+
+	private DFALexer(List<Pattern> patternList) {
+		patterns = patternList.toArray(new Pattern[0]);
+		supported = new boolean[patterns.length];
+		NFA nfa = new NFA();
+		for (int type = 0; type < patterns.length; ++type) {
+			types.putIfAbsent(patterns[type], type);
+			int start = nfa.size();
+			try {
+				RegexNode regex = RegexParser.parse(patterns[type]);
+				start = nfa.addState();
+				nfa.setAccepting(regex.addTo(nfa, start), type);
+				nfa.addEpsilon(0, start);
+				supported[type] = true;
+			} catch (UnsupportedRegexException | IllegalStateException e) {
+				// matched with java.util.regex instead
+				while (nfa.size() > start) {
+					int last = nfa.size() - 1;
+					nfa.edges.remove(last);
+					nfa.epsilons.remove(last);
+					nfa.accepts.remove(last);
+				}
+			}
+		}
+
+		// split the code units into classes which are never told apart
+		TreeSet<Integer> bounds = new TreeSet<>();
+		bounds.add(0);
+		for (int[] stateEdges : nfa.edges)
+			for (int i = 0; i < stateEdges.length; i += 3) {
+				bounds.add(stateEdges[i]);
+				if (stateEdges[i + 1] < Character.MAX_VALUE)
+					bounds.add(stateEdges[i + 1] + 1);
+			}
+		int[] starts = bounds.stream().mapToInt(Integer::intValue).toArray();
+
+		// subset construction
+		List<BitSet> sets = new ArrayList<>();
+		HashMap<BitSet, Integer> setIds = new HashMap<>();
+		List<int[]> rows = new ArrayList<>();
+		BitSet initial = closure(nfa, singleton(0));
+		sets.add(initial);
+		setIds.put(initial, 0);
+		for (int id = 0; id < sets.size(); ++id) {
+			BitSet[] targets = new BitSet[starts.length];
+			BitSet set = sets.get(id);
+			for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1)) {
+				int[] stateEdges = nfa.edges.get(s);
+				for (int i = 0; i < stateEdges.length; i += 3) {
+					int from = classOf(starts, stateEdges[i]);
+					int to = classOf(starts, stateEdges[i + 1]);
+					for (int c = from; c <= to; ++c) {
+						if (targets[c] == null)
+							targets[c] = new BitSet();
+						targets[c].set(stateEdges[i + 2]);
+					}
+				}
+			}
+			int[] row = new int[starts.length];
+			for (int c = 0; c < starts.length; ++c) {
+				if (targets[c] == null) {
+					row[c] = -1;
+					continue;
+				}
+				BitSet target = closure(nfa, targets[c]);
+				Integer targetId = setIds.get(target);
+				if (targetId == null) {
+					targetId = sets.size();
+					sets.add(target);
+					setIds.put(target, targetId);
+				}
+				row[c] = targetId;
+			}
+			rows.add(row);
+		}
+		List<BitSet> accepts = new ArrayList<>();
+		for (BitSet set : sets) {
+			BitSet accept = new BitSet();
+			for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1))
+				if (nfa.accepts.get(s) != -1)
+					accept.set(nfa.accepts.get(s));
+			accepts.add(accept);
+		}
+
+		// minimization by partition refinement
+		int stateCount = rows.size();
+		int[] block = new int[stateCount];
+		HashMap<List<Object>, Integer> blockIds = new HashMap<>();
+		for (int s = 0; s < stateCount; ++s)
+			block[s] = blockIds.computeIfAbsent(List.of(accepts.get(s)),
+					key -> blockIds.size());
+		int blockCount = blockIds.size();
+		while (true) {
+			blockIds.clear();
+			int[] refined = new int[stateCount];
+			for (int s = 0; s < stateCount; ++s) {
+				List<Object> signature = new ArrayList<>();
+				signature.add(block[s]);
+				for (int target : rows.get(s))
+					signature.add(target == -1 ? -1 : block[target]);
+				refined[s] = blockIds.computeIfAbsent(signature,
+						key -> blockIds.size());
+			}
+			block = refined;
+			if (blockIds.size() == blockCount)
+				break;
+			blockCount = blockIds.size();
+		}
+
+		// drop states which can never accept
+		boolean[] live = new boolean[blockCount];
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int s = 0; s < stateCount; ++s) {
+				if (live[block[s]])
+					continue;
+				boolean isLive = !accepts.get(s).isEmpty();
+				for (int target : rows.get(s))
+					isLive |= target != -1 && live[block[target]];
+				if (isLive) {
+					live[block[s]] = true;
+					changed = true;
+				}
+			}
+		}
+
+		// merge character classes which every state treats the same
+		int[] classIds = new int[starts.length];
+		HashMap<List<Integer>, Integer> columnIds = new HashMap<>();
+		List<Integer> mergedStarts = new ArrayList<>();
+		for (int c = 0; c < starts.length; ++c) {
+			List<Integer> column = new ArrayList<>();
+			for (int s = 0; s < stateCount; ++s) {
+				int target = rows.get(s)[c];
+				column.add(target == -1 || !live[block[target]] ?
+						-1 : block[target]);
+			}
+			Integer id = columnIds.get(column);
+			if (id == null) {
+				id = columnIds.size();
+				columnIds.put(column, id);
+			}
+			classIds[c] = id;
+		}
+		classCount = columnIds.size();
+
+		// states are renumbered so the start state is 0
+		int[] stateIds = new int[blockCount];
+		Arrays.fill(stateIds, -1);
+		int[] order = new int[blockCount];
+		int count = 0;
+		stateIds[block[0]] = count;
+		order[count++] = 0;
+		for (int s = 1; s < stateCount; ++s)
+			if (live[block[s]] && stateIds[block[s]] == -1) {
+				stateIds[block[s]] = count;
+				order[count++] = s;
+			}
+		transitions = new int[count * classCount];
+		accepting = new int[count][];
+		for (int id = 0; id < count; ++id) {
+			int s = order[id];
+			for (int c = 0; c < starts.length; ++c) {
+				int target = rows.get(s)[c];
+				transitions[id * classCount + classIds[c]] =
+						target == -1 || !live[block[target]] ?
+								-1 : stateIds[block[target]];
+			}
+			accepting[id] = accepts.get(s).stream().toArray();
+		}
+
+		// classes are looked up by the first code unit they contain
+		List<Integer> classOfStart = new ArrayList<>();
+		for (int c = 0; c < starts.length; ++c)
+			if (c == 0 || classIds[c] != classIds[c - 1]) {
+				mergedStarts.add(starts[c]);
+				classOfStart.add(classIds[c]);
+			}
+		classStarts = new int[mergedStarts.size() * 2];
+		for (int i = 0; i < mergedStarts.size(); ++i) {
+			classStarts[i * 2] = mergedStarts.get(i);
+			classStarts[i * 2 + 1] = classOfStart.get(i);
+		}
+		for (char c = 0; c < asciiClasses.length; ++c)
+			asciiClasses[c] = lookupClass(c);
+	}
+
+	private static BitSet singleton(int state) {
+		BitSet set = new BitSet();
+		set.set(state);
+		return set;
+	}
+
+	private static BitSet closure(NFA nfa, BitSet states) {
+		BitSet result = (BitSet)states.clone();
+		Deque<Integer> work = new ArrayDeque<>();
+		states.stream().forEach(work::push);
+		while (!work.isEmpty())
+			for (int target : nfa.epsilons.get(work.pop()))
+				if (!result.get(target)) {
+					result.set(target);
+					work.push(target);
+				}
+		return result;
+	}
+
+	private static int classOf(int[] starts, int c) {
+		int index = Arrays.binarySearch(starts, c);
+		return index >= 0 ? index : -index - 2;
+	}
+
+	private int lookupClass(char c) {
+		int low = 0;
+		int high = classStarts.length / 2 - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (classStarts[mid * 2] <= c)
+				low = mid;
+			else
+				high = mid - 1;
+		}
+		return classStarts[low * 2 + 1];
+	}
+
+	/**
+	 * Gets the token type of a {@link Pattern}
+	 *
+	 * @param pattern the {@link Pattern}
+	 * @return the token type or {@link DFALexer#NO_MATCH} if the
+	 * {@link Pattern} was not compiled into this lexer
+	 */
+	public int typeOf(Pattern pattern) {
+		return types.getOrDefault(pattern, NO_MATCH);
+	}
+
+	/**
+	 * Gets the amount of token types
+	 *
+	 * @return the amount of {@link Pattern}s compiled into this lexer
+	 */
+	public int size() {
+		return patterns.length;
+	}
+
+	/**
+	 * Gets the {@link Pattern} of a token type
+	 *
+	 * @param type the token type
+	 * @return the {@link Pattern}
+	 */
+	public Pattern getPattern(int type) {
+		return patterns[type];
+	}
+
+	/**
+	 * Checks if a token type is matched by this lexer
+	 *
+	 * @param type the token type
+	 * @return false if the type's {@link Pattern} has to be matched with
+	 * {@link java.util.regex} instead
+	 */
+	public boolean isSupported(int type) {
+		return supported[type];
+	}
+
+	/**
+	 * Finds the longest match of every token type starting at a position in
+	 * some text in a single pass over the text
+	 *
+	 * @param text the text to match
+	 * @param start the index to start matching at
+	 * @param end the index to stop matching at
+	 * @param lengths filled with the length of the longest match of each
+	 * type, or -1 for types which don't match
+	 * @return true if the end of the text was reached while a longer match
+	 * was still possible, meaning more text may change the result
+	 */
+	public boolean match(CharSequence text, int start, int end,
+						 int[] lengths) {
+		Arrays.fill(lengths, 0, patterns.length, -1);
+		int state = 0;
+		for (int type : accepting[0])
+			lengths[type] = 0;
+		for (int i = start; i < end; ++i) {
+			char c = text.charAt(i);
+			state = transitions[state * classCount +
+					(c < 128 ? asciiClasses[c] : lookupClass(c))];
+			if (state == -1)
+				return false;
+			for (int type : accepting[state])
+				lengths[type] = i + 1 - start;
+		}
+		return true;
+	}
+
+	/**
+	 * Chooses the token type with the longest match, preferring lower types
+	 * when there is a tie
+	 *
+	 * @param lengths the lengths found by
+	 * {@link DFALexer#match(CharSequence, int, int, int[])}
+	 * @param from the lowest type to choose from
+	 * @param to one more than the highest type to choose from
+	 * @return the chosen type or {@link DFALexer#NO_MATCH}
+	 */
+	public static int longest(int[] lengths, int from, int to) {
+		int best = NO_MATCH;
+		for (int type = from; type < to; ++type)
+			if (lengths[type] > (best == NO_MATCH ? -1 : lengths[best]))
+				best = type;
+		return best;
+	}
+}
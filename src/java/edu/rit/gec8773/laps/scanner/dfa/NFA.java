@@ -0,0 +1,127 @@
+package edu.rit.gec8773.laps.scanner.dfa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A nondeterministic finite automaton over UTF-16 code units, built from
+ * {@link RegexNode}s, where state 0 is the start state
+ */
+class NFA {
+
+	/**
+	 * The largest amount of states an {@link NFA} may have before it's
+	 * considered too large to convert to a DFA
+	 */
+	static final int MAX_STATES = 20_000;
+
+	/**
+	 * Each state's transitions stored as {@code [low, high, target]} triples
+	 */
+	final List<int[]> edges = new ArrayList<>();
+
+	/**
+	 * Each state's epsilon transitions
+	 */
+	final List<int[]> epsilons = new ArrayList<>();
+
+	/**
+	 * The token type each state accepts or -1
+	 */
+	final List<Integer> accepts = new ArrayList<>();
+
+	NFA() {
+		addState();
+	}
+
+	/**
+	 * @return the amount of states
+	 */
+	int size() {
+		return edges.size();
+	}
+
+	/**
+	 * Adds a new state without any transitions
+	 *
+	 * @return the new state
+	 */
+	int addState() {
+		if (edges.size() >= MAX_STATES)
+			throw new IllegalStateException("too many NFA states");
+		edges.add(new int[0]);
+		epsilons.add(new int[0]);
+		accepts.add(-1);
+		return edges.size() - 1;
+	}
+
+	/**
+	 * Adds an epsilon transition
+	 *
+	 * @param from the state the transition starts at
+	 * @param to the state the transition goes to
+	 */
+	void addEpsilon(int from, int to) {
+		int[] old = epsilons.get(from);
+		int[] updated = Arrays.copyOf(old, old.length + 1);
+		updated[old.length] = to;
+		epsilons.set(from, updated);
+	}
+
+	/**
+	 * Adds a transition on a range of code units
+	 *
+	 * @param from the state the transition starts at
+	 * @param low the smallest code unit of the range
+	 * @param high the largest code unit of the range
+	 * @param to the state the transition goes to
+	 */
+	void addEdge(int from, int low, int high, int to) {
+		int[] old = edges.get(from);
+		int[] updated = Arrays.copyOf(old, old.length + 3);
+		updated[old.length] = low;
+		updated[old.length + 1] = high;
+		updated[old.length + 2] = to;
+		edges.set(from, updated);
+	}
+
+	/**
+	 * Marks a state as accepting a token type
+	 *
+	 * @param state the state
+	 * @param type the token type
+	 */
+	void setAccepting(int state, int type) {
+		accepts.set(state, type);
+	}
+
+	/**
+	 * Adds transitions matching a single code point from a set. Code points
+	 * outside the basic multilingual plane are matched as surrogate pairs.
+	 *
+	 * @param from the state the transitions start at
+	 * @param ranges the set of code points
+	 * @return the state reached after matching a code point
+	 */
+	int addCodePoints(int from, int[] ranges) {
+		int end = addState();
+		boolean supplementary = false;
+		for (int i = 0; i < ranges.length; i += 2) {
+			int low = ranges[i];
+			int high = Math.min(ranges[i + 1], Character.MAX_VALUE);
+			if (low <= high)
+				addEdge(from, low, high, end);
+			if (ranges[i + 1] > Character.MAX_VALUE)
+				supplementary = true;
+		}
+		if (supplementary) {
+			int high = addState();
+			addEdge(from, Character.MIN_HIGH_SURROGATE,
+					Character.MAX_HIGH_SURROGATE, high);
+			addEdge(high, Character.MIN_LOW_SURROGATE,
+					Character.MAX_LOW_SURROGATE, end);
+		}
+		return end;
+	}
+}
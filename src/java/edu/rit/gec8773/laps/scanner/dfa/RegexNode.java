@@ -0,0 +1,118 @@
+package edu.rit.gec8773.laps.scanner.dfa;
+
+import java.util.List;
+
+/**
+ * A node of a parsed regular expression which can be added to an
+ * {@link NFA}
+ *
+ * @see RegexParser
+ */
+abstract class RegexNode {
+
+	/**
+	 * Adds the states of the regular expression to an {@link NFA}
+	 *
+	 * @param nfa the {@link NFA} to add to
+	 * @param start the state the added states are reached from
+	 * @return the state reached after matching this regular expression
+	 */
+	abstract int addTo(NFA nfa, int start);
+
+	/**
+	 * Matches a single code point from a set
+	 */
+	static class Chars extends RegexNode {
+		private final int[] ranges;
+
+		Chars(int[] ranges) {
+			this.ranges = ranges;
+		}
+
+		@Override
+		int addTo(NFA nfa, int start) {
+			return nfa.addCodePoints(start, ranges);
+		}
+	}
+
+	/**
+	 * Matches each of its children one after the other
+	 */
+	static class Concatenation extends RegexNode {
+		private final List<RegexNode> children;
+
+		Concatenation(List<RegexNode> children) {
+			this.children = children;
+		}
+
+		@Override
+		int addTo(NFA nfa, int start) {
+			int state = start;
+			for (RegexNode child : children)
+				state = child.addTo(nfa, state);
+			return state;
+		}
+	}
+
+	/**
+	 * Matches any one of its children
+	 */
+	static class Alternation extends RegexNode {
+		private final List<RegexNode> children;
+
+		Alternation(List<RegexNode> children) {
+			this.children = children;
+		}
+
+		@Override
+		int addTo(NFA nfa, int start) {
+			int end = nfa.addState();
+			for (RegexNode child : children) {
+				int childStart = nfa.addState();
+				nfa.addEpsilon(start, childStart);
+				nfa.addEpsilon(child.addTo(nfa, childStart), end);
+			}
+			return end;
+		}
+	}
+
+	/**
+	 * Matches its child between a minimum and maximum amount of times
+	 */
+	static class Repetition extends RegexNode {
+		/**
+		 * Used as {@link Repetition#max} when there is no maximum
+		 */
+		static final int UNBOUNDED = -1;
+
+		private final RegexNode child;
+		private final int min;
+		private final int max;
+
+		Repetition(RegexNode child, int min, int max) {
+			this.child = child;
+			this.min = min;
+			this.max = max;
+		}
+
+		@Override
+		int addTo(NFA nfa, int start) {
+			int state = start;
+			for (int i = 0; i < min; ++i)
+				state = child.addTo(nfa, state);
+			if (max == UNBOUNDED) {
+				int loop = nfa.addState();
+				nfa.addEpsilon(state, loop);
+				nfa.addEpsilon(child.addTo(nfa, loop), loop);
+				return loop;
+			}
+			int end = nfa.addState();
+			nfa.addEpsilon(state, end);
+			for (int i = min; i < max; ++i) {
+				state = child.addTo(nfa, state);
+				nfa.addEpsilon(state, end);
+			}
+			return end;
+		}
+	}
+}
@@ -0,0 +1,279 @@
+package edu.rit.gec8773.laps.scanner.dfa;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the subset of {@link Pattern} syntax which describes a regular
+ * language into {@link RegexNode}s. Anything else, such as back references,
+ * look arounds, anchors, flags, and lazy or possessive quantifiers, causes an
+ * {@link UnsupportedRegexException} so the {@link Pattern} can be matched by
+ * {@link java.util.regex} instead.
+ */
+class RegexParser {
+	private final String regex;
+	private int index = 0;
+
+	private RegexParser(String regex) {
+		this.regex = regex;
+	}
+
+	/**
+	 * Parses a {@link Pattern}
+	 *
+	 * @param pattern the {@link Pattern} to parse
+	 * @return the root of the parsed regular expression
+	 * @throws UnsupportedRegexException when the {@link Pattern} can't be
+	 * expressed as a DFA
+	 */
+	static RegexNode parse(Pattern pattern) throws UnsupportedRegexException {
+		if (pattern.flags() != 0)
+			throw new UnsupportedRegexException(pattern.pattern(), "flags");
+		RegexParser parser = new RegexParser(pattern.pattern());
+		RegexNode result = parser.alternation();
+		if (parser.index != parser.regex.length())
+			throw parser.unsupported("unexpected '" + parser.peek() + "'");
+		return result;
+	}
+
+	private UnsupportedRegexException unsupported(String reason) {
+		return new UnsupportedRegexException(regex, reason + " at index " +
+				index);
+	}
+
+	private boolean atEnd() {
+		return index >= regex.length();
+	}
+
+	private char peek() {
+		return regex.charAt(index);
+	}
+
+	private boolean accept(char c) {
+		if (!atEnd() && peek() == c) {
+			++index;
+			return true;
+		}
+		return false;
+	}
+
+	private char next() throws UnsupportedRegexException {
+		if (atEnd())
+			throw unsupported("unexpected end");
+		char c = regex.charAt(index++);
+		if (Character.isSurrogate(c))
+			throw unsupported("supplementary character");
+		return c;
+	}
+
+	private RegexNode alternation() throws UnsupportedRegexException {
+		List<RegexNode> children = new ArrayList<>();
+		children.add(concatenation());
+		while (accept('|'))
+			children.add(concatenation());
+		return children.size() == 1 ?
+				children.get(0) :
+				new RegexNode.Alternation(children);
+	}
+
+	private RegexNode concatenation() throws UnsupportedRegexException {
+		List<RegexNode> children = new ArrayList<>();
+		while (!atEnd() && peek() != '|' && peek() != ')')
+			children.add(repetition());
+		return children.size() == 1 ?
+				children.get(0) :
+				new RegexNode.Concatenation(children);
+	}
+
+	private RegexNode repetition() throws UnsupportedRegexException {
+		RegexNode atom = atom();
+		while (!atEnd()) {
+			int min, max;
+			if (accept('*')) {
+				min = 0;
+				max = RegexNode.Repetition.UNBOUNDED;
+			} else if (accept('+')) {
+				min = 1;
+				max = RegexNode.Repetition.UNBOUNDED;
+			} else if (accept('?')) {
+				min = 0;
+				max = 1;
+			} else if (accept('{')) {
+				min = number();
+				max = min;
+				if (accept(','))
+					max = atEnd() || peek() == '}' ?
+							RegexNode.Repetition.UNBOUNDED : number();
+				if (!accept('}'))
+					throw unsupported("malformed repetition");
+			} else
+				break;
+			if (!atEnd() && (peek() == '?' || peek() == '+'))
+				throw unsupported("lazy or possessive quantifier");
+			atom = new RegexNode.Repetition(atom, min, max);
+		}
+		return atom;
+	}
+
+	private int number() throws UnsupportedRegexException {
+		int start = index;
+		while (!atEnd() && Character.isDigit(peek()))
+			++index;
+		if (start == index)
+			throw unsupported("expected a number");
+		return Integer.parseInt(regex.substring(start, index));
+	}
+
+	private RegexNode atom() throws UnsupportedRegexException {
+		char c = next();
+		switch (c) {
+			case '(':
+				if (accept('?')) {
+					if (accept('<')) {
+						if (!atEnd() && (peek() == '=' || peek() == '!'))
+							throw unsupported("look behind");
+						while (!accept('>'))
+							next();
+					} else if (!accept(':'))
+						throw unsupported("special group");
+				}
+				RegexNode group = alternation();
+				if (!accept(')'))
+					throw unsupported("unclosed group");
+				return group;
+			case '[':
+				return new RegexNode.Chars(charClass());
+			case '.':
+				return new RegexNode.Chars(CharRanges.DOT);
+			case '\\':
+				return new RegexNode.Chars(escape(false));
+			case '^':
+			case '$':
+				throw unsupported("anchor");
+			default:
+				return new RegexNode.Chars(CharRanges.of(c, c));
+		}
+	}
+
+	private int[] charClass() throws UnsupportedRegexException {
+		boolean negate = accept('^');
+		if (!atEnd() && peek() == ']')
+			throw unsupported("empty character class");
+		int[] result = CharRanges.EMPTY;
+		while (!accept(']')) {
+			if (!atEnd() && (peek() == '[' || regex.startsWith("&&", index)))
+				throw unsupported("nested character class");
+			int[] item;
+			int low;
+			char c = next();
+			if (c == '\\') {
+				item = escape(true);
+				if (item.length != 2 || item[0] != item[1]) {
+					result = CharRanges.union(result, item);
+					continue;
+				}
+				low = item[0];
+			} else
+				low = c;
+			int high = low;
+			if (!atEnd() && peek() == '-' && index + 1 < regex.length() &&
+					regex.charAt(index + 1) != ']') {
+				++index;
+				char h = next();
+				if (h == '\\') {
+					int[] escaped = escape(true);
+					if (escaped.length != 2 || escaped[0] != escaped[1])
+						throw unsupported("malformed range");
+					high = escaped[0];
+				} else
+					high = h;
+			}
+			result = CharRanges.union(result, CharRanges.of(low, high));
+		}
+		if (negate)
+			result = CharRanges.complement(result);
+		int[] supplementary = CharRanges.intersection(result,
+				CharRanges.of(Character.MIN_SUPPLEMENTARY_CODE_POINT,
+						CharRanges.MAX));
+		if (supplementary.length != 0 && (supplementary.length != 2 ||
+				supplementary[0] != Character.MIN_SUPPLEMENTARY_CODE_POINT ||
+				supplementary[1] != CharRanges.MAX))
+			throw unsupported("partial supplementary range");
+		return result;
+	}
+
+	private int[] escape(boolean inClass) throws UnsupportedRegexException {
+		char c = next();
+		switch (c) {
+			case 'd':
+				return CharRanges.DIGIT;
+			case 'D':
+				return CharRanges.complement(CharRanges.DIGIT);
+			case 'w':
+				return CharRanges.WORD;
+			case 'W':
+				return CharRanges.complement(CharRanges.WORD);
+			case 's':
+				return CharRanges.SPACE;
+			case 'S':
+				return CharRanges.complement(CharRanges.SPACE);
+			case 't':
+				return CharRanges.of('\t', '\t');
+			case 'n':
+				return CharRanges.of('\n', '\n');
+			case 'r':
+				return CharRanges.of('\r', '\r');
+			case 'f':
+				return CharRanges.of('\f', '\f');
+			case 'a':
+				return CharRanges.of(7, 7);
+			case 'e':
+				return CharRanges.of(27, 27);
+			case 'x': {
+				int value;
+				if (accept('{')) {
+					int start = index;
+					while (!accept('}'))
+						next();
+					value = Integer.parseInt(
+							regex.substring(start, index - 1), 16);
+				} else
+					value = Integer.parseInt(
+							"" + next() + next(), 16);
+				if (value > Character.MAX_VALUE ||
+						Character.isSurrogate((char)value))
+					throw unsupported("supplementary character");
+				return CharRanges.of(value, value);
+			}
+			case 'u': {
+				int value = Integer.parseInt(
+						"" + next() + next() + next() + next(), 16);
+				if (Character.isSurrogate((char)value))
+					throw unsupported("surrogate character");
+				return CharRanges.of(value, value);
+			}
+			case '0': {
+				int value = 0;
+				for (int i = 0; i < 3 && !atEnd() &&
+						peek() >= '0' && peek() <= '7'; ++i) {
+					int digit = peek() - '0';
+					if (value * 8 + digit > 0377)
+						break;
+					value = value * 8 + digit;
+					++index;
+				}
+				return CharRanges.of(value, value);
+			}
+			case 'c': {
+				char control = next();
+				return CharRanges.of(control ^ 64, control ^ 64);
+			}
+			default:
+				if (Character.isLetterOrDigit(c))
+					throw unsupported("escape \\" + c +
+							(inClass ? " in character class" : ""));
+				return CharRanges.of(c, c);
+		}
+	}
+}
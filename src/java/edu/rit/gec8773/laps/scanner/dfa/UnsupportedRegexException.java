@@ -0,0 +1,11 @@
+package edu.rit.gec8773.laps.scanner.dfa;
+
+/**
+ * Thrown when a regular expression uses a feature which can't be expressed
+ * by a {@link DFALexer}, such as back references or look arounds
+ */
+class UnsupportedRegexException extends Exception {
+	UnsupportedRegexException(String regex, String reason) {
+		super("\"" + regex + "\" can't be converted to a DFA: " + reason);
+	}
+}
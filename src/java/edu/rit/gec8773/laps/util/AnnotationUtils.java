@@ -1,16 +1,25 @@
 package edu.rit.gec8773.laps.util;
 
 import edu.rit.gec8773.laps.annotation.GrammarRule;
+import edu.rit.gec8773.laps.annotation.Infix;
+import edu.rit.gec8773.laps.annotation.Operator;
 import edu.rit.gec8773.laps.annotation.Priority;
+import edu.rit.gec8773.laps.annotation.Separator;
 import edu.rit.gec8773.laps.annotation.Token;
+import edu.rit.gec8773.laps.resources.Resources;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * {@link AnnotationUtils} provides utility functions to aid in finding
@@ -55,7 +64,8 @@ public class AnnotationUtils {
 	/**
 	 * Retrieves all the visible static {@link Method}s, from a given
 	 * {@link Class}, which are annotated with a given {@link Annotation}.
-	 * Finally, stores them to be run at a later time
+	 * Finally, stores them to be run at a later time, through factories
+	 * bound once when method handles are enabled in {@link Resources}
 	 *
 	 * @param cls the method container {@link Class}
 	 * @param annotation the {@link Annotation} to look for
@@ -71,7 +81,27 @@ public class AnnotationUtils {
 			if (Modifier.isStatic(modifiers) && Modifier.isPublic(modifiers))
 				methods.add(method);
 		}
+		if (methods.isEmpty())
+			return ignore -> {};
+		Factories.StaticHook[] hooks = new Factories.StaticHook[methods.size()];
+		for (int i = 0; i < hooks.length; ++i) {
+			if ((hooks[i] = Factories.bindStatic(methods.get(i))) == null) {
+				hooks = null;
+				break;
+			}
+		}
+		Factories.StaticHook[] bound = hooks;
 		return ignore -> {
+			if (bound != null && Resources.instance.methodHandlesEnabled()) {
+				for (Factories.StaticHook hook : bound) {
+					try {
+						hook.run();
+					} catch (Throwable t) {
+						throw new InvocationTargetException(t);
+					}
+				}
+				return;
+			}
 			for (Method method : methods) {
 				try {
 					method.invoke(null);
@@ -83,7 +113,8 @@ public class AnnotationUtils {
 	/**
 	 * Retrieves all the visible instance {@link Method}s, from a given
 	 * {@link Class}, which are annotated with a given {@link Annotation}.
-	 * Finally, stores them to be run at a later time
+	 * Finally, stores them to be run at a later time, through factories
+	 * bound once when method handles are enabled in {@link Resources}
 	 *
 	 * @param cls the method container {@link Class}
 	 * @param annotation the {@link Annotation} to look for
@@ -99,7 +130,30 @@ public class AnnotationUtils {
 			if (!Modifier.isStatic(modifiers) && Modifier.isPublic(modifiers))
 				methods.add(method);
 		}
+		if (methods.isEmpty())
+			return object -> {};
+		Factories.Hook[] hooks = new Factories.Hook[methods.size()];
+		for (int i = 0; i < hooks.length; ++i) {
+			if ((hooks[i] = Factories.bindInstance(methods.get(i))) == null) {
+				hooks = null;
+				break;
+			}
+		}
+		Factories.Hook[] bound = hooks;
 		return object -> {
+			// The object is cast before each hook is called, so one of the
+			// wrong class is left to reflection to report
+			if (bound != null && Resources.instance.methodHandlesEnabled() &&
+					cls.isInstance(object)) {
+				for (Factories.Hook hook : bound) {
+					try {
+						hook.run(object);
+					} catch (Throwable t) {
+						throw new InvocationTargetException(t);
+					}
+				}
+				return;
+			}
 			for (Method method : methods) {
 				try {
 					method.invoke(object);
@@ -112,4 +166,50 @@ public class AnnotationUtils {
 		Priority priority = ctr.getAnnotation(Priority.class);
 		return priority != null ? priority.value() : 0;
     }
+
+	/**
+	 * Gets the name of the token between the elements of a repeated
+	 * grammar rule constructor parameter
+	 *
+	 * @param param the {@link Parameter} to check
+	 * @return the name of the token or null if the {@link Parameter} isn't
+	 * annotated with {@link Separator}
+	 */
+	public static String separator(Parameter param) {
+		Separator separator = param.getAnnotation(Separator.class);
+		return separator != null ? separator.value() : null;
+	}
+
+	/**
+	 * Checks if a given {@link Constructor} is annotated with {@link Infix}
+	 *
+	 * @param ctr the {@link Constructor} to check
+	 * @return true if the {@link Constructor} combines two operands
+	 */
+	public static boolean isInfix(Constructor<?> ctr) {
+		return ctr.getAnnotation(Infix.class) != null;
+	}
+
+	/**
+	 * Retrieves the public static tokens of a given {@link Class} which are
+	 * annotated with {@link Operator}
+	 *
+	 * @param c the {@link Class} declaring the tokens
+	 * @return the {@link Operator} of each token keyed by the token's name
+	 */
+	public static Map<String, Operator> getOperators(Class<?> c) {
+		Map<String, Operator> operators = new LinkedHashMap<>();
+		int pubStat = Modifier.PUBLIC | Modifier.STATIC;
+		for (Field field : c.getFields())
+			if (isToken(field) && field.getAnnotation(Operator.class) != null &&
+					(field.getModifiers() & pubStat) == pubStat)
+				operators.put(field.getName(),
+						field.getAnnotation(Operator.class));
+		for (Method method : c.getMethods())
+			if (isToken(method) && method.getAnnotation(Operator.class) != null &&
+					(method.getModifiers() & pubStat) == pubStat)
+				operators.put(method.getName(),
+						method.getAnnotation(Operator.class));
+		return operators;
+	}
 }
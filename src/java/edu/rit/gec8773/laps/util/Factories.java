@@ -0,0 +1,222 @@
+package edu.rit.gec8773.laps.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * {@link Factories} binds grammar rule constructors and hooks with
+ * {@link LambdaMetafactory}, which generates a class for each one whose
+ * method calls it directly, so the JIT can inline the call like any other.
+ * The generated method casts its arguments to the parameter types before
+ * the call, so an argument of the wrong type is reported before the
+ * constructor or hook runs.
+ */
+final class Factories {
+
+	/**
+	 * Creates an instance of a grammar rule from the arguments of its
+	 * constructor. Each factory implements the interface below for the
+	 * number of arguments, which it is called through directly, so each
+	 * call is dispatched once.
+	 */
+	interface Factory {}
+
+	interface Factory0 extends Factory {
+		Object create() throws Throwable;
+	}
+
+	interface Factory1 extends Factory {
+		Object create(Object a) throws Throwable;
+	}
+
+	interface Factory2 extends Factory {
+		Object create(Object a, Object b) throws Throwable;
+	}
+
+	interface Factory3 extends Factory {
+		Object create(Object a, Object b, Object c) throws Throwable;
+	}
+
+	interface Factory4 extends Factory {
+		Object create(Object a, Object b, Object c, Object d)
+				throws Throwable;
+	}
+
+	interface Factory5 extends Factory {
+		Object create(Object a, Object b, Object c, Object d, Object e)
+				throws Throwable;
+	}
+
+	interface Factory6 extends Factory {
+		Object create(Object a, Object b, Object c, Object d, Object e,
+					  Object f) throws Throwable;
+	}
+
+	/**
+	 * The interface of the factories of constructors with as many
+	 * parameters as the index
+	 */
+	private static final Class<?>[] FACTORIES = {
+			Factory0.class, Factory1.class, Factory2.class, Factory3.class,
+			Factory4.class, Factory5.class, Factory6.class
+	};
+
+	/**
+	 * Runs a static hook
+	 */
+	interface StaticHook {
+		void run() throws Throwable;
+	}
+
+	/**
+	 * Runs an instance hook on an instance of its grammar rule
+	 */
+	interface Hook {
+		void run(Object object) throws Throwable;
+	}
+
+	private Factories() {}
+
+	/**
+	 * Binds a grammar rule constructor into a {@link Factory}
+	 *
+	 * @param constructor the grammar rule constructor
+	 * @return the {@link Factory} or null if the constructor can't be bound
+	 */
+	static Factory bind(Constructor<?> constructor) {
+		int count = constructor.getParameterCount();
+		if (count >= FACTORIES.length || !bindable(constructor))
+			return null;
+		try {
+			MethodHandle target =
+					MethodHandles.lookup().unreflectConstructor(constructor);
+			return (Factory)metafactory(FACTORIES[count], "create",
+					MethodType.genericMethodType(count), target);
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates an instance of a grammar rule with a {@link Factory}
+	 *
+	 * @param factory the {@link Factory} of the constructor
+	 * @param args as many arguments as the constructor has parameters
+	 * @return the new instance
+	 * @throws Throwable what the generated method or the constructor throws
+	 */
+	static Object create(Factory factory, Object[] args) throws Throwable {
+		switch (args.length) {
+			case 0:
+				return ((Factory0)factory).create();
+			case 1:
+				return ((Factory1)factory).create(args[0]);
+			case 2:
+				return ((Factory2)factory).create(args[0], args[1]);
+			case 3:
+				return ((Factory3)factory).create(args[0], args[1], args[2]);
+			case 4:
+				return ((Factory4)factory).create(args[0], args[1], args[2],
+						args[3]);
+			case 5:
+				return ((Factory5)factory).create(args[0], args[1], args[2],
+						args[3], args[4]);
+			default:
+				return ((Factory6)factory).create(args[0], args[1], args[2],
+						args[3], args[4], args[5]);
+		}
+	}
+
+	/**
+	 * Binds a public static hook into a {@link StaticHook}
+	 *
+	 * @param method the hook
+	 * @return the {@link StaticHook} or null if the hook can't be bound
+	 */
+	static StaticHook bindStatic(Method method) {
+		if (method.getParameterCount() != 0 || !bindable(method))
+			return null;
+		try {
+			return (StaticHook)metafactory(StaticHook.class, "run",
+					MethodType.methodType(void.class),
+					MethodHandles.lookup().unreflect(method));
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Binds a public instance hook into a {@link Hook}
+	 *
+	 * @param method the hook
+	 * @return the {@link Hook} or null if the hook can't be bound
+	 */
+	static Hook bindInstance(Method method) {
+		if (method.getParameterCount() != 0 || !bindable(method))
+			return null;
+		try {
+			return (Hook)metafactory(Hook.class, "run",
+					MethodType.methodType(void.class, Object.class),
+					MethodHandles.lookup().unreflect(method));
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Checks that the generated class can call a constructor or method
+	 * directly. Its class has to be found by name from this class's
+	 * {@link ClassLoader}, which isn't the case for grammars compiled while
+	 * running, and its parameters can't be primitive since the arguments
+	 * are only cast and not widened like through reflection.
+	 */
+	private static boolean bindable(Executable executable) {
+		Class<?> cls = executable.getDeclaringClass();
+		if (!Modifier.isPublic(executable.getModifiers()) ||
+				!Modifier.isPublic(cls.getModifiers()))
+			return false;
+		for (Class<?> type : executable.getParameterTypes())
+			if (type.isPrimitive())
+				return false;
+		try {
+			return Class.forName(cls.getName(), false,
+					Factories.class.getClassLoader()) == cls;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Generates an instance of a functional interface which calls a target
+	 * directly
+	 *
+	 * @param type the functional interface
+	 * @param name the name of its method
+	 * @param erased the type of its method
+	 * @param target the constructor or method to call
+	 * @return the instance or null if it can't be generated
+	 */
+	private static Object metafactory(Class<?> type, String name,
+									  MethodType erased, MethodHandle target) {
+		MethodType instantiated = erased.returnType() == void.class ?
+				target.type().changeReturnType(void.class) :
+				target.type();
+		try {
+			CallSite site = LambdaMetafactory.metafactory(
+					MethodHandles.lookup(), name, MethodType.methodType(type),
+					erased, target, instantiated);
+			return site.getTarget().invoke();
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable t) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package edu.rit.gec8773.laps.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A hash map from {@code int} keys to values which stores the keys in a
+ * primitive array, so neither looking up nor adding a key boxes it
+ *
+ * @param <V> the type of the values
+ */
+public class IntMap<V> implements Serializable {
+	private int[] keys = new int[16];
+	private Object[] values = new Object[16];
+	private int size = 0;
+
+	/**
+	 * Gets the value of a key
+	 *
+	 * @param key the key
+	 * @return the value or null if the key has no value
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		int slot = find(keys, values, key);
+		return (V)values[slot];
+	}
+
+	/**
+	 * Sets the value of a key
+	 *
+	 * @param key the key
+	 * @param value the nonnull value
+	 */
+	public void put(int key, V value) {
+		int slot = find(keys, values, key);
+		if (values[slot] == null) {
+			if ((size + 1) * 2 > keys.length) {
+				grow();
+				slot = find(keys, values, key);
+			}
+			++size;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+	}
+
+	/**
+	 * Gets the amount of keys with a value
+	 *
+	 * @return the amount of keys
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes every key
+	 */
+	public void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	/**
+	 * Finds the slot of a key, or the empty slot where it would be added,
+	 * with linear probing
+	 */
+	private static int find(int[] keys, Object[] values, int key) {
+		int mask = keys.length - 1;
+		int hash = key * 0x9E3779B9;
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		while (values[slot] != null && keys[slot] != key)
+			slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	private void grow() {
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new int[oldKeys.length * 2];
+		values = new Object[oldValues.length * 2];
+		for (int i = 0; i < oldKeys.length; ++i)
+			if (oldValues[i] != null) {
+				int slot = find(keys, values, oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+	}
+}
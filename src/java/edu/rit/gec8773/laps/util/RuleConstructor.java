@@ -0,0 +1,83 @@
+package edu.rit.gec8773.laps.util;
+
+import edu.rit.gec8773.laps.resources.Resources;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * {@link RuleConstructor} creates instances of a grammar rule with one of its
+ * constructors, which is looked up once when the grammar is built or loaded.
+ * The constructor is also bound into a factory generated for it, which is
+ * used instead of {@link Constructor#newInstance(Object...)} when method
+ * handles are enabled in {@link Resources}.
+ *
+ * @see Resources#methodHandlesEnabled()
+ */
+public final class RuleConstructor {
+	private final Constructor<?> constructor;
+
+	/**
+	 * The bound constructor or null if it can't be bound
+	 */
+	private final Factories.Factory factory;
+
+	/**
+	 * Class constructor which binds a grammar rule constructor
+	 *
+	 * @param constructor the grammar rule constructor
+	 */
+	public RuleConstructor(Constructor<?> constructor) {
+		this.constructor = constructor;
+		this.factory = Factories.bind(constructor);
+	}
+
+	/**
+	 * Gets the grammar rule constructor
+	 *
+	 * @return the {@link Constructor}
+	 */
+	public Constructor<?> getConstructor() {
+		return constructor;
+	}
+
+	/**
+	 * Creates an instance of the grammar rule
+	 *
+	 * @param args the arguments of the constructor
+	 * @return the new instance or null if the constructor isn't accessible
+	 * @throws InvocationTargetException when the constructor throws an
+	 * exception
+	 * @throws InstantiationException when the grammar rule is abstract
+	 */
+	public Object newInstance(Object[] args)
+			throws InvocationTargetException, InstantiationException {
+		if (factory != null && Resources.instance.methodHandlesEnabled() &&
+				args.length == constructor.getParameterCount()) {
+			try {
+				return Factories.create(factory, args);
+			} catch (Throwable t) {
+				// The arguments are cast before the constructor is called, so
+				// it only threw this if they all have the right type
+				if (accepts(args))
+					throw new InvocationTargetException(t);
+			}
+		}
+		try {
+			return constructor.newInstance(args);
+		} catch (IllegalAccessException ignored) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return true if each argument can be passed to the constructor
+	 */
+	private boolean accepts(Object[] args) {
+		Class<?>[] types = constructor.getParameterTypes();
+		for (int i = 0; i < args.length; ++i)
+			if (args[i] != null && !types[i].isInstance(args[i]))
+				return false;
+		return true;
+	}
+}
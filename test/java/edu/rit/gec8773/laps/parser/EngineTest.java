@@ -0,0 +1,186 @@
+package edu.rit.gec8773.laps.parser;
+
+import edu.rit.gec8773.laps.parser.bottomUp.LALRParser;
+import edu.rit.gec8773.laps.parser.earley.EarleyParser;
+import edu.rit.gec8773.laps.parser.ll.LLParser;
+import edu.rit.gec8773.laps.parser.ll.LLParserTest;
+import edu.rit.gec8773.laps.parser.topDown.ExplicitStackParser;
+import edu.rit.gec8773.laps.parser.topDown.ExplicitStackParserTest.Items;
+import edu.rit.gec8773.laps.parser.topDown.LeftRecursionTest;
+import edu.rit.gec8773.laps.parser.topDown.LeftRecursionTest.Sum;
+import edu.rit.gec8773.laps.parser.topDown.OperatorParserTest.Expression;
+import edu.rit.gec8773.laps.parser.topDown.RepetitionParserTest.Group;
+import edu.rit.gec8773.laps.parser.topDown.TopDownParser;
+import edu.rit.gec8773.laps.scanner.CustomScanner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks that each engine the "-p" option can set gives the same result as
+ * the recursive engine on the grammars of the tests of each feature, and
+ * the same result as the iterative engine on input nested too deeply for
+ * the recursive one. The grammars and what each engine does on its own
+ * are tested next to them.
+ */
+@RunWith(Parameterized.class)
+public class EngineTest {
+
+    /**
+     * Creates the {@link Parser} of an engine for a grammar
+     */
+    private interface Engine {
+        Parser create(Parser head) throws InvocationTargetException;
+    }
+
+    private static final Engine RECURSIVE = head -> head;
+    private static final Engine ITERATIVE = ExplicitStackParser::new;
+
+    @Parameters(name = "{0}")
+    public static List<Object[]> engines() {
+        return List.of(
+                new Object[] { "iterative", ITERATIVE },
+                new Object[] { "ll", (Engine)LLParser::new },
+                new Object[] { "lalr", (Engine)LALRParser::new },
+                new Object[] { "earley", (Engine)EarleyParser::new });
+    }
+
+    @Parameter(0)
+    public String name;
+
+    @Parameter(1)
+    public Engine engine;
+
+    /**
+     * @return whether the engine accepts grammars which aren't LL(1), such
+     * as ones with left recursive or infix rules
+     */
+    private boolean anyGrammar() {
+        return !name.equals("ll");
+    }
+
+    /**
+     * Parses each input with the engine and with another engine on threads
+     * with a small stack, and checks they give the same result and stop at
+     * the same position
+     *
+     * @param reference the engine the results are compared with
+     * @param rule the top grammar rule
+     * @param describe turns an abstract syntax tree into the text compared
+     * @param inputs the inputs to parse
+     */
+    private void assertSameResult(Engine reference, Class<?> rule,
+                                  Function<Object, String> describe,
+                                  String... inputs) throws Exception {
+        Parser head = TopDownParser.grammarRule(rule);
+        Parser expected = reference.create(head);
+        Parser actual = engine.create(head);
+        for (String input : inputs)
+            assertEquals(input.length() < 100 ? input : "...",
+                    result(expected, describe, input),
+                    result(actual, describe, input));
+    }
+
+    private static Object result(Parser parser,
+                                 Function<Object, String> describe,
+                                 String input) throws InterruptedException {
+        return SmallStack.run(() -> {
+            CustomScanner sc = new CustomScanner(input);
+            Object AST = parser.parse(sc);
+            return (AST == null ? "nothing" : describe.apply(AST)) +
+                    " up to " + sc.mark();
+        });
+    }
+
+    private static String describe(Object AST) {
+        if (AST instanceof Expression)
+            return ((Expression)AST).text + " = " + ((Expression)AST).value;
+        if (AST instanceof Sum)
+            return ((Sum)AST).text + " = " + ((Sum)AST).value;
+        if (AST instanceof LeftRecursionTest.Call)
+            return ((LeftRecursionTest.Call)AST).text;
+        if (AST instanceof Items)
+            return ((Items)AST).count + " items";
+        return String.valueOf(AST);
+    }
+
+    @Test
+    public void operatorTest() throws Exception {
+        assumeTrue(name + " rejects infix rules", anyGrammar());
+        assertSameResult(RECURSIVE, Expression.class, EngineTest::describe,
+                "1 - 2 - 3", "2 ** 3 ** 2", "1 + 2 * 3 ** 2", "1 * 2 + 3",
+                "(1 + 2) * 3", "1 - 2 * 3 - 4 ** 5 ** 6 * 7", "((1))",
+                "4 +", "1 - 2 )", "+ 4");
+    }
+
+    @Test
+    public void leftRecursionTest() throws Exception {
+        assumeTrue(name + " rejects left recursive rules", anyGrammar());
+        assertSameResult(RECURSIVE, Sum.class, EngineTest::describe,
+                "1 - 2 + 3", "1 - 2 * 3 * 4 + 5", "7 +", "+ 7");
+        assertSameResult(RECURSIVE, LeftRecursionTest.Call.class,
+                EngineTest::describe, "a.b().c()", "a.b", "a().b");
+    }
+
+    @Test
+    public void rightRecursionTest() throws Exception {
+        assumeTrue(name + " rejects rules starting with the same token",
+                anyGrammar());
+        assertSameResult(RECURSIVE, Items.class, EngineTest::describe,
+                "x ".repeat(20) + ";", "x ;", "x x", ";");
+    }
+
+    /**
+     * Each call is also counted when its constructor's hooks run, so the
+     * count is part of the result
+     */
+    @Test
+    public void optionalTest() throws Exception {
+        LLParserTest.Call.created.set(0);
+        assertSameResult(RECURSIVE, LLParserTest.Call.class,
+                AST -> AST + " made " + LLParserTest.Call.created.getAndSet(0),
+                "f(g, h(x!, y()) !, k)! rest", "f", "f!", "f(x)(y)");
+    }
+
+    @Test
+    public void repetitionTest() throws Exception {
+        assertSameResult(RECURSIVE, Group.class, EngineTest::describe,
+                "[a, b ! [c] [] ]", "[]", "[a, ]", "[a b]", "[[a]] ]");
+    }
+
+    @Test
+    public void deepInputTest() throws Exception {
+        int depth = 50_000;
+        // Printing these trees takes as deep a stack as parsing them
+        // recursively, so only how far they go is compared
+        Function<Object, String> type = AST -> AST.getClass().getName();
+        assertSameResult(ITERATIVE, LLParserTest.Call.class, type,
+                "f(".repeat(depth) + "x" + ")".repeat(depth));
+        assertSameResult(ITERATIVE, Group.class, type,
+                "[".repeat(depth) + "]".repeat(depth));
+        if (!anyGrammar())
+            return;
+        assertSameResult(ITERATIVE, Items.class, EngineTest::describe,
+                "x ".repeat(2 * depth) + ";");
+        assertSameResult(ITERATIVE, Expression.class, EngineTest::describe,
+                "(".repeat(depth) + "2 ** 3" + ")".repeat(depth) + " - 1");
+        assertSameResult(ITERATIVE, Sum.class, EngineTest::describe,
+                "1" + " - 2 * 1 + 3".repeat(2 * depth));
+        // The forest of a chain of infix operators keeps every way of
+        // grouping it, so it's only parsed by the deterministic engines
+        if (name.equals("earley"))
+            return;
+        assertSameResult(ITERATIVE, Expression.class, EngineTest::describe,
+                "1 + 2 * 1 - ".repeat(2 * depth) + "0",
+                "1 ** ".repeat(2 * depth) + "2");
+    }
+}
@@ -0,0 +1,73 @@
+package edu.rit.gec8773.laps.parser;
+
+import edu.rit.gec8773.laps.annotation.GrammarRule;
+import edu.rit.gec8773.laps.annotation.Priority;
+import edu.rit.gec8773.laps.annotation.Token;
+import edu.rit.gec8773.laps.parser.topDown.TopDownParser;
+import edu.rit.gec8773.laps.resources.Resources;
+import edu.rit.gec8773.laps.scanner.CustomScanner;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class ParseContextTest {
+
+    @GrammarRule
+    public static class Total {
+        @Token(skip = true)
+        public static final String CONTEXT_TEST_SPACE = " +";
+        @Token(skip = true)
+        public static final String CONTEXT_TEST_COMMENT = "/\\*[^*]*\\*/";
+        @Token
+        public static final String CONTEXT_TEST_NUMBER = "[0-9]+";
+
+        public final int value;
+
+        public Total(String CONTEXT_TEST_NUMBER, Total rest) {
+            value = Integer.parseInt(CONTEXT_TEST_NUMBER) + rest.value;
+        }
+
+        @Priority(1)
+        public Total(String CONTEXT_TEST_NUMBER) {
+            value = Integer.parseInt(CONTEXT_TEST_NUMBER);
+        }
+    }
+
+    private static String input(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= count; ++i)
+            sb.append(i).append(i % 2 == 0 ? " /* even */ " : "\t ");
+        return sb.toString();
+    }
+
+    @Test
+    public void concurrentParseTest() throws Exception {
+        Parser parser = TopDownParser.grammarRule(Total.class);
+        // Adding a skip pattern clears the skip caches, so the parses
+        // below race to build them again
+        Resources.instance.addSkip("\t+");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int task = 0; task < 64; ++task) {
+                int count = 50 + task;
+                results.add(executor.submit(() -> {
+                    Object AST = parser.parse(new ParseContext(
+                            new CustomScanner(input(count))));
+                    return AST instanceof Total &&
+                            ((Total)AST).value == count * (count + 1) / 2;
+                }));
+            }
+            for (Future<Boolean> result : results)
+                assertTrue(result.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package edu.rit.gec8773.laps.parser;
+
+import edu.rit.gec8773.laps.scanner.CustomScanner;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs code on a thread whose stack is too small for a parser which calls
+ * itself once for each level of nesting in deep input, so a test of an
+ * engine which keeps its stack in the heap fails instead of passing on a
+ * large default stack
+ */
+public final class SmallStack {
+
+    private static final long SIZE = 256 * 1024;
+
+    private SmallStack() {}
+
+    /**
+     * Runs code on a thread with a small stack and waits for it
+     *
+     * @param code the code to run
+     * @return what the code returns, or what it throws
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public static Object run(Callable<?> code) throws InterruptedException {
+        AtomicReference<Object> result = new AtomicReference<>();
+        Thread thread = new Thread(null, () -> {
+            try {
+                result.set(code.call());
+            } catch (Throwable t) {
+                result.set(t);
+            }
+        }, "small stack", SIZE);
+        thread.start();
+        thread.join();
+        return result.get();
+    }
+
+    /**
+     * Parses input on a thread with a small stack
+     *
+     * @param parser the {@link Parser}
+     * @param input the input to parse
+     * @return the abstract syntax tree, or what's thrown while parsing
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public static Object parse(Parser parser, String input)
+            throws InterruptedException {
+        return run(() -> parser.parse(new CustomScanner(input)));
+    }
+}
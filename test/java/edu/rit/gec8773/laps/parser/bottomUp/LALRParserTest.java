@@ -0,0 +1,402 @@
+package edu.rit.gec8773.laps.parser.bottomUp;
+
+import edu.rit.gec8773.laps.annotation.GrammarRule;
+import edu.rit.gec8773.laps.annotation.Infix;
+import edu.rit.gec8773.laps.annotation.Operator;
+import edu.rit.gec8773.laps.annotation.Priority;
+import edu.rit.gec8773.laps.annotation.Token;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.SmallStack;
+import edu.rit.gec8773.laps.parser.topDown.TopDownParser;
+import edu.rit.gec8773.laps.scanner.CustomScanner;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.Assert.*;
+
+public class LALRParserTest {
+
+    @GrammarRule
+    public static class Expression {
+        @Token(skip = true)
+        public static final String LALR_TEST_SPACE = " +";
+        @Token
+        public static final String LALR_TEST_NUMBER = "[0-9]+";
+        @Token
+        public static final String LALR_TEST_OPEN = "\\(";
+        @Token
+        public static final String LALR_TEST_CLOSE = "\\)";
+        @Token
+        public static final String LALR_TEST_DOT = "\\.";
+        @Token @Operator(precedence = 1)
+        public static final String LALR_TEST_MINUS = "-";
+        @Token @Operator(precedence = 2)
+        public static final String LALR_TEST_TIMES = "\\*";
+        @Token @Operator(precedence = 3,
+                associativity = Operator.Associativity.RIGHT)
+        public static final String LALR_TEST_POWER = "\\*\\*";
+
+        public final String text;
+
+        @Infix
+        public Expression(Expression left, String operator,
+                          Expression right) {
+            text = left.text.length() + right.text.length() < 100 ?
+                    "(" + left.text + operator + right.text + ")" :
+                    "...";
+        }
+
+        @Priority(-1)
+        public Expression(Expression call, String LALR_TEST_OPEN,
+                          String LALR_TEST_CLOSE) {
+            text = call.text + "()";
+        }
+
+        @Priority(1)
+        public Expression(String LALR_TEST_OPEN, Expression inner,
+                          String LALR_TEST_CLOSE) {
+            text = inner.text;
+        }
+
+        @Priority(2)
+        public Expression(String LALR_TEST_NUMBER, String LALR_TEST_DOT) {
+            text = LALR_TEST_NUMBER + ".";
+        }
+
+        @Priority(3)
+        public Expression(String LALR_TEST_NUMBER) {
+            text = LALR_TEST_NUMBER;
+        }
+    }
+
+    @GrammarRule
+    public static class Choice {
+        @Token
+        public static final String LALR_CONFLICT_X = "x";
+
+        public Choice(First first) {}
+
+        @Priority(1)
+        public Choice(Second second) {}
+    }
+
+    @GrammarRule
+    public static class First {
+        public First(String LALR_CONFLICT_X) {}
+    }
+
+    @GrammarRule
+    public static class Second {
+        public Second(String LALR_CONFLICT_X) {}
+    }
+
+    /**
+     * Like myLanguage, the identifier token is added before the keywords
+     * it also matches
+     */
+    @GrammarRule
+    public static class Statement {
+        @Token(skip = true)
+        public static final String LALR_KEYWORD_SPACE = " +";
+        @Token
+        public static final String LALR_KEYWORD_NAME = "[a-z]+";
+        @Token
+        public static final String LALR_KEYWORD_LET = "let";
+        @Token
+        public static final String LALR_KEYWORD_EQUALS = "=";
+        @Token
+        public static final String LALR_KEYWORD_END = ";";
+
+        public final String text;
+
+        public Statement(String LALR_KEYWORD_LET, Name name,
+                         String LALR_KEYWORD_EQUALS, Name value,
+                         String LALR_KEYWORD_END) {
+            text = "let " + name.text + " be " + value.text;
+        }
+
+        @Priority(1)
+        public Statement(Name name, String LALR_KEYWORD_END) {
+            text = "use " + name.text;
+        }
+    }
+
+    @GrammarRule
+    public static class Name {
+        public final String text;
+
+        public Name(String LALR_KEYWORD_NAME) {
+            text = LALR_KEYWORD_NAME;
+        }
+    }
+
+    /**
+     * Like myObjectLanguage's this, the keyword can also be read as a name
+     * before the same tokens, and which one is read depends on the token
+     * after it
+     */
+    @GrammarRule
+    public static class Target {
+        @Token(skip = true)
+        public static final String LALR_SELF_SPACE = " +";
+        @Token
+        public static final String LALR_SELF_NAME = "[a-z]+";
+        @Token
+        public static final String LALR_SELF_KEYWORD = "self";
+        @Token
+        public static final String LALR_SELF_DOT = "\\.";
+        @Token
+        public static final String LALR_SELF_EQUALS = "=";
+
+        public final String text;
+
+        @Priority(-1)
+        public Target(Variable variable, String LALR_SELF_EQUALS,
+                      String LALR_SELF_NAME) {
+            text = variable.text + " gets " + LALR_SELF_NAME;
+        }
+
+        public Target(Member member, String LALR_SELF_EQUALS,
+                      String LALR_SELF_NAME) {
+            text = member.text + " gets " + LALR_SELF_NAME;
+        }
+
+        @Priority(1)
+        public Target(Self self) {
+            text = self.text;
+        }
+
+        @Priority(2)
+        public Target(Variable variable) {
+            text = variable.text;
+        }
+    }
+
+    @GrammarRule
+    public static class Member {
+        public final String text;
+
+        public Member(Self self, String LALR_SELF_DOT,
+                      String LALR_SELF_NAME) {
+            text = self.text + "." + LALR_SELF_NAME;
+        }
+
+        @Priority(1)
+        public Member(Variable variable, String LALR_SELF_DOT,
+                      String LALR_SELF_NAME) {
+            text = variable.text + "." + LALR_SELF_NAME;
+        }
+    }
+
+    @GrammarRule
+    public static class Self {
+        public final String text = "keyword";
+
+        public Self(String LALR_SELF_KEYWORD) {}
+    }
+
+    @GrammarRule
+    public static class Variable {
+        public final String text;
+
+        public Variable(String LALR_SELF_NAME) {
+            text = "name " + LALR_SELF_NAME;
+        }
+    }
+
+    /**
+     * Each empty rule before the keyword is reduced while choosing between
+     * the keyword and the letter, which adds a state every time
+     */
+    @GrammarRule
+    public static class Padded {
+        @Token
+        public static final String LALR_PADDED_X = "x";
+        @Token
+        public static final String LALR_PADDED_LETTER = "[a-z]";
+
+        public final String text;
+
+        public Padded(Empty a, Empty b, Empty c, Empty d,
+                      String LALR_PADDED_X) {
+            text = "keyword";
+        }
+
+        @Priority(1)
+        public Padded(String LALR_PADDED_LETTER) {
+            text = "letter";
+        }
+    }
+
+    @GrammarRule
+    public static class Empty {
+        public Empty() {}
+    }
+
+    /**
+     * Like myObjectLanguage's TopExpressions, a list of statements can end
+     * after any of them, and a number can start a statement
+     */
+    @GrammarRule
+    public static class Statements {
+        @Token(skip = true)
+        public static final String LALR_LIST_SPACE = " +";
+        @Token
+        public static final String LALR_LIST_NAME = "[a-z]+";
+        @Token
+        public static final String LALR_LIST_NUMBER = "[0-9]+";
+        @Token
+        public static final String LALR_LIST_END = ";";
+
+        public final String text;
+
+        public Statements(Item item, String LALR_LIST_END, Rest rest) {
+            text = item.text + ";" + rest.text;
+        }
+    }
+
+    @GrammarRule
+    public static class Rest {
+        public final String text;
+
+        public Rest(Statements statements) {
+            text = statements.text;
+        }
+
+        public Rest() {
+            text = "";
+        }
+    }
+
+    @GrammarRule
+    public static class Item {
+        public final String text;
+
+        public Item(String LALR_LIST_NAME) {
+            text = LALR_LIST_NAME;
+        }
+
+        @Priority(1)
+        public Item(String LALR_LIST_NUMBER, String LALR_LIST_NAME) {
+            text = LALR_LIST_NUMBER + LALR_LIST_NAME;
+        }
+    }
+
+    private static String parse(Parser parser, String input)
+            throws Exception {
+        return parse(parser, new CustomScanner(input));
+    }
+
+    private static String parse(Parser parser, CustomScanner sc)
+            throws Exception {
+        Object AST = parser.parse(sc);
+        return AST == null ? null : ((Expression)AST).text;
+    }
+
+    private static <T> T parse(Parser parser, String input, Class<T> rule)
+            throws Exception {
+        return parse(parser, new CustomScanner(input), rule);
+    }
+
+    private static <T> T parse(Parser parser, CustomScanner sc,
+                               Class<T> rule) throws Exception {
+        return rule.cast(parser.parse(sc));
+    }
+
+    @Test
+    public void sameResultTest() throws Exception {
+        Parser recursive = TopDownParser.grammarRule(Expression.class);
+        Parser lalr = new LALRParser(recursive);
+        for (String input : new String[] {
+                "1 - 2 - 3", "2 ** 3 ** 2", "1 - 2 * 3 ** 2", "1 * 2 - 3",
+                "(1 - 2) * 3", "1. * 2", "1()() - 2", "(1)() ** 2"
+        })
+            assertEquals(input, parse(recursive, input), parse(lalr, input));
+    }
+
+    @Test
+    public void partialInputTest() throws Exception {
+        Parser lalr = new LALRParser(TopDownParser.grammarRule(
+                Expression.class));
+        CustomScanner sc = new CustomScanner("1 - 2 )");
+        assertEquals("(1-2)", parse(lalr, sc));
+        assertEquals(5, sc.mark());
+        sc = new CustomScanner("1 - ");
+        assertEquals("1", parse(lalr, sc));
+        assertEquals(1, sc.mark());
+        sc = new CustomScanner("- 1");
+        assertNull(lalr.parse(sc));
+        assertEquals(0, sc.mark());
+    }
+
+    /**
+     * The statement starting after the last one which is accepted isn't
+     * complete, so the parse goes back to the end of the last one
+     */
+    @Test
+    public void unfinishedStatementTest() throws Exception {
+        Parser recursive = TopDownParser.grammarRule(Statements.class);
+        Parser lalr = new LALRParser(recursive);
+        for (Parser parser : new Parser[] { recursive, lalr }) {
+            CustomScanner sc = new CustomScanner("a; 1b; 5 ; c");
+            assertEquals("a;1b;", parse(parser, sc, Statements.class).text);
+            assertEquals(6, sc.mark());
+            sc = new CustomScanner("a; 5");
+            assertEquals("a;", parse(parser, sc, Statements.class).text);
+            assertEquals(2, sc.mark());
+            sc = new CustomScanner("5 ;");
+            assertNull(parser.parse(sc));
+            assertEquals(0, sc.mark());
+        }
+    }
+
+    @Test
+    public void conflictTest() throws Exception {
+        Parser head = TopDownParser.grammarRule(Choice.class);
+        InvocationTargetException e = assertThrows(
+                InvocationTargetException.class, () -> new LALRParser(head));
+        assertTrue(e.getTargetException().getMessage().contains("<First>"));
+    }
+
+    @Test
+    public void keywordTest() throws Exception {
+        Parser lalr = new LALRParser(TopDownParser.grammarRule(
+                Statement.class));
+        assertEquals("let x be y",
+                parse(lalr, "let x = y;", Statement.class).text);
+        assertEquals("let let be let",
+                parse(lalr, "let let = let;", Statement.class).text);
+        assertEquals("use let", parse(lalr, "let;", Statement.class).text);
+        assertEquals("use x", parse(lalr, "x;", Statement.class).text);
+        Parser recursive = TopDownParser.grammarRule(Padded.class);
+        Parser padded = new LALRParser(recursive);
+        assertEquals(parse(recursive, "x", Padded.class).text,
+                parse(padded, "x", Padded.class).text);
+    }
+
+    @Test
+    public void keywordPriorityTest() throws Exception {
+        Parser recursive = TopDownParser.grammarRule(Target.class);
+        Parser lalr = new LALRParser(recursive);
+        for (Parser parser : new Parser[] { recursive, lalr }) {
+            assertEquals("keyword.x gets y",
+                    parse(parser, "self.x = y", Target.class).text);
+            assertEquals("name a.x gets y",
+                    parse(parser, "a.x = y", Target.class).text);
+            assertEquals("name self gets y",
+                    parse(parser, "self = y", Target.class).text);
+            assertEquals("keyword", parse(parser, "self", Target.class).text);
+            assertEquals("name a", parse(parser, "a", Target.class).text);
+        }
+    }
+
+    @Test
+    public void longInputTest() throws Exception {
+        Parser lalr = new LALRParser(TopDownParser.grammarRule(
+                Expression.class));
+        int count = 100_000;
+        String input = "2 ** ".repeat(count) + "2";
+        assertTrue(SmallStack.parse(lalr, input) instanceof Expression);
+    }
+}
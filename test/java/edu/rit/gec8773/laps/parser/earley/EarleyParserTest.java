@@ -0,0 +1,133 @@
+package edu.rit.gec8773.laps.parser.earley;
+
+import edu.rit.gec8773.laps.annotation.GrammarRule;
+import edu.rit.gec8773.laps.annotation.Priority;
+import edu.rit.gec8773.laps.annotation.Token;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.SmallStack;
+import edu.rit.gec8773.laps.parser.topDown.OperatorParserTest.Expression;
+import edu.rit.gec8773.laps.parser.topDown.TopDownParser;
+import edu.rit.gec8773.laps.resources.Resources;
+import edu.rit.gec8773.laps.scanner.CustomScanner;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EarleyParserTest {
+
+    @GrammarRule
+    public static class Statement {
+        @Token(skip = true)
+        public static final String EARLEY_AMBIGUOUS_SPACE = " +";
+        @Token
+        public static final String EARLEY_AMBIGUOUS_ASSIGN = "=";
+
+        public final String text;
+
+        public Statement(Word target, String EARLEY_AMBIGUOUS_ASSIGN,
+                         Word value) {
+            text = target.text + "=" + value.text;
+        }
+
+        public Statement(Word value) {
+            text = value.text;
+        }
+
+        public Statement(Word first, Word second) {
+            text = "pair " + first.text + " " + second.text;
+        }
+
+        @Priority(1)
+        public Statement(List<Word> words) {
+            StringBuilder sb = new StringBuilder("list");
+            for (Word word : words)
+                sb.append(' ').append(word.text);
+            text = sb.toString();
+        }
+    }
+
+    @GrammarRule
+    public static class Word {
+        @Token
+        public static final String EARLEY_AMBIGUOUS_WORD = "[a-z]+";
+
+        public final String text;
+
+        public Word(String EARLEY_AMBIGUOUS_WORD) {
+            text = EARLEY_AMBIGUOUS_WORD;
+        }
+    }
+
+    private static String parse(Parser parser, String input)
+            throws Exception {
+        return parse(parser, new CustomScanner(input));
+    }
+
+    private static String parse(Parser parser, CustomScanner sc)
+            throws Exception {
+        Object AST = parser.parse(sc);
+        return AST == null ? null : ((Expression)AST).text;
+    }
+
+    @Test
+    public void sameResultTest() throws Exception {
+        Parser recursive = TopDownParser.grammarRule(Expression.class);
+        Parser earley = new EarleyParser(recursive);
+        for (String input : new String[] {
+                "1 - 2 - 3", "2 ** 3 ** 2", "1 - 2 * 3 ** 2", "1 * 2 - 3",
+                "(1 - 2) * 3", "1 - 2 * 3 - 4 ** 5 ** 6 * 7", "((1))"
+        })
+            assertEquals(input, parse(recursive, input), parse(earley, input));
+    }
+
+    @Test
+    public void partialInputTest() throws Exception {
+        Parser earley = new EarleyParser(TopDownParser.grammarRule(
+                Expression.class));
+        CustomScanner sc = new CustomScanner("1 - 2 )");
+        assertEquals("(1-2)", parse(earley, sc));
+        assertEquals(5, sc.mark());
+        sc = new CustomScanner("1 - ");
+        assertEquals("1", parse(earley, sc));
+        assertEquals(1, sc.mark());
+        sc = new CustomScanner("- 1");
+        assertNull(earley.parse(sc));
+        assertEquals(0, sc.mark());
+    }
+
+    @Test
+    public void ambiguousRulesTest() throws Exception {
+        Resources.instance.enableAmbiguousRules();
+        Parser earley;
+        try {
+            earley = new EarleyParser(TopDownParser.grammarRule(
+                    Statement.class));
+        } finally {
+            Resources.instance.disableAmbiguousRules();
+        }
+        String[][] cases = {
+                {"a = b", "a=b"},
+                {"a", "a"},
+                {"a b", "pair a b"},
+                {"a b c", "list a b c"}
+        };
+        for (String[] test : cases) {
+            Object AST = earley.parse(new CustomScanner(test[0]));
+            assertEquals(test[0], test[1], ((Statement)AST).text);
+        }
+    }
+
+    @Test
+    public void longInputTest() throws Exception {
+        Parser earley = new EarleyParser(TopDownParser.grammarRule(
+                Expression.class));
+        int count = 50_000;
+        String input = "(".repeat(count) + "2 ** 3" + ")".repeat(count) +
+                " - 1";
+        Object AST = SmallStack.parse(earley, input);
+        assertTrue(String.valueOf(AST), AST instanceof Expression);
+        assertEquals("((2**3)-1)", ((Expression)AST).text);
+    }
+}
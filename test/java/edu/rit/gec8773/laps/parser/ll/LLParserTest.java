@@ -0,0 +1,137 @@
+package edu.rit.gec8773.laps.parser.ll;
+
+import edu.rit.gec8773.laps.annotation.GrammarRule;
+import edu.rit.gec8773.laps.annotation.Priority;
+import edu.rit.gec8773.laps.annotation.RunAfterEachInit;
+import edu.rit.gec8773.laps.annotation.Separator;
+import edu.rit.gec8773.laps.annotation.Token;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.SmallStack;
+import edu.rit.gec8773.laps.parser.topDown.TopDownParser;
+import edu.rit.gec8773.laps.scanner.CustomScanner;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class LLParserTest {
+
+    @GrammarRule
+    public static class Call {
+        @Token(skip = true)
+        public static final String LL_TEST_SPACE = " +";
+        @Token
+        public static final String LL_TEST_NAME = "[a-z]+";
+        @Token
+        public static final String LL_TEST_OPEN = "\\(";
+        @Token
+        public static final String LL_TEST_CLOSE = "\\)";
+        @Token
+        public static final String LL_TEST_COMMA = ",";
+        @Token
+        public static final String LL_TEST_BANG = "!";
+
+        public static final AtomicInteger created = new AtomicInteger();
+
+        public final String name;
+        public final Optional<Arguments> arguments;
+        public final Optional<String> bang;
+
+        public Call(String LL_TEST_NAME, Optional<Arguments> arguments,
+                    Optional<String> LL_TEST_BANG) {
+            name = LL_TEST_NAME;
+            this.arguments = arguments;
+            bang = LL_TEST_BANG;
+        }
+
+        @RunAfterEachInit
+        public void count() {
+            created.incrementAndGet();
+        }
+
+        @Override
+        public String toString() {
+            return name + arguments.map(Object::toString).orElse("") +
+                    bang.orElse("");
+        }
+    }
+
+    @GrammarRule
+    public static class Arguments {
+        public final List<Call> calls;
+
+        public Arguments(String LL_TEST_OPEN,
+                         @Separator("LL_TEST_COMMA") List<Call> calls,
+                         String LL_TEST_CLOSE) {
+            this.calls = calls;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("(");
+            for (Call call : calls)
+                sb.append(call).append(call == calls.get(calls.size() - 1) ?
+                        "" :
+                        ",");
+            return sb.append(")").toString();
+        }
+    }
+
+    @GrammarRule
+    public static class Pair {
+        @Token
+        public static final String LL_CONFLICT_X = "x";
+        @Token
+        public static final String LL_CONFLICT_Y = "y";
+
+        public Pair(String LL_CONFLICT_X, String LL_CONFLICT_Y) {}
+
+        @Priority(1)
+        public Pair(String LL_CONFLICT_X) {}
+    }
+
+    @Test
+    public void sameResultTest() throws Exception {
+        Parser recursive = TopDownParser.grammarRule(Call.class);
+        Parser ll = new LLParser(recursive);
+        String input = "f(g, h(x!, y()) !, k)! rest";
+        CustomScanner sc = new CustomScanner(input);
+        Object expected = recursive.parse(sc);
+        int end = sc.mark();
+        Call.created.set(0);
+        sc = new CustomScanner(input);
+        Object AST = ll.parse(sc);
+        assertEquals(String.valueOf(expected), String.valueOf(AST));
+        assertEquals(end, sc.mark());
+        assertEquals(6, Call.created.get());
+    }
+
+    @Test
+    public void rejectTest() throws Exception {
+        Parser ll = new LLParser(TopDownParser.grammarRule(Call.class));
+        CustomScanner sc = new CustomScanner("f(g, h");
+        assertNull(ll.parse(sc));
+        assertEquals(0, sc.mark());
+    }
+
+    @Test
+    public void conflictTest() throws Exception {
+        Parser head = TopDownParser.grammarRule(Pair.class);
+        InvocationTargetException e = assertThrows(
+                InvocationTargetException.class, () -> new LLParser(head));
+        assertTrue(e.getTargetException().getMessage()
+                    .contains("<LL_CONFLICT_X>"));
+    }
+
+    @Test
+    public void deepInputTest() throws Exception {
+        Parser ll = new LLParser(TopDownParser.grammarRule(Call.class));
+        int depth = 50_000;
+        String input = "f(".repeat(depth) + "x" + ")".repeat(depth);
+        assertTrue(SmallStack.parse(ll, input) instanceof Call);
+    }
+}
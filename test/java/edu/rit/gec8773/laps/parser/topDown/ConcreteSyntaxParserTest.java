@@ -0,0 +1,215 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.annotation.GrammarRule;
+import edu.rit.gec8773.laps.annotation.Infix;
+import edu.rit.gec8773.laps.annotation.Operator;
+import edu.rit.gec8773.laps.annotation.Priority;
+import edu.rit.gec8773.laps.annotation.RunAfterEachInit;
+import edu.rit.gec8773.laps.annotation.RunBeforeEachInit;
+import edu.rit.gec8773.laps.annotation.RunBeforeFirstInit;
+import edu.rit.gec8773.laps.annotation.Token;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.SmallStack;
+import edu.rit.gec8773.laps.parser.cst.ConcreteSyntaxTree;
+import edu.rit.gec8773.laps.parser.cst.Cursor;
+import edu.rit.gec8773.laps.parser.cst.Visitor;
+import edu.rit.gec8773.laps.resources.Resources;
+import edu.rit.gec8773.laps.scanner.CustomScanner;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class ConcreteSyntaxParserTest {
+
+    private static int hooks = 0;
+
+    @GrammarRule
+    public static class Call {
+        @Token(skip = true)
+        public static final String CST_TEST_SPACE = " +";
+        @Token
+        public static final String CST_TEST_NAME = "[a-z]+";
+        @Token
+        public static final String CST_TEST_OPEN = "\\(";
+        @Token
+        public static final String CST_TEST_CLOSE = "\\)";
+        @Token
+        public static final String CST_TEST_BANG = "!";
+
+        @RunBeforeFirstInit
+        public static void once() {
+            ++hooks;
+        }
+
+        public Call(String CST_TEST_NAME, String CST_TEST_OPEN,
+                    List<Sum> arguments, String CST_TEST_CLOSE,
+                    Optional<String> CST_TEST_BANG) {
+            ++hooks;
+        }
+    }
+
+    @GrammarRule
+    public static class Sum {
+        @Token
+        public static final String CST_TEST_NUMBER = "[0-9]+";
+        @Token @Operator(precedence = 1)
+        public static final String CST_TEST_PLUS = "\\+";
+
+        @RunBeforeEachInit
+        public static void before() {
+            ++hooks;
+        }
+
+        @Infix
+        public Sum(Sum left, String operator, Sum right) {
+            ++hooks;
+        }
+
+        @Priority(1)
+        public Sum(String CST_TEST_NUMBER) {
+            ++hooks;
+        }
+
+        @Priority(2)
+        public Sum(String CST_TEST_OPEN, Sum inner, String CST_TEST_CLOSE) {
+            ++hooks;
+        }
+
+        @RunAfterEachInit
+        public void after() {
+            ++hooks;
+        }
+    }
+
+    private static ConcreteSyntaxTree parse(String input) throws Exception {
+        Parser parser = new ConcreteSyntaxParser(
+                TopDownParser.grammarRule(Call.class));
+        return (ConcreteSyntaxTree)parser.parse(new CustomScanner(input));
+    }
+
+    @Test
+    public void shapeTest() throws Exception {
+        hooks = 0;
+        ConcreteSyntaxTree tree = parse("f(1 + 2 3)!");
+        assertEquals(0, hooks);
+        assertEquals(String.join("\n",
+                "<Call> #0 0..11",
+                "  <CST_TEST_NAME> 0..1",
+                "  <CST_TEST_OPEN> 1..2",
+                "  <Sum> #infix 2..7",
+                "    <Sum> #0 2..3",
+                "      <CST_TEST_NUMBER> 2..3",
+                "    <CST_TEST_PLUS> 4..5",
+                "    <Sum> #0 6..7",
+                "      <CST_TEST_NUMBER> 6..7",
+                "  <Sum> #0 8..9",
+                "    <CST_TEST_NUMBER> 8..9",
+                "  <CST_TEST_CLOSE> 9..10",
+                "  <CST_TEST_BANG> 10..11",
+                ""), tree.toString());
+        assertEquals(13, tree.size());
+        assertNull(parse("f(1 +"));
+        Resources.instance.enableMemoization();
+        try {
+            assertEquals(tree.toString(), parse("f(1 + 2 3)!").toString());
+        } finally {
+            Resources.instance.disableMemoization();
+        }
+    }
+
+    @Test
+    public void cursorTest() throws Exception {
+        ConcreteSyntaxTree tree = parse("g((4))");
+        Cursor cursor = tree.cursor();
+        assertFalse(cursor.gotoParent());
+        assertFalse(cursor.gotoNextSibling());
+        assertEquals("<Call>", tree.getRuleName(cursor.getRule()));
+        assertTrue(cursor.gotoFirstChild());
+        assertTrue(cursor.isToken());
+        assertFalse(cursor.gotoFirstChild());
+        assertTrue(cursor.gotoNextSibling());
+        assertTrue(cursor.gotoNextSibling());
+        assertEquals("<Sum>", cursor.getName());
+        assertEquals(1, cursor.getAlternative());
+        assertEquals(2, cursor.getStart());
+        assertEquals(5, cursor.getEnd());
+        assertTrue(cursor.gotoFirstChild());
+        assertTrue(cursor.gotoNextSibling());
+        assertTrue(cursor.gotoFirstChild());
+        assertEquals("<CST_TEST_NUMBER>", cursor.getName());
+        assertEquals(3, cursor.getDepth());
+        assertFalse(cursor.gotoNextSibling());
+        assertTrue(cursor.gotoParent());
+        assertTrue(cursor.gotoNextSibling());
+        assertEquals("<CST_TEST_CLOSE>", cursor.getName());
+        assertFalse(cursor.gotoNextSibling());
+        assertTrue(cursor.gotoParent());
+        assertTrue(cursor.gotoNextSibling());
+        assertEquals("<CST_TEST_CLOSE>", cursor.getName());
+        assertFalse(cursor.gotoNextSibling());
+    }
+
+    @Test
+    public void visitorTest() throws Exception {
+        ConcreteSyntaxTree tree = parse("h(1 + 2 + 3)");
+        StringBuilder sb = new StringBuilder();
+        tree.accept(new Visitor() {
+            @Override
+            public boolean enterRule(ConcreteSyntaxTree tree, int node) {
+                sb.append('[');
+                return tree.getAlternative(node) ==
+                        ConcreteSyntaxTree.INFIX;
+            }
+
+            @Override
+            public void exitRule(ConcreteSyntaxTree tree, int node) {
+                sb.append(']');
+            }
+
+            @Override
+            public void visitToken(ConcreteSyntaxTree tree, int node) {
+                sb.append(tree.getStart(node));
+            }
+        });
+        assertEquals("[]", sb.toString());
+        sb.setLength(0);
+        tree.accept(new Visitor() {
+            @Override
+            public void visitToken(ConcreteSyntaxTree tree, int node) {
+                sb.append(tree.getStart(node)).append(' ');
+            }
+        });
+        assertEquals("0 1 2 4 6 8 10 11 ", sb.toString());
+    }
+
+    @Test
+    public void deepInputTest() throws Exception {
+        Parser parser = new ConcreteSyntaxParser(
+                TopDownParser.grammarRule(Call.class));
+        int count = 50_000;
+        String input = "f(" + "(".repeat(count) + "1" + ")".repeat(count) +
+                ")";
+        Object result = SmallStack.run(() -> {
+            ConcreteSyntaxTree tree = (ConcreteSyntaxTree)parser.parse(
+                    new CustomScanner(input));
+            int[] depth = { 0, 0 };
+            tree.accept(new Visitor() {
+                @Override
+                public boolean enterRule(ConcreteSyntaxTree tree, int node) {
+                    depth[1] = Math.max(depth[1], ++depth[0]);
+                    return true;
+                }
+
+                @Override
+                public void exitRule(ConcreteSyntaxTree tree, int node) {
+                    --depth[0];
+                }
+            });
+            return depth[1];
+        });
+        assertEquals(count + 2, result);
+    }
+}
@@ -0,0 +1,112 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.annotation.GrammarRule;
+import edu.rit.gec8773.laps.annotation.Priority;
+import edu.rit.gec8773.laps.annotation.RunAfterEachInit;
+import edu.rit.gec8773.laps.annotation.RunBeforeEachInit;
+import edu.rit.gec8773.laps.annotation.Token;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.resources.Resources;
+import edu.rit.gec8773.laps.scanner.CustomScanner;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class DeferredConstructionTest {
+
+    private static final StringBuilder events = new StringBuilder();
+
+    @GrammarRule
+    public static class Statement {
+        @Token(skip = true)
+        public static final String DEFER_TEST_SPACE = " +";
+        @Token
+        public static final String DEFER_TEST_SEMI = ";";
+        @Token
+        public static final String DEFER_TEST_COMMA = ",";
+
+        public final String text;
+
+        public Statement(List<Item> items, String DEFER_TEST_SEMI) {
+            StringBuilder sb = new StringBuilder();
+            for (Item item : items)
+                sb.append(item.name);
+            text = sb.append(';').toString();
+        }
+
+        @Priority(1)
+        public Statement(Item[] items, String DEFER_TEST_COMMA,
+                         Optional<Item> last) {
+            StringBuilder sb = new StringBuilder();
+            for (Item item : items)
+                sb.append(item.name);
+            sb.append(',');
+            last.ifPresent(item -> sb.append(item.name));
+            text = sb.toString();
+        }
+    }
+
+    @GrammarRule
+    public static class Item {
+        @Token
+        public static final String DEFER_TEST_NAME = "[a-z]+";
+
+        public final String name;
+
+        @RunBeforeEachInit
+        public static void before() {
+            events.append('<');
+        }
+
+        public Item(String DEFER_TEST_NAME) {
+            name = DEFER_TEST_NAME;
+            events.append(name);
+        }
+
+        @RunAfterEachInit
+        public void after() {
+            events.append('>');
+        }
+    }
+
+    private static String parse(Parser parser, String input)
+            throws Exception {
+        events.setLength(0);
+        Object AST = parser.parse(new CustomScanner(input));
+        return AST == null ? null : ((Statement)AST).text;
+    }
+
+    @Test
+    public void deferredTest() throws Exception {
+        Parser recursive = TopDownParser.grammarRule(Statement.class);
+        Parser iterative = new ExplicitStackParser(recursive);
+        Resources.instance.enableDeferredConstruction();
+        try {
+            for (Parser parser : new Parser[] { recursive, iterative }) {
+                assertEquals("ab,c", parse(parser, "a b , c"));
+                assertEquals("<a><b><c>", events.toString());
+                assertEquals("ab,", parse(parser, "a b ,"));
+                assertEquals("<a><b>", events.toString());
+                assertEquals("ab;", parse(parser, "a b ;"));
+                assertEquals("<a><b>", events.toString());
+                assertNull(parse(parser, "a b"));
+                assertEquals("", events.toString());
+                assertEquals("a".repeat(100) + ";",
+                        parse(parser, "a ".repeat(100) + ";"));
+                assertEquals("<a>".repeat(100), events.toString());
+            }
+        } finally {
+            Resources.instance.disableDeferredConstruction();
+        }
+    }
+
+    @Test
+    public void eagerTest() throws Exception {
+        Parser recursive = TopDownParser.grammarRule(Statement.class);
+        assertEquals("ab,c", parse(recursive, "a b , c"));
+        assertEquals(5, events.chars().filter(c -> c == '>').count());
+    }
+}
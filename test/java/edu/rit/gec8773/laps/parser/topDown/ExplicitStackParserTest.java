@@ -0,0 +1,61 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.annotation.GrammarRule;
+import edu.rit.gec8773.laps.annotation.Priority;
+import edu.rit.gec8773.laps.annotation.Token;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.SmallStack;
+import edu.rit.gec8773.laps.scanner.CustomScanner;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ExplicitStackParserTest {
+
+    @GrammarRule
+    public static class Items {
+        @Token(skip = true)
+        public static final String STACK_TEST_SPACE = " +";
+        @Token
+        public static final String STACK_TEST_ITEM = "x";
+        @Token
+        public static final String STACK_TEST_END = ";";
+
+        public final int count;
+
+        public Items(String STACK_TEST_ITEM, Items rest) {
+            count = rest.count + 1;
+        }
+
+        @Priority(1)
+        public Items(String STACK_TEST_ITEM, String STACK_TEST_END) {
+            count = 1;
+        }
+    }
+
+    private static String input(int count) {
+        return "x ".repeat(count) + ";";
+    }
+
+    @Test
+    public void sameResultTest() throws Exception {
+        Parser recursive = TopDownParser.grammarRule(Items.class);
+        Parser iterative = new ExplicitStackParser(recursive);
+        CustomScanner sc = new CustomScanner(input(20));
+        assertEquals(20, ((Items)iterative.parse(sc)).count);
+        assertEquals(41, sc.mark());
+        sc = new CustomScanner("x x");
+        assertNull(iterative.parse(sc));
+        assertEquals(0, sc.mark());
+        assertNull(recursive.parse(new CustomScanner("x x")));
+    }
+
+    @Test
+    public void deepInputTest() throws Exception {
+        Parser parser = new ExplicitStackParser(
+                TopDownParser.grammarRule(Items.class));
+        Object AST = SmallStack.parse(parser, input(100_000));
+        assertTrue(String.valueOf(AST), AST instanceof Items);
+        assertEquals(100_000, ((Items)AST).count);
+    }
+}
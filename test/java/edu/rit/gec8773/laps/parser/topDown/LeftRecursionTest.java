@@ -0,0 +1,199 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.annotation.GrammarRule;
+import edu.rit.gec8773.laps.annotation.Priority;
+import edu.rit.gec8773.laps.annotation.Token;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.SmallStack;
+import edu.rit.gec8773.laps.resources.Resources;
+import edu.rit.gec8773.laps.scanner.CustomScanner;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LeftRecursionTest {
+
+    @GrammarRule
+    public static class Sum {
+        @Token(skip = true)
+        public static final String LEFT_TEST_SPACE = " +";
+        @Token
+        public static final String LEFT_TEST_NUMBER = "[0-9]+";
+        @Token
+        public static final String LEFT_TEST_PLUS = "\\+";
+        @Token
+        public static final String LEFT_TEST_MINUS = "-";
+
+        public final String text;
+        public final long value;
+
+        public Sum(Sum left, String LEFT_TEST_MINUS, Product right) {
+            text = shorten("(" + left.text + "-" + right.text + ")");
+            value = left.value - right.value;
+        }
+
+        @Priority(1)
+        public Sum(Sum left, String LEFT_TEST_PLUS, String LEFT_TEST_NUMBER) {
+            text = shorten("(" + left.text + "+" + LEFT_TEST_NUMBER + ")");
+            value = left.value + Long.parseLong(LEFT_TEST_NUMBER);
+        }
+
+        @Priority(2)
+        public Sum(Product product) {
+            text = product.text;
+            value = product.value;
+        }
+    }
+
+    @GrammarRule
+    public static class Product {
+        @Token
+        public static final String LEFT_TEST_TIMES = "\\*";
+
+        public final String text;
+        public final long value;
+
+        public Product(Product left, String LEFT_TEST_TIMES,
+                       String LEFT_TEST_NUMBER) {
+            text = "(" + left.text + "*" + LEFT_TEST_NUMBER + ")";
+            value = left.value * Long.parseLong(LEFT_TEST_NUMBER);
+        }
+
+        @Priority(1)
+        public Product(String LEFT_TEST_NUMBER) {
+            text = LEFT_TEST_NUMBER;
+            value = Long.parseLong(LEFT_TEST_NUMBER);
+        }
+    }
+
+    @GrammarRule
+    public static class Call {
+        @Token
+        public static final String LEFT_TEST_NAME = "[a-z]+";
+        @Token
+        public static final String LEFT_TEST_CALL = "\\(\\)";
+        @Token
+        public static final String LEFT_TEST_DOT = "\\.";
+
+        public final String text;
+
+        public Call(Member member, String LEFT_TEST_CALL) {
+            text = member.text + "()";
+        }
+
+        @Priority(1)
+        public Call(String LEFT_TEST_NAME) {
+            text = LEFT_TEST_NAME;
+        }
+    }
+
+    @GrammarRule
+    public static class Member {
+        public final String text;
+
+        public Member(Call call, String LEFT_TEST_DOT, String LEFT_TEST_NAME) {
+            text = call.text + "." + LEFT_TEST_NAME;
+        }
+    }
+
+    /**
+     * Left recursive through a rule which only accepts the empty input
+     */
+    @GrammarRule
+    public static class Hidden {
+        @Token
+        public static final String LEFT_HIDDEN_NUMBER = "[0-9]+";
+        @Token
+        public static final String LEFT_HIDDEN_PLUS = "\\+";
+
+        public final String text;
+
+        public Hidden(Nothing nothing, Hidden left, String LEFT_HIDDEN_PLUS,
+                      String LEFT_HIDDEN_NUMBER) {
+            text = "(" + left.text + "+" + LEFT_HIDDEN_NUMBER + ")";
+        }
+
+        @Priority(1)
+        public Hidden(String LEFT_HIDDEN_NUMBER) {
+            text = LEFT_HIDDEN_NUMBER;
+        }
+    }
+
+    @GrammarRule
+    public static class Nothing {
+        public Nothing() {}
+    }
+
+    private static String shorten(String text) {
+        return text.length() < 100 ? text : "...";
+    }
+
+    private static Object parse(Parser parser, String input)
+            throws Exception {
+        return parser.parse(new CustomScanner(input));
+    }
+
+    @Test
+    public void directLeftRecursionTest() throws Exception {
+        Parser recursive = TopDownParser.grammarRule(Sum.class);
+        Parser iterative = new ExplicitStackParser(recursive);
+        for (boolean memoize : new boolean[] { false, true }) {
+            if (memoize)
+                Resources.instance.enableMemoization();
+            try {
+                for (Parser parser : new Parser[] { recursive, iterative }) {
+                    assertEquals("((1-2)+3)",
+                            ((Sum)parse(parser, "1 - 2 + 3")).text);
+                    assertEquals("((1-((2*3)*4))+5)",
+                            ((Sum)parse(parser, "1 - 2 * 3 * 4 + 5")).text);
+                    assertEquals("7", ((Sum)parse(parser, "7 +")).text);
+                    assertNull(parse(parser, "+ 7"));
+                }
+            } finally {
+                Resources.instance.disableMemoization();
+            }
+        }
+    }
+
+    @Test
+    public void indirectLeftRecursionTest() throws Exception {
+        Parser recursive = TopDownParser.grammarRule(Call.class);
+        Parser iterative = new ExplicitStackParser(recursive);
+        for (Parser parser : new Parser[] { recursive, iterative }) {
+            assertEquals("a.b().c()",
+                    ((Call)parse(parser, "a.b().c()")).text);
+            assertEquals("a", ((Call)parse(parser, "a.b")).text);
+        }
+    }
+
+    private static void assertHiddenLeftRecursion(Parser parser)
+            throws Exception {
+        assertEquals("((1+2)+3)", ((Hidden)parse(parser, "1+2+3")).text);
+        assertEquals("1", ((Hidden)parse(parser, "1+")).text);
+        assertNull(parse(parser, "+1"));
+    }
+
+    @Test
+    public void hiddenLeftRecursionTest() throws Exception {
+        assertHiddenLeftRecursion(TopDownParser.grammarRule(Hidden.class));
+    }
+
+    @Test
+    public void iterativeHiddenLeftRecursionTest() throws Exception {
+        assertHiddenLeftRecursion(new ExplicitStackParser(
+                TopDownParser.grammarRule(Hidden.class)));
+    }
+
+    @Test
+    public void longInputTest() throws Exception {
+        Parser parser = TopDownParser.grammarRule(Sum.class);
+        int count = 100_000;
+        String input = "1" + " - 2 * 1 + 3".repeat(count);
+        for (Parser engine : new Parser[] {
+                parser, new ExplicitStackParser(parser) }) {
+            Object AST = SmallStack.parse(engine, input);
+            assertTrue(String.valueOf(AST), AST instanceof Sum);
+            assertEquals(1L + count, ((Sum)AST).value);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.annotation.GrammarRule;
+import edu.rit.gec8773.laps.annotation.Infix;
+import edu.rit.gec8773.laps.annotation.Operator;
+import edu.rit.gec8773.laps.annotation.Token;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.SmallStack;
+import edu.rit.gec8773.laps.scanner.CustomScanner;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OperatorParserTest {
+
+    @GrammarRule
+    public static class Expression {
+        @Token(skip = true)
+        public static final String OPERATOR_TEST_SPACE = " +";
+        @Token
+        public static final String OPERATOR_TEST_NUMBER = "[0-9]+";
+        @Token
+        public static final String OPERATOR_TEST_OPEN = "\\(";
+        @Token
+        public static final String OPERATOR_TEST_CLOSE = "\\)";
+        @Token @Operator(precedence = 1)
+        public static final String OPERATOR_TEST_PLUS = "\\+";
+        @Token @Operator(precedence = 1)
+        public static final String OPERATOR_TEST_MINUS = "-";
+        @Token @Operator(precedence = 2)
+        public static final String OPERATOR_TEST_TIMES = "\\*";
+        @Token @Operator(precedence = 3,
+                associativity = Operator.Associativity.RIGHT)
+        public static final String OPERATOR_TEST_POWER = "\\*\\*";
+
+        public final String text;
+        public final long value;
+
+        @Infix
+        public Expression(Expression left, String operator,
+                          Expression right) {
+            text = left.text.length() + right.text.length() < 100 ?
+                    "(" + left.text + operator + right.text + ")" :
+                    "...";
+            switch (operator) {
+                case "+": value = left.value + right.value; break;
+                case "-": value = left.value - right.value; break;
+                case "*": value = left.value * right.value; break;
+                default: value = (long)Math.pow(left.value, right.value);
+            }
+        }
+
+        public Expression(String OPERATOR_TEST_OPEN, Expression inner,
+                          String OPERATOR_TEST_CLOSE) {
+            text = inner.text;
+            value = inner.value;
+        }
+
+        public Expression(String OPERATOR_TEST_NUMBER) {
+            text = OPERATOR_TEST_NUMBER;
+            value = Long.parseLong(OPERATOR_TEST_NUMBER);
+        }
+    }
+
+    private static String parse(Parser parser, String input)
+            throws Exception {
+        Object AST = parser.parse(new CustomScanner(input));
+        return AST == null ? null : ((Expression)AST).text;
+    }
+
+    @Test
+    public void precedenceTest() throws Exception {
+        Parser recursive = TopDownParser.grammarRule(Expression.class);
+        Parser iterative = new ExplicitStackParser(recursive);
+        for (Parser parser : new Parser[] { recursive, iterative }) {
+            assertEquals("((1-2)-3)", parse(parser, "1 - 2 - 3"));
+            assertEquals("(2**(3**2))", parse(parser, "2 ** 3 ** 2"));
+            assertEquals("(1+(2*(3**2)))", parse(parser, "1 + 2 * 3 ** 2"));
+            assertEquals("((1*2)+3)", parse(parser, "1 * 2 + 3"));
+            assertEquals("((1+2)*3)", parse(parser, "(1 + 2) * 3"));
+            assertEquals("4", parse(parser, "4"));
+            assertEquals("4", parse(parser, "4 +"));
+            assertNull(parse(parser, "+ 4"));
+        }
+    }
+
+    @Test
+    public void longExpressionTest() throws Exception {
+        Parser parser = TopDownParser.grammarRule(Expression.class);
+        int count = 100_000;
+        String input = "1 + 2 * 1 - ".repeat(count) + "0";
+        Object AST = SmallStack.parse(parser, input);
+        assertTrue(String.valueOf(AST), AST instanceof Expression);
+        assertEquals(count + 2L, ((Expression)AST).value);
+    }
+}
@@ -0,0 +1,85 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.annotation.GrammarRule;
+import edu.rit.gec8773.laps.annotation.Separator;
+import edu.rit.gec8773.laps.annotation.Token;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.SmallStack;
+import edu.rit.gec8773.laps.scanner.CustomScanner;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class RepetitionParserTest {
+
+    @GrammarRule
+    public static class Group {
+        @Token(skip = true)
+        public static final String REPEAT_TEST_SPACE = " +";
+        @Token
+        public static final String REPEAT_TEST_OPEN = "\\[";
+        @Token
+        public static final String REPEAT_TEST_CLOSE = "]";
+        @Token
+        public static final String REPEAT_TEST_WORD = "[a-z]+";
+        @Token
+        public static final String REPEAT_TEST_COMMA = ",";
+        @Token
+        public static final String REPEAT_TEST_BANG = "!";
+
+        public final List<String> words;
+        public final Optional<String> bang;
+        public final Group[] groups;
+
+        public Group(String REPEAT_TEST_OPEN,
+                     @Separator("REPEAT_TEST_COMMA")
+                             List<String> REPEAT_TEST_WORD,
+                     Optional<String> REPEAT_TEST_BANG,
+                     Group[] groups,
+                     String REPEAT_TEST_CLOSE) {
+            words = REPEAT_TEST_WORD;
+            bang = REPEAT_TEST_BANG;
+            this.groups = groups;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("[");
+            sb.append(String.join(",", words));
+            bang.ifPresent(sb::append);
+            for (Group group : groups)
+                sb.append(group);
+            return sb.append("]").toString();
+        }
+    }
+
+    private static Object parse(Parser parser, String input)
+            throws Exception {
+        return parser.parse(new CustomScanner(input));
+    }
+
+    @Test
+    public void repetitionTest() throws Exception {
+        Parser recursive = TopDownParser.grammarRule(Group.class);
+        Parser iterative = new ExplicitStackParser(recursive);
+        for (Parser parser : new Parser[] { recursive, iterative }) {
+            assertEquals("[a,b![c][]]",
+                    String.valueOf(parse(parser, "[a, b ! [c] [] ]")));
+            assertEquals("[]", String.valueOf(parse(parser, "[]")));
+            assertNull(parse(parser, "[a, ]"));
+            assertNull(parse(parser, "[a b]"));
+        }
+    }
+
+    @Test
+    public void deepRepetitionTest() throws Exception {
+        Parser parser = new ExplicitStackParser(
+                TopDownParser.grammarRule(Group.class));
+        int depth = 50_000;
+        String input = "[".repeat(depth) + "]".repeat(depth);
+        assertTrue(SmallStack.parse(parser, input) instanceof Group);
+    }
+}
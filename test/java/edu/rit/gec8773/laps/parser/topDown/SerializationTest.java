@@ -0,0 +1,111 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.annotation.GrammarRule;
+import edu.rit.gec8773.laps.annotation.Infix;
+import edu.rit.gec8773.laps.annotation.Operator;
+import edu.rit.gec8773.laps.annotation.RunAfterEachInit;
+import edu.rit.gec8773.laps.annotation.RunBeforeEachInit;
+import edu.rit.gec8773.laps.annotation.RunBeforeFirstInit;
+import edu.rit.gec8773.laps.annotation.Token;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.scanner.CustomScanner;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SerializationTest {
+
+    private static final StringBuilder hooks = new StringBuilder();
+
+    @GrammarRule
+    public static class Block {
+        @Token(skip = true)
+        public static final String SAVE_TEST_SPACE = " +";
+        @Token
+        public static final String SAVE_TEST_OPEN = "\\{";
+        @Token
+        public static final String SAVE_TEST_CLOSE = "\\}";
+
+        public final int total;
+
+        @RunBeforeFirstInit
+        public static void once() {
+            hooks.append("once ");
+        }
+
+        public Block(String SAVE_TEST_OPEN, List<Sum> sums,
+                     String SAVE_TEST_CLOSE) {
+            int total = 0;
+            for (Sum sum : sums)
+                total += sum.value;
+            this.total = total;
+        }
+    }
+
+    @GrammarRule
+    public static class Sum {
+        @Token
+        public static final String SAVE_TEST_NUMBER = "[0-9]+";
+        @Token @Operator(precedence = 1)
+        public static final String SAVE_TEST_PLUS = "\\+";
+        @Token
+        public static final String SAVE_TEST_NOTHING = "_";
+
+        public final int value;
+
+        @RunBeforeEachInit
+        public static void before() {
+            hooks.append("before ");
+        }
+
+        @Infix
+        public Sum(Sum left, String operator, Sum right) {
+            value = left.value + right.value;
+        }
+
+        public Sum(String SAVE_TEST_NUMBER) {
+            value = Integer.parseInt(SAVE_TEST_NUMBER);
+        }
+
+        public Sum(String SAVE_TEST_NOTHING, Sum empty) {
+            value = empty.value;
+        }
+
+        public Sum() {
+            value = 0;
+        }
+
+        @RunAfterEachInit
+        public void after() {
+            hooks.append("after ");
+        }
+    }
+
+    @Test
+    public void saveAndLoadTest() throws Exception {
+        Parser saved = TopDownParser.grammarRule(Block.class);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(saved);
+        }
+        Parser loaded;
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            loaded = (Parser)in.readObject();
+        }
+        assertNotSame(saved, loaded);
+        hooks.setLength(0);
+        Object AST = loaded.parse(new CustomScanner("{ 1 + 2 _ 3 _ }"));
+        assertNotNull(AST);
+        assertEquals(6, ((Block)AST).total);
+        assertTrue(hooks.toString().startsWith("once "));
+        assertTrue(hooks.toString().contains("before after "));
+        assertEquals(saved.toString(), loaded.toString());
+    }
+}
@@ -0,0 +1,262 @@
+package edu.rit.gec8773.laps.parser.topDown;
+
+import edu.rit.gec8773.laps.annotation.GrammarRule;
+import edu.rit.gec8773.laps.annotation.Infix;
+import edu.rit.gec8773.laps.annotation.Operator;
+import edu.rit.gec8773.laps.annotation.Priority;
+import edu.rit.gec8773.laps.annotation.RunBeforeEachInit;
+import edu.rit.gec8773.laps.annotation.Token;
+import edu.rit.gec8773.laps.parser.Parser;
+import edu.rit.gec8773.laps.parser.cst.ConcreteSyntaxTree;
+import edu.rit.gec8773.laps.parser.cst.ParseListener;
+import edu.rit.gec8773.laps.parser.cst.Visitor;
+import edu.rit.gec8773.laps.scanner.CustomScanner;
+import org.junit.Test;
+
+import java.io.Reader;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StreamingParserTest {
+
+    private static int hooks = 0;
+
+    @GrammarRule
+    public static class Log {
+        @Token(skip = true)
+        public static final String STREAM_TEST_SPACE = "[ \\n]+";
+        @Token
+        public static final String STREAM_TEST_END = "\\.";
+
+        @Priority(1)
+        public Log(List<Entry> entries, String STREAM_TEST_END) {
+            ++hooks;
+        }
+
+        @Priority(2)
+        public Log(List<Entry> entries) {
+            ++hooks;
+        }
+    }
+
+    @GrammarRule
+    public static class Entry {
+        @Token
+        public static final String STREAM_TEST_NAME = "[a-z]+";
+        @Token
+        public static final String STREAM_TEST_EQUALS = "=";
+
+        public Entry(String STREAM_TEST_NAME, String STREAM_TEST_EQUALS,
+                     Value value) {
+            ++hooks;
+        }
+    }
+
+    @GrammarRule
+    public static class Value {
+        @Token
+        public static final String STREAM_TEST_NUMBER = "[0-9]+";
+        @Token @Operator(precedence = 1)
+        public static final String STREAM_TEST_PLUS = "\\+";
+
+        @RunBeforeEachInit
+        public static void before() {
+            ++hooks;
+        }
+
+        @Infix
+        public Value(Value left, String operator, Value right) {
+            ++hooks;
+        }
+
+        @Priority(1)
+        public Value(String STREAM_TEST_NUMBER) {
+            ++hooks;
+        }
+    }
+
+    /**
+     * Writes each event like {@link ConcreteSyntaxTree#toString()} writes
+     * each node, without the spans of grammar rules
+     */
+    private static class Writer implements ParseListener {
+        private final StringBuilder sb = new StringBuilder();
+        private int depth = 0;
+
+        @Override
+        public void enterRule(String name, int alternative) {
+            line(name).append(" #").append(alternative).append('\n');
+            ++depth;
+        }
+
+        @Override
+        public void token(edu.rit.gec8773.laps.scanner.Token token) {
+            line("<" + token.getName().toUpperCase() + ">").append(' ')
+                    .append(token.getPosition()).append("..")
+                    .append(token.getPosition() + token.getLength())
+                    .append('\n');
+        }
+
+        @Override
+        public void exitRule(String name) {
+            --depth;
+        }
+
+        private StringBuilder line(String name) {
+            for (int i = 0; i < depth; ++i)
+                sb.append("  ");
+            return sb.append(name);
+        }
+    }
+
+    private static String stream(String input) throws Exception {
+        Writer writer = new Writer();
+        Parser parser = new StreamingParser(
+                TopDownParser.grammarRule(Log.class), writer);
+        return parser.parse(new CustomScanner(input)) == null ?
+                null :
+                writer.sb.toString();
+    }
+
+    private static String tree(String input) throws Exception {
+        Parser parser = new ConcreteSyntaxParser(
+                TopDownParser.grammarRule(Log.class));
+        ConcreteSyntaxTree tree =
+                (ConcreteSyntaxTree)parser.parse(new CustomScanner(input));
+        StringBuilder sb = new StringBuilder();
+        tree.accept(new Visitor() {
+            private int depth = 0;
+
+            @Override
+            public boolean enterRule(ConcreteSyntaxTree tree, int node) {
+                line(tree, node).append(" #")
+                        .append(tree.getAlternative(node)).append('\n');
+                ++depth;
+                return true;
+            }
+
+            @Override
+            public void exitRule(ConcreteSyntaxTree tree, int node) {
+                --depth;
+            }
+
+            @Override
+            public void visitToken(ConcreteSyntaxTree tree, int node) {
+                line(tree, node).append(' ').append(tree.getStart(node))
+                        .append("..").append(tree.getEnd(node)).append('\n');
+            }
+
+            private StringBuilder line(ConcreteSyntaxTree tree, int node) {
+                for (int i = 0; i < depth; ++i)
+                    sb.append("  ");
+                return sb.append(tree.getName(node));
+            }
+        });
+        return sb.toString();
+    }
+
+    @Test
+    public void eventTest() throws Exception {
+        hooks = 0;
+        String input = "a = 1 b = 2 + 3 + 4 c = 5 .";
+        String events = stream(input);
+        assertEquals(0, hooks);
+        assertEquals(tree(input), events);
+        assertTrue(events.startsWith(String.join("\n",
+                "<Log> #0",
+                "  <Entry> #0",
+                "    <STREAM_TEST_NAME> 0..1",
+                "    <STREAM_TEST_EQUALS> 2..3",
+                "    <Value> #0",
+                "      <STREAM_TEST_NUMBER> 4..5",
+                "  <Entry> #0",
+                "    <STREAM_TEST_NAME> 6..7",
+                "    <STREAM_TEST_EQUALS> 8..9",
+                "    <Value> #-1",
+                "      <Value> #-1",
+                "")));
+        assertEquals(tree("."), stream("."));
+        assertNull(stream("a = 1 b ."));
+    }
+
+    @Test
+    public void cutTest() throws Exception {
+        // Without the end token, the first alternative fails after its
+        // list was already given, so the second one isn't tried
+        assertNotNull(tree("a = 1 b = 2"));
+        assertNull(stream("a = 1 b = 2"));
+        assertNotNull(tree("a = 1 +"));
+        assertNull(stream("a = 1 +"));
+    }
+
+    /**
+     * Reads as many entries as it's asked to, one at a time
+     */
+    private static class Entries extends Reader {
+        private final int count;
+        private int read = 0;
+        private String pending = "";
+
+        private Entries(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (pending.isEmpty()) {
+                if (read > count)
+                    return -1;
+                pending = read++ == count ? "." : "x = " + read + " + 1\n";
+            }
+            int amount = Math.min(length, pending.length());
+            pending.getChars(0, amount, buffer, offset);
+            pending = pending.substring(amount);
+            return amount;
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    @Test
+    public void longInputTest() throws Exception {
+        int count = 100_000;
+        Entries entries = new Entries(count);
+        int[] exited = { 0, 0 };
+        Parser parser = new StreamingParser(
+                TopDownParser.grammarRule(Log.class), new ParseListener() {
+            @Override
+            public void exitRule(String name) {
+                if (name.equals("<Entry>")) {
+                    // Each entry is given before much more input is read
+                    exited[1] = Math.max(exited[1],
+                            entries.read - ++exited[0]);
+                }
+            }
+        });
+        assertNotNull(parser.parse(new CustomScanner(entries, 16)));
+        assertEquals(count, exited[0]);
+        assertTrue(exited[1] <= 2);
+    }
+
+    @Test
+    public void releaseTest() throws Exception {
+        int count = 100_000;
+        CustomScanner sc = new CustomScanner(new Entries(count), 16);
+        int[] buffered = { 0 };
+        Parser parser = new StreamingParser(
+                TopDownParser.grammarRule(Log.class), new ParseListener() {
+            @Override
+            public void exitRule(String name) {
+                buffered[0] = Math.max(buffered[0], sc.getBufferLength());
+            }
+        });
+        assertNotNull(parser.parse(sc));
+        // The input before each committed entry is dropped, so the buffer
+        // stays a few entries long however long the input is
+        assertTrue(buffered[0] <= 128);
+        assertEquals(count + 1, sc.getLineIndex().getLineCount());
+        assertThrows(IllegalArgumentException.class, () -> sc.reset(0));
+    }
+}
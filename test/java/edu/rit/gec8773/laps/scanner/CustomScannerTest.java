@@ -0,0 +1,162 @@
+package edu.rit.gec8773.laps.scanner;
+
+import edu.rit.gec8773.laps.resources.Resources;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringReader;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class CustomScannerTest {
+    private static final Token WORD = new Token("scannerTestWord", "[a-z]+");
+    private static final Token STRING = new Token("scannerTestString",
+            "\"[^\"]*\"");
+
+    @BeforeClass
+    public static void addTokens() {
+        Resources.instance.addToken(WORD);
+        Resources.instance.addToken(STRING);
+        Resources.instance.addSkip("\\s+");
+        Resources.instance.addSkip("#[^\\n]*");
+    }
+
+    @Test
+    public void longestMatchAcrossBlocksTest() throws IOException {
+        String input = "\"" + "x".repeat(1000) + "\" rest";
+        CustomScanner sc = new CustomScanner(new StringReader(input), 7);
+        Token tok = sc.nextToken(STRING.getRegex());
+        assertNotNull(tok);
+        assertEquals(1002, tok.getValue().length());
+        sc.skip();
+        assertEquals("rest", sc.nextToken(WORD.getRegex()).getValue());
+    }
+
+    @Test
+    public void noMatchLeavesPositionTest() throws IOException {
+        CustomScanner sc = new CustomScanner("abc");
+        assertFalse(sc.hasNextToken(STRING.getRegex()));
+        assertNull(sc.nextToken(STRING.getRegex()));
+        assertEquals(0, sc.mark());
+    }
+
+    @Test
+    public void resetTest() throws IOException {
+        CustomScanner sc = new CustomScanner("one two");
+        int mark = sc.mark();
+        assertEquals("one", sc.nextToken(WORD.getRegex()).getValue());
+        sc.skip();
+        assertEquals("two", sc.nextToken(WORD.getRegex()).getValue());
+        sc.reset(mark);
+        Token tok = sc.nextToken(WORD.getRegex());
+        assertEquals("one", tok.getValue());
+        assertEquals(0, tok.getPosition());
+    }
+
+    @Test
+    public void releaseTest() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 100; ++i)
+            input.append("word\n");
+        CustomScanner sc = new CustomScanner(
+                new StringReader(input.append("last").toString()), 4);
+        Pattern word = WORD.getRegex();
+        for (int i = 0; i < 100; ++i) {
+            assertEquals("word", sc.nextToken(word).getValue());
+            sc.skip();
+            sc.release(sc.mark());
+        }
+        assertTrue(sc.getBufferLength() < 20);
+        int mark = sc.mark();
+        assertEquals(500, mark);
+        Token last = sc.nextToken(word);
+        assertEquals(500, last.getPosition());
+        assertEquals("last", last.getValue());
+        assertEquals(101, last.getLine());
+        assertEquals(1, last.getColumn());
+        sc.reset(mark);
+        assertEquals("last", sc.nextToken(word).getValue());
+        assertThrows(IllegalArgumentException.class, () -> sc.reset(0));
+        assertThrows(IllegalArgumentException.class, () -> sc.release(0));
+    }
+
+    @Test
+    public void lineNumberTest() throws IOException {
+        CustomScanner sc = new CustomScanner(new StringReader("a\nb\n\nc"),
+                2);
+        Pattern word = WORD.getRegex();
+        assertEquals(1, sc.getLineNumber());
+        sc.nextToken(word);
+        sc.skip();
+        assertEquals(2, sc.getLineNumber());
+        sc.nextToken(word);
+        sc.skip();
+        assertEquals(4, sc.getLineNumber());
+    }
+
+    @Test
+    public void tokenLineAndColumnTest() throws IOException {
+        CustomScanner sc = new CustomScanner(new StringReader("ab\n  cd"),
+                3);
+        Pattern word = WORD.getRegex();
+        Token first = sc.nextToken(word);
+        sc.skip();
+        assertEquals(3, sc.getColumnNumber());
+        Token second = sc.nextToken(word);
+        assertEquals(1, first.getLine());
+        assertEquals(1, first.getColumn());
+        assertEquals(2, second.getLine());
+        assertEquals(3, second.getColumn());
+        assertEquals(2, second.getLength());
+        assertEquals("cd", second.getValue());
+        assertEquals(-1, new Token(WORD, "ab").getLine());
+    }
+
+    private static byte[] save(Token token) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(token);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void savedTokenLineTest() throws Exception {
+        CustomScanner sc = new CustomScanner(new StringReader(
+                "\n".repeat(10_000) + "  cd"), 3);
+        sc.skip();
+        byte[] saved = save(sc.nextToken(WORD.getRegex()));
+        Token token;
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(saved))) {
+            token = (Token)in.readObject();
+        }
+        assertEquals("cd", token.getValue());
+        assertEquals(10_001, token.getLine());
+        assertEquals(3, token.getColumn());
+        sc = new CustomScanner(new StringReader("  cd"), 3);
+        sc.skip();
+        // The lines of the input aren't saved with the token
+        assertEquals(save(sc.nextToken(WORD.getRegex())).length, saved.length);
+    }
+
+    @Test
+    public void skipEveryPatternTest() throws IOException {
+        CustomScanner sc = new CustomScanner(new StringReader(
+                "  # one\n# two\n\t word"), 4);
+        sc.skip();
+        int skipped = sc.mark();
+        assertEquals("word", sc.nextToken(WORD.getRegex()).getValue());
+        sc.reset(0);
+        sc.skip();
+        assertEquals(skipped, sc.mark());
+        sc.skip();
+        assertEquals(skipped, sc.mark());
+    }
+}
@@ -0,0 +1,66 @@
+package edu.rit.gec8773.laps.scanner;
+
+import edu.rit.gec8773.laps.resources.Resources;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class TokenArrayScannerTest {
+    private static final Token NAME = new Token("arrayTestName", "[a-z]+");
+    private static final Token LET = new Token("arrayTestLet", "let");
+    private static final Token LESS_EQUAL = new Token("arrayTestLessEqual",
+            "<=");
+    private static final Token LESS = new Token("arrayTestLess", "<");
+    private static final Token EQUAL = new Token("arrayTestEqual", "=");
+    private static final Token NUMBER = new Token("arrayTestNumber",
+            "[+-]?[0-9]+");
+    private static final Token MINUS = new Token("arrayTestMinus", "-");
+
+    @BeforeClass
+    public static void addTokens() {
+        for (Token token : new Token[] { NAME, LET, LESS_EQUAL, LESS, EQUAL,
+                NUMBER, MINUS })
+            Resources.instance.addToken(token);
+        Resources.instance.addSkip("\\s+");
+    }
+
+    @Test
+    public void sameTextTest() throws IOException {
+        TokenArrayScanner sc = new TokenArrayScanner(
+                new CustomScanner("let x"));
+        assertEquals(2, sc.size());
+        assertTrue(sc.hasNextToken(NAME.getRegex()));
+        assertEquals("let", sc.nextToken(LET.getRegex()).getValue());
+        assertEquals("x", sc.nextToken(NAME.getRegex()).getValue());
+        assertNull(sc.nextToken());
+    }
+
+    @Test
+    public void shorterMatchTest() throws IOException {
+        TokenArrayScanner sc = new TokenArrayScanner(
+                new CustomScanner("a <= b -1"));
+        assertEquals(4, sc.size());
+        assertEquals("a", sc.nextToken(NAME.getRegex()).getValue());
+        int mark = sc.mark();
+        Token less = sc.nextToken(LESS.getRegex());
+        assertEquals("<", less.getValue());
+        assertEquals(2, less.getPosition());
+        assertEquals(3, sc.getInputPosition());
+        assertEquals("=", sc.nextToken(EQUAL.getRegex()).getValue());
+        assertEquals("b", sc.nextToken(NAME.getRegex()).getValue());
+        sc.reset(mark);
+        assertEquals("<=", sc.nextToken(LESS_EQUAL.getRegex()).getValue());
+        assertEquals("b", sc.nextToken(NAME.getRegex()).getValue());
+        mark = sc.mark();
+        assertEquals("-", sc.nextToken(MINUS.getRegex()).getValue());
+        assertEquals("1", sc.nextToken(NUMBER.getRegex()).getValue());
+        assertNull(sc.nextToken());
+        assertEquals(9, sc.getInputPosition());
+        sc.reset(mark);
+        assertEquals("-1", sc.nextToken(NUMBER.getRegex()).getValue());
+        assertEquals(9, sc.getInputPosition());
+    }
+}
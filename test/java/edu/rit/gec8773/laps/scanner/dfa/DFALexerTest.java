@@ -0,0 +1,87 @@
+package edu.rit.gec8773.laps.scanner.dfa;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class DFALexerTest {
+    private static final List<Pattern> PATTERNS = List.of(
+            Pattern.compile("class"),
+            Pattern.compile("[a-zA-Z]\\w*"),
+            Pattern.compile("([a-zA-Z]\\w*)|"),
+            Pattern.compile("[\\+\\-]?(\\d+\\.\\d*|\\.\\d+)"),
+            Pattern.compile("[\\+\\-]?\\d+"),
+            Pattern.compile("\"[^\"]*\""),
+            Pattern.compile("'.'"),
+            Pattern.compile("[\\+\\-\\/\\*]"),
+            Pattern.compile("a{2,3}b?"),
+            Pattern.compile("\\x41\\u0042[^\\s\\d]+"),
+            Pattern.compile("\\s+"));
+
+    @Test
+    public void matchesLikeRegexTest() {
+        DFALexer lexer = DFALexer.compile(PATTERNS);
+        String alphabet = "ab c1.2+-\"'x_AB\n";
+        Random random = new Random(42);
+        int[] lengths = new int[lexer.size()];
+        for (int i = 0; i < 5000; ++i) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(10);
+            for (int j = 0; j < length; ++j)
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            String text = sb.toString();
+            lexer.match(text, 0, text.length(), lengths);
+            for (int type = 0; type < lexer.size(); ++type) {
+                assertTrue(lexer.isSupported(type));
+                Matcher matcher = PATTERNS.get(type).matcher(text);
+                int expected = matcher.lookingAt() ? matcher.end() : -1;
+                assertEquals(PATTERNS.get(type) + " on \"" + text + "\"",
+                        expected, lengths[type]);
+            }
+        }
+    }
+
+    @Test
+    public void longestMatchPriorityTest() {
+        DFALexer lexer = DFALexer.compile(PATTERNS);
+        int[] lengths = new int[lexer.size()];
+        lexer.match("class", 0, 5, lengths);
+        assertEquals(0, DFALexer.longest(lengths, 0, lexer.size()));
+        lexer.match("classes", 0, 7, lengths);
+        assertEquals(1, DFALexer.longest(lengths, 0, lexer.size()));
+    }
+
+    @Test
+    public void hitEndTest() {
+        DFALexer lexer = DFALexer.compile(PATTERNS);
+        int[] lengths = new int[lexer.size()];
+        assertTrue(lexer.match("\"unclosed", 0, 9, lengths));
+        assertEquals(-1, lengths[5]);
+        assertFalse(lexer.match("+;", 0, 2, lengths));
+        assertEquals(1, lengths[7]);
+    }
+
+    @Test
+    public void unsupportedFallsBackTest() {
+        List<Pattern> patterns = List.of(Pattern.compile("(a)\\1"),
+                Pattern.compile("a(?=b)"),
+                Pattern.compile("^a"),
+                Pattern.compile("a*?"),
+                Pattern.compile("(?i)a"),
+                Pattern.compile("b"));
+        DFALexer lexer = DFALexer.compile(patterns);
+        for (int type = 0; type < 5; ++type)
+            assertFalse(lexer.isSupported(type));
+        assertTrue(lexer.isSupported(5));
+        int[] lengths = new int[lexer.size()];
+        lexer.match("aab", 0, 3, lengths);
+        assertEquals(-1, lengths[0]);
+        lexer.match("b", 0, 1, lengths);
+        assertEquals(1, lengths[5]);
+    }
+}
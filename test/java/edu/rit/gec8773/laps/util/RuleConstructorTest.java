@@ -0,0 +1,140 @@
+package edu.rit.gec8773.laps.util;
+
+import edu.rit.gec8773.laps.annotation.RunAfterEachInit;
+import edu.rit.gec8773.laps.annotation.RunBeforeEachInit;
+import edu.rit.gec8773.laps.resources.Resources;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that rules are created and hooks are run the same way through the
+ * generated factories as through reflection
+ */
+public class RuleConstructorTest {
+
+    private static final StringBuilder events = new StringBuilder();
+
+    public static class Pair {
+        public final String text;
+
+        @RunBeforeEachInit
+        public static void before() {
+            events.append('<');
+            if (events.indexOf("!") >= 0)
+                throw new IllegalStateException("before");
+        }
+
+        public Pair(String left, Object right) {
+            if (left.equals("!"))
+                throw new IllegalStateException("constructor");
+            text = left + right;
+        }
+
+        @RunAfterEachInit
+        public void after() {
+            events.append('>');
+            if (text.equals("?!"))
+                throw new IllegalStateException("after");
+        }
+    }
+
+    /**
+     * A rule which can't be bound, since it isn't public, whose hooks are
+     * run through reflection
+     */
+    static class Hidden {
+        @RunBeforeEachInit
+        public static void first() {
+            events.append('1');
+        }
+
+        @RunBeforeEachInit
+        public static void second() {
+            events.append('2');
+        }
+    }
+
+    /**
+     * Checks that a call throws an {@link InvocationTargetException} holding
+     * what the code called threw, and that it was called through a factory
+     * rather than reflection when they're enabled
+     */
+    private static void assertThrown(String message, Call call) {
+        try {
+            call.run();
+            fail(message + " wasn't thrown");
+        } catch (InvocationTargetException e) {
+            assertEquals(message, e.getCause().getMessage());
+            assertNotEquals(Resources.instance.methodHandlesEnabled(),
+                    Arrays.stream(e.getCause().getStackTrace())
+                          .map(StackTraceElement::getClassName)
+                          .takeWhile(name -> !name.equals(
+                                  RuleConstructorTest.class.getName()))
+                          .anyMatch(name -> name.startsWith(
+                                  "jdk.internal.reflect.")));
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private interface Call {
+        void run() throws Exception;
+    }
+
+    @Test
+    public void factoryTest() throws Exception {
+        RuleConstructor constructor = new RuleConstructor(
+                Pair.class.getConstructor(String.class, Object.class));
+        MyConsumer<Void> before = AnnotationUtils.getStaticMethod(Pair.class,
+                RunBeforeEachInit.class);
+        MyConsumer<Object> after = AnnotationUtils.getInstanceMethod(
+                Pair.class, RunAfterEachInit.class);
+        for (boolean enabled : new boolean[] { false, true }) {
+            if (enabled)
+                Resources.instance.enableMethodHandles();
+            try {
+                events.setLength(0);
+                before.accept(null);
+                Object pair = constructor.newInstance(new Object[] { "a", 1 });
+                after.accept(pair);
+                assertEquals("a1", ((Pair)pair).text);
+                assertEquals("<>", events.toString());
+
+                assertThrown("constructor", () ->
+                        constructor.newInstance(new Object[] { "!", 1 }));
+                assertThrown("after", () -> after.accept(
+                        constructor.newInstance(new Object[] { "?", "!" })));
+                events.append('!');
+                assertThrown("before", () -> before.accept(null));
+
+                // Arguments which can't be passed are reported as they are
+                // by reflection rather than as thrown by the rule
+                assertThrows(IllegalArgumentException.class, () ->
+                        constructor.newInstance(new Object[] { 1, 1 }));
+                assertThrows(IllegalArgumentException.class, () ->
+                        constructor.newInstance(new Object[] { "a" }));
+                assertThrows(IllegalArgumentException.class, () ->
+                        after.accept("a"));
+            } finally {
+                Resources.instance.disableMethodHandles();
+            }
+        }
+    }
+
+    @Test
+    public void unboundTest() throws Exception {
+        Resources.instance.enableMethodHandles();
+        try {
+            events.setLength(0);
+            AnnotationUtils.getStaticMethod(Hidden.class,
+                    RunBeforeEachInit.class).accept(null);
+            assertEquals(2, events.length());
+        } finally {
+            Resources.instance.disableMethodHandles();
+        }
+    }
+}